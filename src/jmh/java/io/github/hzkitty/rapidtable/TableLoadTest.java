@@ -0,0 +1,366 @@
+package io.github.hzkitty.rapidtable;
+
+import io.github.hzkitty.RapidOCR;
+import io.github.hzkitty.entity.Pair;
+import io.github.hzkitty.entity.RecResult;
+import io.github.hzkitty.rapidtable.bench.LatencyHistogram;
+import io.github.hzkitty.rapidtable.entity.TableConfig;
+import io.github.hzkitty.rapidtable.utils.NativeMemoryStats;
+import io.github.hzkitty.rapidtable.utils.SimpleJson;
+import org.opencv.core.Point;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 压测工具：多个客户端线程驱动 RapidTable，统计延迟分位数、吞吐、CPU 使用率与 RSS，并对比不同配置
+ * <p>
+ * 用法（项目根目录）：
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec@load-test -Dload.args="--images dir --threads 1,4,8 --sessions 1,2 --intra-op 1,4"
+ * </pre>
+ * 参数：
+ * <pre>
+ * --images DIR        图像目录；同名 .json 为缓存的 OCR 结果（格式同慢请求用例的 ocr 字段），缺失时用 RapidOCR 计算并写入
+ * --mode closed|open  闭环：每个线程串行发请求；开环：按固定总速率发请求，延迟从计划发送时刻算起（包含排队）
+ * --rate N            开环模式的总请求速率（次/秒），默认 10
+ * --threads LIST      客户端线程数，默认 1
+ * --sessions LIST     引擎（推理会话）数，客户端轮流使用，默认 1
+ * --intra-op LIST     ORT intraOpNumThreads，-1 为 ORT 默认值，默认 -1
+ * --warmup SECONDS    预热时长，默认 10
+ * --duration SECONDS  统计时长，默认 30
+ * --report FILE       另存 CSV 报告
+ * </pre>
+ * 列表参数用逗号分隔，每种组合压测一轮，全部结束后打印对比表。
+ */
+public class TableLoadTest {
+
+    private static final String[] IMAGE_EXTENSIONS = {".jpg", ".jpeg", ".png", ".bmp"};
+
+    private final List<Request> corpus;
+    private final boolean openLoop;
+    private final double rate;
+    private final long warmupNanos;
+    private final long durationNanos;
+
+    TableLoadTest(List<Request> corpus, boolean openLoop, double rate, long warmupSeconds, long durationSeconds) {
+        this.corpus = corpus;
+        this.openLoop = openLoop;
+        this.rate = rate;
+        this.warmupNanos = warmupSeconds * 1_000_000_000L;
+        this.durationNanos = durationSeconds * 1_000_000_000L;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        if (!options.containsKey("images")) {
+            System.err.println("用法: TableLoadTest --images DIR [--mode closed|open] [--rate N] [--threads 1,4]"
+                    + " [--sessions 1,2] [--intra-op -1,4] [--warmup 10] [--duration 30] [--report FILE]");
+            return;
+        }
+        List<Request> corpus = loadCorpus(Paths.get(options.get("images")));
+        if (corpus.isEmpty()) {
+            System.err.println("目录中没有图像: " + options.get("images"));
+            return;
+        }
+        boolean openLoop = "open".equals(options.getOrDefault("mode", "closed"));
+        TableLoadTest loadTest = new TableLoadTest(corpus, openLoop,
+                Double.parseDouble(options.getOrDefault("rate", "10")),
+                Long.parseLong(options.getOrDefault("warmup", "10")),
+                Long.parseLong(options.getOrDefault("duration", "30")));
+
+        List<Report> reports = new ArrayList<>();
+        for (int intraOp : intList(options.getOrDefault("intra-op", "-1"))) {
+            for (int sessions : intList(options.getOrDefault("sessions", "1"))) {
+                for (int threads : intList(options.getOrDefault("threads", "1"))) {
+                    Report report = loadTest.run(threads, sessions, intraOp);
+                    System.out.println(report.toRow());
+                    reports.add(report);
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.println(Report.HEADER);
+        for (Report report : reports) {
+            System.out.println(report.toRow());
+        }
+        if (options.containsKey("report")) {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(options.get("report")),
+                    StandardCharsets.UTF_8))) {
+                out.println(Report.CSV_HEADER);
+                for (Report report : reports) {
+                    out.println(report.toCsv());
+                }
+            }
+        }
+    }
+
+    /**
+     * 压测一种配置
+     */
+    Report run(int threads, int sessions, int intraOp) throws InterruptedException {
+        TableConfig config = new TableConfig();
+        config.intraOpNumThreads = intraOp;
+        RapidTable[] engines = new RapidTable[sessions];
+        try {
+            for (int i = 0; i < sessions; i++) {
+                engines[i] = RapidTable.create(config);
+            }
+
+            LatencyHistogram histogram = new LatencyHistogram();
+            AtomicLong errors = new AtomicLong();
+            // 预热不计入统计
+            drive(engines, threads, warmupNanos, new LatencyHistogram(), new AtomicLong());
+
+            OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+            long cpuStart = processCpuNanos(os);
+            long wallStart = System.nanoTime();
+            RssSampler rssSampler = new RssSampler();
+            rssSampler.start();
+            drive(engines, threads, durationNanos, histogram, errors);
+            long wallNanos = System.nanoTime() - wallStart;
+            long cpuNanos = processCpuNanos(os) - cpuStart;
+            rssSampler.interrupt();
+            rssSampler.join();
+
+            Report report = new Report();
+            report.mode = openLoop ? "open" : "closed";
+            report.threads = threads;
+            report.sessions = sessions;
+            report.intraOp = intraOp;
+            report.requests = histogram.getCount();
+            report.errors = errors.get();
+            report.throughput = histogram.getCount() / (wallNanos / 1e9);
+            report.p50 = histogram.getValueAtPercentile(50) / 1e6;
+            report.p90 = histogram.getValueAtPercentile(90) / 1e6;
+            report.p99 = histogram.getValueAtPercentile(99) / 1e6;
+            report.p999 = histogram.getValueAtPercentile(99.9) / 1e6;
+            report.max = histogram.getMax() / 1e6;
+            report.cpu = cpuNanos < 0 ? -1 : cpuNanos * 100.0 / wallNanos / Runtime.getRuntime().availableProcessors();
+            report.rssMb = rssSampler.maxRss / (1024.0 * 1024.0);
+            return report;
+        } finally {
+            // 释放各引擎的 ORT 会话与线程池，多组配置依次压测时不累积原生内存
+            for (RapidTable engine : engines) {
+                if (engine != null) {
+                    engine.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * 在给定时长内由多个线程发请求并记录延迟
+     */
+    private void drive(RapidTable[] engines, int threads, long nanos, LatencyHistogram histogram, AtomicLong errors)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + nanos;
+        AtomicLong sequence = new AtomicLong();
+        long intervalNanos = openLoop ? (long) (1e9 / rate) : 0;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int worker = t;
+            workers[t] = new Thread(() -> {
+                while (true) {
+                    long seq = sequence.getAndIncrement();
+                    long intended;
+                    if (openLoop) {
+                        // 按计划发送时刻计算延迟，避免协调遗漏（coordinated omission）
+                        intended = start + seq * intervalNanos;
+                        if (intended >= deadline) {
+                            return;
+                        }
+                        long wait;
+                        while ((wait = intended - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    } else {
+                        intended = System.nanoTime();
+                        if (intended >= deadline) {
+                            return;
+                        }
+                    }
+                    Request request = corpus.get((int) (seq % corpus.size()));
+                    RapidTable engine = engines[openLoop ? (int) (seq % engines.length) : worker % engines.length];
+                    try {
+                        // 触发延迟计算的匹配与 HTML，计入延迟
+                        engine.runOcrEntries(request.image, request.boxes, request.recRes, false).getHtmlStr();
+                        histogram.record(System.nanoTime() - intended);
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }, "load-test-" + t);
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private static long processCpuNanos(OperatingSystemMXBean os) {
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    /**
+     * 读取图像与缓存的 OCR 结果，缺失的 OCR 结果用 RapidOCR 计算后写入缓存
+     */
+    static List<Request> loadCorpus(Path dir) throws Exception {
+        List<Path> images;
+        try (Stream<Path> stream = Files.list(dir)) {
+            images = stream.filter(TableLoadTest::isImage).sorted().collect(Collectors.toList());
+        }
+        RapidOCR rapidOCR = null;
+        List<Request> corpus = new ArrayList<>();
+        for (Path image : images) {
+            String name = image.getFileName().toString();
+            Path ocrFile = image.resolveSibling(name.substring(0, name.lastIndexOf('.')) + ".json");
+            byte[] bytes = Files.readAllBytes(image);
+            if (!Files.exists(ocrFile)) {
+                if (rapidOCR == null) {
+                    rapidOCR = RapidOCR.create();
+                }
+                List<RecResult> recResults = rapidOCR.run(bytes).getRecRes();
+                try (Writer out = Files.newBufferedWriter(ocrFile, StandardCharsets.UTF_8)) {
+                    OcrJson.write(recResults, out, "  ");
+                    out.write('\n');
+                }
+            }
+            Object json;
+            try (BufferedReader reader = Files.newBufferedReader(ocrFile, StandardCharsets.UTF_8)) {
+                json = SimpleJson.parse(reader);
+            }
+            List<?> entries = json instanceof Map ? (List<?>) ((Map<?, ?>) json).get("ocr") : (List<?>) json;
+            Pair<List<Point[]>, List<Pair<String, Float>>> ocr = OcrJson.read(entries);
+            corpus.add(new Request(bytes, ocr.getLeft(), ocr.getRight()));
+        }
+        return corpus;
+    }
+
+    private static boolean isImage(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (String ext : IMAGE_EXTENSIONS) {
+            if (name.endsWith(ext)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("无法识别的参数: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static List<Integer> intList(String value) {
+        List<Integer> list = new ArrayList<>();
+        for (String part : value.split(",")) {
+            list.add(Integer.parseInt(part.trim()));
+        }
+        return list;
+    }
+
+    /**
+     * 一张图像及其 OCR 结果
+     */
+    static class Request {
+        final byte[] image;
+        final List<Point[]> boxes;
+        final List<Pair<String, Float>> recRes;
+
+        Request(byte[] image, List<Point[]> boxes, List<Pair<String, Float>> recRes) {
+            this.image = image;
+            this.boxes = boxes;
+            this.recRes = recRes;
+        }
+    }
+
+    /**
+     * 每 200 毫秒采样一次 RSS，记录最大值
+     */
+    private static class RssSampler extends Thread {
+        private volatile long maxRss;
+
+        RssSampler() {
+            super("load-test-rss");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                maxRss = Math.max(maxRss, NativeMemoryStats.capture().getRssBytes());
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            maxRss = Math.max(maxRss, NativeMemoryStats.capture().getRssBytes());
+        }
+    }
+
+    /**
+     * 一轮压测的结果，延迟单位为毫秒
+     */
+    static class Report {
+        static final String HEADER = String.format("%-6s %7s %8s %8s %9s %6s %9s %9s %9s %9s %9s %9s %6s %8s",
+                "mode", "threads", "sessions", "intraOp", "requests", "errors", "req/s",
+                "p50", "p90", "p99", "p99.9", "max", "cpu%", "rssMB");
+        static final String CSV_HEADER =
+                "mode,threads,sessions,intraOp,requests,errors,throughput,p50Ms,p90Ms,p99Ms,p999Ms,maxMs,cpuPercent,rssMb";
+
+        String mode;
+        int threads;
+        int sessions;
+        int intraOp;
+        long requests;
+        long errors;
+        double throughput;
+        double p50;
+        double p90;
+        double p99;
+        double p999;
+        double max;
+        double cpu;
+        double rssMb;
+
+        String toRow() {
+            return String.format(Locale.ROOT, "%-6s %7d %8d %8d %9d %6d %9.2f %9.1f %9.1f %9.1f %9.1f %9.1f %6.1f %8.1f",
+                    mode, threads, sessions, intraOp, requests, errors, throughput, p50, p90, p99, p999, max, cpu, rssMb);
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.1f,%.1f",
+                    mode, threads, sessions, intraOp, requests, errors, throughput, p50, p90, p99, p999, max, cpu, rssMb);
+        }
+    }
+}
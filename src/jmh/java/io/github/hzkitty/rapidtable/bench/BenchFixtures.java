@@ -0,0 +1,74 @@
+package io.github.hzkitty.rapidtable.bench;
+
+import io.github.hzkitty.rapidtable.utils.SyntheticTableGenerator;
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.Collections;
+
+/**
+ * 基准测试的输入数据
+ * <p>
+ * size 参数统一取 small、medium、large：图像分别为测试图缩小一半、原图、纵向拼接 8 份的超长表格；
+ * 合成表格分别为 5x4、30x8、200x12 的网格（约 10% 的单元格跨两行或两列）。
+ */
+public final class BenchFixtures {
+
+    public static final String IMAGE = "src/test/resources/table_01.jpg";
+    public static final String[] SIZES = {"small", "medium", "large"};
+
+    private static final int LARGE_COPIES = 8;
+    private static final double SPAN_RATIO = 0.1;
+
+    private BenchFixtures() {
+    }
+
+    public static Mat image(String size) {
+        Mat src = Imgcodecs.imread(IMAGE, Imgcodecs.IMREAD_COLOR);
+        if (src.empty()) {
+            throw new IllegalStateException("无法读取测试图像，请在项目根目录运行: " + IMAGE);
+        }
+        switch (size) {
+            case "small":
+                Mat small = new Mat();
+                Imgproc.resize(src, small, new Size(src.cols() / 2.0, src.rows() / 2.0));
+                return small;
+            case "medium":
+                return src;
+            case "large":
+                Mat large = new Mat();
+                Core.vconcat(Collections.nCopies(LARGE_COPIES, src), large);
+                return large;
+            default:
+                throw new IllegalArgumentException("未知的 size: " + size);
+        }
+    }
+
+    /**
+     * 合成网格的 [行数, 列数]
+     */
+    public static int[] grid(String size) {
+        switch (size) {
+            case "small":
+                return new int[]{5, 4};
+            case "medium":
+                return new int[]{30, 8};
+            case "large":
+                return new int[]{200, 12};
+            default:
+                throw new IllegalArgumentException("未知的 size: " + size);
+        }
+    }
+
+    /**
+     * 合成的表格，网格大小见 {@link #grid(String)}，固定随机种子
+     */
+    public static SyntheticTableGenerator.SyntheticTable syntheticTable(String size) {
+        int[] grid = grid(size);
+        return SyntheticTableGenerator.generate(new SyntheticTableGenerator.Spec()
+                .rows(grid[0]).cols(grid[1]).spanRatio(SPAN_RATIO).maxSpan(2));
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.hzkitty.rapidtable.bench;
+
+import io.github.hzkitty.rapidtable.utils.LoadImage;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoadImage.call 对各种输入类型的耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadImageBenchmark {
+
+    @Param({"path", "bytes", "mat", "bufferedImage"})
+    public String inputType;
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private final LoadImage loadImage = new LoadImage();
+    private Object input;
+    private Path tempFile;
+
+    @Setup
+    public void setup() throws Exception {
+        Mat img = BenchFixtures.image(size);
+        MatOfByte buf = new MatOfByte();
+        Imgcodecs.imencode(".jpg", img, buf);
+        byte[] bytes = buf.toArray();
+        switch (inputType) {
+            case "path":
+                tempFile = Files.createTempFile("rapidtable-bench", ".jpg");
+                Files.write(tempFile, bytes);
+                input = tempFile.toString();
+                break;
+            case "bytes":
+                input = bytes;
+                break;
+            case "mat":
+                input = img;
+                break;
+            case "bufferedImage":
+                input = ImageIO.read(new ByteArrayInputStream(bytes));
+                break;
+            default:
+                throw new IllegalArgumentException("未知的 inputType: " + inputType);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (tempFile != null) {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Benchmark
+    public int load() throws Exception {
+        Mat mat = loadImage.call(input);
+        int rows = mat.rows();
+        // Mat 输入原样返回，不能释放
+        if (mat != input) {
+            mat.release();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.hzkitty.rapidtable.bench;
+
+import io.github.hzkitty.RapidOCR;
+import io.github.hzkitty.entity.RecResult;
+import io.github.hzkitty.rapidtable.RapidTable;
+import io.github.hzkitty.rapidtable.entity.TableResult;
+import org.opencv.core.Mat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端 RapidTable.run，OCR 结果在准备阶段计算一次
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RapidTableBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private RapidTable engine;
+    private Mat img;
+    private List<RecResult> ocrResult;
+
+    @Setup
+    public void setup() throws Exception {
+        engine = RapidTable.create();
+        img = BenchFixtures.image(size);
+        ocrResult = RapidOCR.create().run(img).getRecRes();
+    }
+
+    @Benchmark
+    public String run() throws Exception {
+        TableResult result = engine.run(img, ocrResult, true);
+        // 触发延迟计算的匹配与 HTML，计入耗时
+        return result.getHtmlStr();
+    }
+}
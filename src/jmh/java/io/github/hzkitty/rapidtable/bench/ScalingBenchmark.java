@@ -0,0 +1,54 @@
+package io.github.hzkitty.rapidtable.bench;
+
+import io.github.hzkitty.entity.Pair;
+import io.github.hzkitty.rapidtable.entity.TableCell;
+import io.github.hzkitty.rapidtable.tablematcher.TableMatch;
+import io.github.hzkitty.rapidtable.utils.SyntheticTableGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 匹配、逻辑坐标解码与 HTML 拼接随单元格数、合并单元格密度、OCR 框数量的变化
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScalingBenchmark {
+
+    private static final int COLS = 10;
+
+    // 网格位置数（每行 10 列），合并后实际单元格更少
+    @Param({"100", "1000", "5000"})
+    public int cells;
+
+    @Param({"0", "0.1", "0.3"})
+    public double spanRatio;
+
+    @Param({"0.5", "1.0"})
+    public double textDensity;
+
+    private final TableMatch tableMatch = new TableMatch();
+    private SyntheticTableGenerator.SyntheticTable table;
+
+    @Setup
+    public void setup() {
+        table = SyntheticTableGenerator.generate(new SyntheticTableGenerator.Spec()
+                .rows(cells / COLS).cols(COLS).spanRatio(spanRatio).textDensity(textDensity));
+        table.getImage().release();
+    }
+
+    @Benchmark
+    public Pair<String, List<TableCell>> callWithCells() {
+        return tableMatch.callWithCells(table.getStructure(), table.getCellBoxes(), table.getDtBoxes(), table.getRecRes());
+    }
+
+    @Benchmark
+    public List<int[]> decodeLogicPoints() {
+        return tableMatch.decodeLogicPoints(table.getStructure());
+    }
+}
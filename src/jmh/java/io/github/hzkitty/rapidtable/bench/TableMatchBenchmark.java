@@ -0,0 +1,57 @@
+package io.github.hzkitty.rapidtable.bench;
+
+import io.github.hzkitty.entity.Pair;
+import io.github.hzkitty.rapidtable.entity.TableCell;
+import io.github.hzkitty.rapidtable.tablematcher.TableMatch;
+import io.github.hzkitty.rapidtable.utils.SyntheticTableGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 匹配阶段：OCR 框与单元格匹配、HTML 拼接、逻辑坐标解码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableMatchBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private final TableMatch tableMatch = new TableMatch();
+    private SyntheticTableGenerator.SyntheticTable table;
+    private Map<Integer, List<Integer>> matched;
+
+    @Setup
+    public void setup() {
+        table = BenchFixtures.syntheticTable(size);
+        matched = tableMatch.matchResult(table.getDtBoxes(), table.getCellBoxes());
+        table.getImage().release();
+    }
+
+    @Benchmark
+    public Map<Integer, List<Integer>> matchResult() {
+        return tableMatch.matchResult(table.getDtBoxes(), table.getCellBoxes());
+    }
+
+    @Benchmark
+    public Object[] getPredHtml() {
+        return tableMatch.getPredHtml(table.getStructure(), matched, table.getRecRes());
+    }
+
+    @Benchmark
+    public List<int[]> decodeLogicPoints() {
+        return tableMatch.decodeLogicPoints(table.getStructure());
+    }
+
+    @Benchmark
+    public Pair<String, List<TableCell>> callWithCells() {
+        return tableMatch.callWithCells(table.getStructure(), table.getCellBoxes(), table.getDtBoxes(), table.getRecRes());
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.hzkitty.rapidtable.tablestructure;
+
+import ai.onnxruntime.OrtException;
+import io.github.hzkitty.entity.OrtInferConfig;
+import io.github.hzkitty.rapidtable.bench.BenchFixtures;
+import io.github.hzkitty.rapidtable.entity.TableConfig;
+import org.opencv.core.Mat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 结构识别各阶段：预处理、ORT 推理、标签解码
+ * <p>
+ * 放在 tablestructure 包下以直接访问包内的 TablePreprocess、TableLabelDecode。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class StructureStageBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private TableConfig config;
+    private OrtInferSession session;
+    private TablePreprocess preprocessOp;
+    private TableLabelDecode decodeOp;
+    private Mat img;
+    private float[][][][] input;
+    private float[][] shapeList;
+    private Map<String, float[][][]> preds;
+
+    @Setup
+    public void setup() throws OrtException {
+        config = new TableConfig();
+        OrtInferConfig inferConfig = new OrtInferConfig();
+        inferConfig.setModelPath(config.modelPath);
+        inferConfig.setUseArena(true);
+        session = new OrtInferSession(inferConfig, config);
+        preprocessOp = new TablePreprocess(config.inputSize, false);
+        decodeOp = new TableLabelDecode(session.getCharacterList("character"), true);
+        img = BenchFixtures.image(size);
+
+        Map<String, Object> data = preprocess();
+        input = new float[][][][]{(float[][][]) data.get("image")};
+        shapeList = new float[][]{(float[]) data.get("shape")};
+        Object[] outputs = session.run(input);
+        preds = new HashMap<>();
+        preds.put("loc_preds", (float[][][]) outputs[0]);
+        preds.put("structure_probs", (float[][][]) outputs[1]);
+    }
+
+    @Benchmark
+    public Map<String, Object> preprocess() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("image", img);
+        data.put("max_len", config.inputSize);
+        return preprocessOp.call(data);
+    }
+
+    @Benchmark
+    public Object[] ortRun() throws OrtException {
+        return session.run(input);
+    }
+
+    @Benchmark
+    public Map<String, Object> labelDecode() {
+        return decodeOp.call(preds, Collections.singletonList(shapeList));
+    }
+}
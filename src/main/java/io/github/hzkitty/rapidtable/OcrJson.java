@@ -0,0 +1,86 @@
+package io.github.hzkitty.rapidtable;
+
+import io.github.hzkitty.entity.Pair;
+import io.github.hzkitty.entity.RecResult;
+import io.github.hzkitty.rapidtable.utils.TableGridWriter;
+import org.opencv.core.Point;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OCR 结果的 JSON 表示，慢请求用例与压测的 OCR 缓存共用：
+ * <pre>
+ * [{"text": "...", "confidence": 0.98, "box": [x1, y1, x2, y2, x3, y3, x4, y4]}, ...]
+ * </pre>
+ */
+final class OcrJson {
+
+    private OcrJson() {
+    }
+
+    /**
+     * 写出 OCR 结果数组
+     *
+     * @param indent 每条结果前的缩进，数组本身不换行时传 null
+     */
+    static void write(List<RecResult> ocrResult, Writer out, String indent) throws IOException {
+        out.write('[');
+        if (ocrResult != null) {
+            for (int i = 0; i < ocrResult.size(); i++) {
+                RecResult rec = ocrResult.get(i);
+                out.write(i == 0 ? "" : ",");
+                if (indent != null) {
+                    out.write("\n" + indent);
+                }
+                out.write("{\"text\": ");
+                TableGridWriter.writeJsonString(rec.getText() != null ? rec.getText() : "", out);
+                out.write(", \"confidence\": " + (rec.getConfidence() != null ? rec.getConfidence() : 0f));
+                out.write(", \"box\": [");
+                Point[] box = rec.getDtBoxes();
+                if (box != null) {
+                    for (int j = 0; j < box.length; j++) {
+                        out.write((j == 0 ? "" : ", ") + box[j].x + ", " + box[j].y);
+                    }
+                }
+                out.write("]}");
+            }
+            if (indent != null && !ocrResult.isEmpty()) {
+                out.write("\n" + indent.substring(0, Math.max(0, indent.length() - 2)));
+            }
+        }
+        out.write(']');
+    }
+
+    /**
+     * 读取 {@link io.github.hzkitty.rapidtable.utils.SimpleJson} 解析出的 OCR 结果数组
+     *
+     * @return 四点框（没有坐标时为 null）与对应的文本、置信度
+     */
+    static Pair<List<Point[]>, List<Pair<String, Float>>> read(List<?> entries) {
+        List<Point[]> boxes = new ArrayList<>(entries.size());
+        List<Pair<String, Float>> recRes = new ArrayList<>(entries.size());
+        for (Object item : entries) {
+            Map<?, ?> entry = (Map<?, ?>) item;
+            Object confidence = entry.get("confidence");
+            recRes.add(Pair.of(String.valueOf(entry.get("text")),
+                    confidence instanceof Number ? ((Number) confidence).floatValue() : 0f));
+            boxes.add(toPoints((List<?>) entry.get("box")));
+        }
+        return Pair.of(boxes, recRes);
+    }
+
+    private static Point[] toPoints(List<?> coords) {
+        if (coords == null || coords.size() < 2) {
+            return null;
+        }
+        Point[] points = new Point[coords.size() / 2];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point(((Number) coords.get(i * 2)).doubleValue(), ((Number) coords.get(i * 2 + 1)).doubleValue());
+        }
+        return points;
+    }
+}
@@ -1,27 +1,95 @@
 package io.github.hzkitty.rapidtable;
 
+import ai.onnxruntime.OrtException;
 import io.github.hzkitty.entity.*;
+import io.github.hzkitty.rapidtable.cache.LayoutTemplateCache;
+import io.github.hzkitty.rapidtable.cache.StructureCache;
+import io.github.hzkitty.rapidtable.cache.StructureStore;
 import io.github.hzkitty.rapidtable.entity.TableConfig;
 import io.github.hzkitty.rapidtable.entity.TableModelType;
 import io.github.hzkitty.rapidtable.entity.TableResult;
+import io.github.hzkitty.rapidtable.entity.TableSkipReason;
+import io.github.hzkitty.rapidtable.entity.TableStage;
+import io.github.hzkitty.rapidtable.entity.TableStructure;
+import io.github.hzkitty.rapidtable.entity.TableTimeoutException;
+import io.github.hzkitty.rapidtable.entity.TableTimings;
+import io.github.hzkitty.rapidtable.tabledetector.TableClassifier;
+import io.github.hzkitty.rapidtable.tabledetector.TableRegionDetector;
 import io.github.hzkitty.rapidtable.tablematcher.TableMatch;
+import io.github.hzkitty.rapidtable.tablestructure.OrtProfileSummary;
 import io.github.hzkitty.rapidtable.tablestructure.TableStructurer;
+import io.github.hzkitty.rapidtable.tablestructure.TableTiler;
+import io.github.hzkitty.rapidtable.tablestructure.WiredTableStructurer;
 import io.github.hzkitty.rapidtable.utils.LoadImage;
+import io.github.hzkitty.rapidtable.utils.NativeMemoryStats;
+import io.github.hzkitty.rapidtable.utils.TableEventSpan;
+import io.github.hzkitty.rapidtable.utils.TableEvents;
 import org.opencv.core.Mat;
 import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-public class RapidTable {
+public class RapidTable implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RapidTable.class);
 
     private final TableModelType modelType;
     private final LoadImage loadImg;
     private final TableStructurer tableStructure;
     private final TableMatch tableMatcher;
+    // 表格区域检测器，未开启时为 null
+    private final TableRegionDetector regionDetector;
+    // 超长表格分块器，未开启时为 null
+    private final TableTiler tableTiler;
+    // 静态 batch 模型并行推理条带的线程池，未开启分块或模型支持动态 batch 时为 null
+    private final ThreadPoolExecutor tilePool;
+    // 有线表格快速结构识别，未开启时为 null
+    private final WiredTableStructurer wiredStructurer;
+    // 表格/非表格预判，未开启时为 null
+    private final TableClassifier tableClassifier;
+    // 结构推理结果缓存，未开启时为 null
+    private final StructureCache structureCache;
+    // 版式模板缓存，未开启时为 null
+    private final LayoutTemplateCache templateCache;
+    // 持久化结构存储，未开启时为 null
+    private final StructureStore structureStore;
+    // 影响结构推理结果的模型与配置指纹，作为缓存键前缀
+    private final String structureConfigKey;
+    // 指标监听器，未设置时为 null
+    private volatile TableMetricsListener metricsListener;
+    // 慢请求记录器，未开启时为 null
+    private final SlowRequestRecorder slowRequestRecorder;
+    // runAsync 的线程数与队列长度，线程池在首次调用 runAsync 时创建
+    private final int asyncLoadThreads;
+    private final int asyncInferThreads;
+    private final int asyncQueueSize;
+    private TableAsyncExecutor asyncExecutor;
+    private volatile boolean closed;
+    // 同步识别持有读锁，close 持有写锁，关闭时等待进行中的同步识别完成后再释放会话
+    private final ReentrantReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
 
     public static RapidTable create() {
         return new RapidTable();
@@ -44,88 +112,1186 @@ public class RapidTable {
         inferConfig.setModelPath(config.modelPath);
         inferConfig.setUseCuda(config.useCuda);
         inferConfig.setDeviceId(config.deviceId);
+        // 与此前版本一致始终开启 arena，TableConfig.useArena 暂不生效（默认值为 false，直接接入会改变现有用户的内存行为）
         inferConfig.setUseArena(true);
+        inferConfig.setIntraOpNumThreads(config.intraOpNumThreads);
+        inferConfig.setInterOpNumThreads(config.interOpNumThreads);
 
         // 1. 初始化表格结构识别器
-        this.tableStructure = new TableStructurer(inferConfig);
+        this.tableStructure = new TableStructurer(inferConfig, config);
 
         // 2. 初始化表格匹配器
         this.tableMatcher = new TableMatch();
+
+        // 3. 初始化表格区域检测器
+        this.regionDetector = config.detectTableRegion ? new TableRegionDetector() : null;
+
+        // 4. 初始化超长表格分块器
+        this.tableTiler = config.tiledInference
+                ? new TableTiler(config.tileTriggerRatio, config.tileHeightRatio, config.tileOverlapRatio) : null;
+        this.tilePool = this.tableTiler != null && !this.tableStructure.isDynamicBatch()
+                ? newTilePool(config.tileThreads) : null;
+
+        // 5. 初始化有线表格快速路径
+        this.wiredStructurer = config.wiredFastPath ? new WiredTableStructurer() : null;
+
+        // 6. 初始化表格预判
+        this.tableClassifier = config.tableClassifier ? new TableClassifier(config.tableClassifierThreshold) : null;
+
+        // 7. 初始化结构缓存，键中包含影响结构推理的模型与配置
+        this.structureConfigKey = structureConfigKey(config, this.tableStructure.getModelVersion());
+        this.structureCache = config.structureCache
+                ? new StructureCache(config.structureCacheSize, config.structureCacheTtlSeconds * 1000) : null;
+
+        // 8. 初始化版式模板缓存
+        this.templateCache = config.templateCache
+                ? new LayoutTemplateCache(config.templateCacheSize, config.templateCacheThreshold) : null;
+
+        // 9. 初始化持久化结构存储
+        if (config.structureStorePath != null) {
+            // 数据段以 MappedByteBuffer 映射，单段不能超过 Integer.MAX_VALUE 字节
+            long segmentBytes = config.structureStoreSegmentMb * 1024L * 1024;
+            if (segmentBytes <= 0 || segmentBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("structureStoreSegmentMb 超出范围 (1 ~ 2047): "
+                        + config.structureStoreSegmentMb);
+            }
+            try {
+                this.structureStore = new StructureStore(Paths.get(config.structureStorePath), (int) segmentBytes);
+            } catch (IOException e) {
+                throw new RuntimeException("结构存储打开失败: " + config.structureStorePath, e);
+            }
+        } else {
+            this.structureStore = null;
+        }
+
+        // 10. 初始化慢请求记录器
+        if (config.slowRequestDir != null) {
+            try {
+                this.slowRequestRecorder = new SlowRequestRecorder(Paths.get(config.slowRequestDir),
+                        config.slowRequestThresholdMs, config.slowRequestMaxCases);
+            } catch (IOException e) {
+                throw new RuntimeException("慢请求目录创建失败: " + config.slowRequestDir, e);
+            }
+        } else {
+            this.slowRequestRecorder = null;
+        }
+
+        // 11. 异步识别的线程池配置
+        this.asyncLoadThreads = config.asyncLoadThreads;
+        this.asyncInferThreads = config.asyncInferThreads;
+        this.asyncQueueSize = config.asyncQueueSize;
+    }
+
+    /**
+     * 条带推理线程池：线程数与队列长度有界，空闲线程超时退出；队列满时由调用线程执行，推理阻塞不会占满公共线程池
+     */
+    private static ThreadPoolExecutor newTilePool(int threads) {
+        int n = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(n, n, 30L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(n * 4), r -> {
+            Thread thread = new Thread(r, "rapidtable-tile-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static String structureConfigKey(TableConfig config, String modelVersion) {
+        return config.modelType + ":" + modelVersion + ":" + config.modelPath + ":" + config.inputSize + ":" + config.adaptiveInputSize
+                + ":" + config.minInputSize + ":" + config.uint8Input + ":" + config.wiredFastPath
+                + ":" + config.tiledInference + ":" + config.tileTriggerRatio + ":" + config.tileHeightRatio
+                + ":" + config.tileOverlapRatio;
+    }
+
+    /**
+     * 结构缓存及其命中统计，未开启时为 null
+     */
+    public StructureCache getStructureCache() {
+        return structureCache;
+    }
+
+    /**
+     * 版式模板缓存及其命中统计，未开启时为 null
+     */
+    public LayoutTemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    /**
+     * 持久化结构存储，未开启时为 null
+     */
+    public StructureStore getStructureStore() {
+        return structureStore;
+    }
+
+    /**
+     * 汇总 ORT 性能分析 trace 的算子耗时（会结束当前 trace 文件），未配置 ortProfileDir 时为 null
+     */
+    public OrtProfileSummary getOrtProfileSummary() throws Exception {
+        return this.tableStructure.getSession().getProfileSummary();
+    }
+
+    /**
+     * 当前进程内存快照，与 {@link #getBaselineMemoryStats()} 比较可观察 ORT arena 等原生内存的增长
+     */
+    public NativeMemoryStats getMemoryStats() {
+        return this.tableStructure.getSession().getMemoryStats();
+    }
+
+    /**
+     * 创建推理会话前的内存快照
+     */
+    public NativeMemoryStats getBaselineMemoryStats() {
+        return this.tableStructure.getSession().getBaselineMemoryStats();
+    }
+
+    /**
+     * 设置指标监听器，每个阶段完成及每次返回结果时回调；传 null 取消
+     */
+    public void setMetricsListener(TableMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+    public TableMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * 关闭异步线程池（等待已提交的任务完成）与进行中的同步识别，再释放持久化结构存储、慢请求记录器与 ORT 会话；
+     * 之后的识别抛出 IllegalStateException
+     */
+    @Override
+    public void close() {
+        TableAsyncExecutor executor;
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            executor = this.asyncExecutor;
+        }
+        if (executor != null) {
+            executor.close();
+        }
+        Lock lock = this.lifecycleLock.writeLock();
+        lock.lock();
+        try {
+            if (this.tilePool != null) {
+                this.tilePool.shutdown();
+            }
+            if (this.structureStore != null) {
+                this.structureStore.close();
+            }
+            if (this.slowRequestRecorder != null) {
+                this.slowRequestRecorder.close();
+            }
+            try {
+                this.tableStructure.close();
+            } catch (OrtException e) {
+                logger.warn("OrtSession close failed", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 进入一次同步识别，返回识别结束后需释放的读锁；已关闭时抛出 IllegalStateException
+     * <p>
+     * 异步任务在提交时已检查关闭状态，close 会等待线程池中的任务完成，无需再持有该锁。
+     */
+    Lock enterRun() {
+        Lock lock = this.lifecycleLock.readLock();
+        lock.lock();
+        // 已在识别中的嵌套调用（如组合流水线调用 run）不拒绝
+        if (this.closed && this.lifecycleLock.getReadHoldCount() == 1) {
+            lock.unlock();
+            throw new IllegalStateException("RapidTable 已关闭");
+        }
+        return lock;
+    }
+
+    /**
+     * 新建一次识别的计时器，关联当前的指标监听器
+     */
+    TableTimings newTimings() {
+        return new TableTimings(this.metricsListener);
+    }
+
+    /**
+     * 通知监听器结果已返回
+     */
+    TableResult notifyResult(TableResult result) {
+        TableMetricsListener listener = result.getTimings() == null ? null : this.metricsListener;
+        if (listener != null) {
+            try {
+                listener.onResult(result);
+            } catch (RuntimeException e) {
+                logger.warn("TableMetricsListener.onResult failed", e);
+            }
+        }
+        return result;
     }
 
     public TableResult run(String imagePath, List<RecResult> ocrResult) throws Exception {
-        return this.runImpl(imagePath, ocrResult, false);
+        return this.runImpl(imagePath, ocrResult, false, 0);
     }
 
     public TableResult run(Path imagePath, List<RecResult> ocrResult) throws Exception {
-        return this.runImpl(imagePath, ocrResult, false);
+        return this.runImpl(imagePath, ocrResult, false, 0);
     }
 
     public TableResult run(byte[] imageData, List<RecResult> ocrResult) throws Exception {
-        return this.runImpl(imageData, ocrResult, false);
+        return this.runImpl(imageData, ocrResult, false, 0);
     }
 
     public TableResult run(BufferedImage image, List<RecResult> ocrResult) throws Exception {
-        return this.runImpl(image, ocrResult, false);
+        return this.runImpl(image, ocrResult, false, 0);
     }
 
     public TableResult run(Mat mat, List<RecResult> ocrResult) throws Exception {
-        return this.runImpl(mat, ocrResult, false);
+        return this.runImpl(mat, ocrResult, false, 0);
     }
 
     public TableResult run(String imagePath, List<RecResult> ocrResult, boolean returnLogicPoints) throws Exception {
-        return this.runImpl(imagePath, ocrResult, returnLogicPoints);
+        return this.runImpl(imagePath, ocrResult, returnLogicPoints, 0);
     }
 
     public TableResult run(Path imagePath, List<RecResult> ocrResult, boolean returnLogicPoints) throws Exception {
-        return this.runImpl(imagePath, ocrResult, returnLogicPoints);
+        return this.runImpl(imagePath, ocrResult, returnLogicPoints, 0);
     }
 
     public TableResult run(byte[] imageData, List<RecResult> ocrResult, boolean returnLogicPoints) throws Exception {
-        return this.runImpl(imageData, ocrResult, returnLogicPoints);
+        return this.runImpl(imageData, ocrResult, returnLogicPoints, 0);
     }
 
     public TableResult run(BufferedImage image, List<RecResult> ocrResult, boolean returnLogicPoints) throws Exception {
-        return this.runImpl(image, ocrResult, returnLogicPoints);
+        return this.runImpl(image, ocrResult, returnLogicPoints, 0);
     }
 
     public TableResult run(Mat mat, List<RecResult> ocrResult, boolean returnLogicPoints) throws Exception {
-        return this.runImpl(mat, ocrResult, returnLogicPoints);
+        return this.runImpl(mat, ocrResult, returnLogicPoints, 0);
     }
 
+    /**
+     * 限时识别：超过 timeoutMillis 时放弃剩余工作（终止正在执行的推理、停止匹配）并抛出 {@link TableTimeoutException}；
+     * 匹配与 HTML 在返回前完成，读取结果时不会再超时
+     *
+     * @param timeoutMillis 超时时间（毫秒），<= 0 表示不限
+     */
+    public TableResult run(String imagePath, List<RecResult> ocrResult, boolean returnLogicPoints, long timeoutMillis) throws Exception {
+        return this.runImpl(imagePath, ocrResult, returnLogicPoints, timeoutMillis);
+    }
 
-    private TableResult runImpl(Object imgContent, List<RecResult> ocrResult, boolean returnLogicPoints) throws Exception {
-        // 1. 加载图像
-        Mat img = this.loadImg.call(imgContent);
+    public TableResult run(Path imagePath, List<RecResult> ocrResult, boolean returnLogicPoints, long timeoutMillis) throws Exception {
+        return this.runImpl(imagePath, ocrResult, returnLogicPoints, timeoutMillis);
+    }
+
+    public TableResult run(byte[] imageData, List<RecResult> ocrResult, boolean returnLogicPoints, long timeoutMillis) throws Exception {
+        return this.runImpl(imageData, ocrResult, returnLogicPoints, timeoutMillis);
+    }
+
+    public TableResult run(BufferedImage image, List<RecResult> ocrResult, boolean returnLogicPoints, long timeoutMillis) throws Exception {
+        return this.runImpl(image, ocrResult, returnLogicPoints, timeoutMillis);
+    }
 
-        long startTime = System.currentTimeMillis();
+    public TableResult run(Mat mat, List<RecResult> ocrResult, boolean returnLogicPoints, long timeoutMillis) throws Exception {
+        return this.runImpl(mat, ocrResult, returnLogicPoints, timeoutMillis);
+    }
+
+
+    /**
+     * 异步识别：加载图像、解析 OCR 结果在加载线程池执行，结构推理在推理线程池执行，不阻塞调用线程
+     * <p>
+     * 线程池的等待队列有界（{@link TableConfig#asyncQueueSize}），队列满或已关闭时返回以
+     * {@link java.util.concurrent.RejectedExecutionException} 失败的 future；识别出错时 future 以原异常失败。
+     */
+    public CompletableFuture<TableResult> runAsync(String imagePath, List<RecResult> ocrResult) {
+        return this.runAsyncImpl(imagePath, ocrResult, false, 0);
+    }
+
+    public CompletableFuture<TableResult> runAsync(Path imagePath, List<RecResult> ocrResult) {
+        return this.runAsyncImpl(imagePath, ocrResult, false, 0);
+    }
+
+    public CompletableFuture<TableResult> runAsync(byte[] imageData, List<RecResult> ocrResult) {
+        return this.runAsyncImpl(imageData, ocrResult, false, 0);
+    }
+
+    public CompletableFuture<TableResult> runAsync(BufferedImage image, List<RecResult> ocrResult) {
+        return this.runAsyncImpl(image, ocrResult, false, 0);
+    }
+
+    public CompletableFuture<TableResult> runAsync(Mat mat, List<RecResult> ocrResult) {
+        return this.runAsyncImpl(mat, ocrResult, false, 0);
+    }
+
+    public CompletableFuture<TableResult> runAsync(String imagePath, List<RecResult> ocrResult, boolean returnLogicPoints) {
+        return this.runAsyncImpl(imagePath, ocrResult, returnLogicPoints, 0);
+    }
+
+    public CompletableFuture<TableResult> runAsync(Path imagePath, List<RecResult> ocrResult, boolean returnLogicPoints) {
+        return this.runAsyncImpl(imagePath, ocrResult, returnLogicPoints, 0);
+    }
+
+    public CompletableFuture<TableResult> runAsync(byte[] imageData, List<RecResult> ocrResult, boolean returnLogicPoints) {
+        return this.runAsyncImpl(imageData, ocrResult, returnLogicPoints, 0);
+    }
+
+    public CompletableFuture<TableResult> runAsync(BufferedImage image, List<RecResult> ocrResult, boolean returnLogicPoints) {
+        return this.runAsyncImpl(image, ocrResult, returnLogicPoints, 0);
+    }
+
+    public CompletableFuture<TableResult> runAsync(Mat mat, List<RecResult> ocrResult, boolean returnLogicPoints) {
+        return this.runAsyncImpl(mat, ocrResult, returnLogicPoints, 0);
+    }
+
+    /**
+     * 限时异步识别：超时（含排队时间）后 future 以 {@link TableTimeoutException} 失败，
+     * 排队中的任务在加载、推理前直接丢弃，正在执行的推理被终止
+     *
+     * @param timeoutMillis 超时时间（毫秒），<= 0 表示不限
+     */
+    public CompletableFuture<TableResult> runAsync(String imagePath, List<RecResult> ocrResult, boolean returnLogicPoints,
+                                                   long timeoutMillis) {
+        return this.runAsyncImpl(imagePath, ocrResult, returnLogicPoints, timeoutMillis);
+    }
+
+    public CompletableFuture<TableResult> runAsync(Path imagePath, List<RecResult> ocrResult, boolean returnLogicPoints,
+                                                   long timeoutMillis) {
+        return this.runAsyncImpl(imagePath, ocrResult, returnLogicPoints, timeoutMillis);
+    }
+
+    public CompletableFuture<TableResult> runAsync(byte[] imageData, List<RecResult> ocrResult, boolean returnLogicPoints,
+                                                   long timeoutMillis) {
+        return this.runAsyncImpl(imageData, ocrResult, returnLogicPoints, timeoutMillis);
+    }
+
+    public CompletableFuture<TableResult> runAsync(BufferedImage image, List<RecResult> ocrResult, boolean returnLogicPoints,
+                                                   long timeoutMillis) {
+        return this.runAsyncImpl(image, ocrResult, returnLogicPoints, timeoutMillis);
+    }
+
+    public CompletableFuture<TableResult> runAsync(Mat mat, List<RecResult> ocrResult, boolean returnLogicPoints,
+                                                   long timeoutMillis) {
+        return this.runAsyncImpl(mat, ocrResult, returnLogicPoints, timeoutMillis);
+    }
+
+    /**
+     * 识别页面中的所有表格，每个表格一个结果；跳过推理（非表格、未找到表格区域）时返回一个带
+     * {@link TableResult#getSkipReason()} 的空结果
+     */
+    public List<TableResult> runTables(String imagePath, List<RecResult> ocrResult) throws Exception {
+        return this.runTablesImpl(imagePath, ocrResult, false);
+    }
+
+    public List<TableResult> runTables(Path imagePath, List<RecResult> ocrResult) throws Exception {
+        return this.runTablesImpl(imagePath, ocrResult, false);
+    }
+
+    public List<TableResult> runTables(byte[] imageData, List<RecResult> ocrResult) throws Exception {
+        return this.runTablesImpl(imageData, ocrResult, false);
+    }
+
+    public List<TableResult> runTables(BufferedImage image, List<RecResult> ocrResult) throws Exception {
+        return this.runTablesImpl(image, ocrResult, false);
+    }
+
+    public List<TableResult> runTables(Mat mat, List<RecResult> ocrResult) throws Exception {
+        return this.runTablesImpl(mat, ocrResult, false);
+    }
+
+    public List<TableResult> runTables(String imagePath, List<RecResult> ocrResult, boolean returnLogicPoints) throws Exception {
+        return this.runTablesImpl(imagePath, ocrResult, returnLogicPoints);
+    }
+
+    public List<TableResult> runTables(Path imagePath, List<RecResult> ocrResult, boolean returnLogicPoints) throws Exception {
+        return this.runTablesImpl(imagePath, ocrResult, returnLogicPoints);
+    }
+
+    public List<TableResult> runTables(byte[] imageData, List<RecResult> ocrResult, boolean returnLogicPoints) throws Exception {
+        return this.runTablesImpl(imageData, ocrResult, returnLogicPoints);
+    }
+
+    public List<TableResult> runTables(BufferedImage image, List<RecResult> ocrResult, boolean returnLogicPoints) throws Exception {
+        return this.runTablesImpl(image, ocrResult, returnLogicPoints);
+    }
+
+    public List<TableResult> runTables(Mat mat, List<RecResult> ocrResult, boolean returnLogicPoints) throws Exception {
+        return this.runTablesImpl(mat, ocrResult, returnLogicPoints);
+    }
+
+    /**
+     * 只推理表格结构，不需要 OCR 结果；结果可缓存，并通过 {@link #assemble(TableStructure, List)} 与任意 OCR 结果匹配
+     */
+    public TableStructure predictStructure(String imagePath) throws Exception {
+        return this.predictStructureImpl(imagePath);
+    }
+
+    public TableStructure predictStructure(Path imagePath) throws Exception {
+        return this.predictStructureImpl(imagePath);
+    }
+
+    public TableStructure predictStructure(byte[] imageData) throws Exception {
+        return this.predictStructureImpl(imageData);
+    }
+
+    public TableStructure predictStructure(BufferedImage image) throws Exception {
+        return this.predictStructureImpl(image);
+    }
+
+    public TableStructure predictStructure(Mat mat) throws Exception {
+        return this.predictStructureImpl(mat);
+    }
+
+    /**
+     * 将已推理的表格结构与 OCR 结果匹配，不再推理结构
+     */
+    public TableResult assemble(TableStructure structure, List<RecResult> ocrResult) {
+        return this.assemble(structure, ocrResult, false);
+    }
+
+    public TableResult assemble(TableStructure structure, List<RecResult> ocrResult, boolean returnLogicPoints) {
+        TableTimings timings = newTimings();
+        return notifyResult(this.assemble(structure, ocrResult, returnLogicPoints, System.nanoTime(), timings));
+    }
+
+    private TableStructure predictStructureImpl(Object imgContent) throws Exception {
+        Lock lock = enterRun();
+        try {
+            TableTimings timings = newTimings();
+            Mat img = loadImage(imgContent, timings);
+            TableStructure structure = predictPageStructure(img, null, timings);
+            long start = System.nanoTime();
+            List<int[]> logicPoints = this.tableMatcher.decodeLogicPoints(structure.getTokens());
+            timings.record(TableStage.LOGIC_POINTS, start);
+            return structure.withLogicPoints(logicPoints);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TableResult runImpl(Object imgContent, List<RecResult> ocrResult, boolean returnLogicPoints,
+                                long timeoutMillis) throws Exception {
+        Lock lock = enterRun();
+        try {
+            long runStart = System.nanoTime();
+            try (TableEventSpan span = TableEvents.run()) {
+                TableTimings timings = newTimings();
+                timings.setTimeout(TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+                // 1. 加载图像
+                Mat img = loadImage(imgContent, timings);
+                return runLoaded(imgContent, img, ocrResult, returnLogicPoints, runStart, timings, span);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 由已加载的图像识别，供组合流水线复用同一个 Mat 与计时器；之后的流程与 {@link #run} 相同
+     *
+     * @param runStart 开始加载图像的时间 System.nanoTime()
+     */
+    TableResult runLoaded(Object imgContent, Mat img, List<RecResult> ocrResult, boolean returnLogicPoints,
+                          long runStart, TableTimings timings, TableEventSpan span) {
+        // 2. 解析 dt_boxes, rec_res
+        long startTime = System.nanoTime();
+        Pair<List<float[]>, List<Pair<String, Float>>> boxAndRec = getBoxesRecs(ocrResult, img.rows(), img.cols());
+        timings.record(TableStage.OCR_PARSE, startTime);
+
+        return completeRun(imgContent, ocrResult, img, boxAndRec, returnLogicPoints, runStart, startTime, timings, span);
+    }
+
+    private CompletableFuture<TableResult> runAsyncImpl(Object imgContent, List<RecResult> ocrResult,
+                                                        boolean returnLogicPoints, long timeoutMillis) {
+        TableAsyncExecutor executor;
+        try {
+            executor = asyncExecutor();
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<TableResult> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        long runStart = System.nanoTime();
+        TableTimings timings = newTimings();
+        // 截止时间从提交时开始计算，包含排队时间
+        timings.setTimeout(TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        CompletableFuture<TableResult> future = executor.load(() -> {
+            // 排队中已超时的请求直接丢弃
+            timings.checkDeadline(TableStage.LOAD);
+            // 1. 加载图像
+            Mat img = loadImage(imgContent, timings);
+
+            // 2. 解析 dt_boxes, rec_res
+            long startTime = System.nanoTime();
+            Pair<List<float[]>, List<Pair<String, Float>>> boxAndRec = getBoxesRecs(ocrResult, img.rows(), img.cols());
+            timings.record(TableStage.OCR_PARSE, startTime);
+            return executor.infer(() -> {
+                try (TableEventSpan span = TableEvents.run()) {
+                    return completeRun(imgContent, ocrResult, img, boxAndRec, returnLogicPoints, runStart, startTime,
+                            timings, span);
+                }
+            });
+        }).thenCompose(Function.identity());
+        return timings.hasDeadline() ? executor.withTimeout(future, timings.getRemainingNanos()) : future;
+    }
+
+    /**
+     * 创建或返回异步线程池，已关闭时抛出 RejectedExecutionException
+     */
+    private synchronized TableAsyncExecutor asyncExecutor() {
+        if (this.closed) {
+            throw new RejectedExecutionException("RapidTable 已关闭");
+        }
+        if (this.asyncExecutor == null) {
+            this.asyncExecutor = new TableAsyncExecutor(this.asyncLoadThreads, this.asyncInferThreads, this.asyncQueueSize);
+        }
+        return this.asyncExecutor;
+    }
+
+    /**
+     * OCR 结果解析之后的识别（推理前检查截止时间），再记录慢请求并通知结果
+     *
+     * @param runStart 开始加载图像的时间 System.nanoTime()
+     */
+    private TableResult completeRun(Object imgContent, List<RecResult> ocrResult, Mat img,
+                                    Pair<List<float[]>, List<Pair<String, Float>>> boxAndRec, boolean returnLogicPoints,
+                                    long runStart, long startTime, TableTimings timings, TableEventSpan span) {
+        // 已超时的请求不再推理
+        timings.checkDeadline(TableStage.PREPROCESS);
+        TableResult result = runParsed(img, boxAndRec.getLeft(), boxAndRec.getRight(), returnLogicPoints,
+                startTime, timings, span);
+        return completeRun(imgContent, ocrResult, returnLogicPoints, runStart, timings, span, result);
+    }
+
+    /**
+     * 识别完成后的慢请求记录、JFR 事件与结果通知，组合流水线在自行推理结构后同样经过这里
+     *
+     * @param runStart 开始加载图像的时间 System.nanoTime()
+     */
+    TableResult completeRun(Object imgContent, List<RecResult> ocrResult, boolean returnLogicPoints, long runStart,
+                            TableTimings timings, TableEventSpan span, TableResult result) {
+        if (timings.hasDeadline() || this.slowRequestRecorder != null || span.isRecording()) {
+            // 在截止时间内完成匹配与 HTML，读取结果时不再计算；慢请求的耗时与 JFR 的 Run 事件同样包含匹配与 HTML
+            result.getHtmlStr();
+        }
+        span.cellCount(result.getCellCount());
+        if (this.slowRequestRecorder != null) {
+            this.slowRequestRecorder.record(imgContent, ocrResult, returnLogicPoints, result, System.nanoTime() - runStart);
+        }
+        return notifyResult(result);
+    }
+
+    /**
+     * 使用四点框与文本形式的 OCR 结果识别，用于缓存的 OCR 结果、慢请求回放等无法构造 RecResult 的场景
+     *
+     * @param boxes  OCR 四点框，为 null 的框跳过（与 getBoxesRecs 一致）
+     * @param recRes OCR 文本与置信度，与四点框一一对应
+     */
+    TableResult runOcrEntries(Object imgContent, List<Point[]> boxes, List<Pair<String, Float>> recRes,
+                              boolean returnLogicPoints) throws Exception {
+        Lock lock = enterRun();
+        try {
+            try (TableEventSpan span = TableEvents.run()) {
+                TableTimings timings = newTimings();
+                Mat img = loadImage(imgContent, timings);
+
+                long startTime = System.nanoTime();
+                List<float[]> dtBoxes = new ArrayList<>(boxes.size());
+                for (Point[] box : boxes) {
+                    float[] rect = toRectBox(box, img.rows(), img.cols());
+                    if (rect != null) {
+                        dtBoxes.add(rect);
+                    }
+                }
+                timings.record(TableStage.OCR_PARSE, startTime);
+
+                TableResult result = runParsed(img, dtBoxes, recRes, returnLogicPoints, startTime, timings, span);
+                if (span.isRecording()) {
+                    // 匹配与 HTML 计入 Run 事件
+                    result.getHtmlStr();
+                }
+                span.cellCount(result.getCellCount());
+                return notifyResult(result);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * OCR 结果解析之后的识别流程
+     *
+     * @param startTime 开始时间 System.nanoTime()
+     */
+    TableResult runParsed(Mat img, List<float[]> dtBoxes, List<Pair<String, Float>> recRes, boolean returnLogicPoints,
+                          long startTime, TableTimings timings, TableEventSpan span) {
+        span.imageSize(img.cols(), img.rows()).ocrBoxCount(dtBoxes.size());
+
+        // 表格预判：非表格图像直接返回空结果
+        if (this.tableClassifier != null) {
+            TableSkipReason reason = this.tableClassifier.check(img, dtBoxes);
+            if (reason != null) {
+                return emptyResult(returnLogicPoints, startTime, reason, timings);
+            }
+        }
+
+        // 开启区域检测时，只推理面积最大的表格区域；页面中没有表格则直接返回空结果
+        if (this.regionDetector != null) {
+            Rect largest = null;
+            for (Rect region : this.regionDetector.detect(img, dtBoxes)) {
+                if (largest == null || region.area() > largest.area()) {
+                    largest = region;
+                }
+            }
+            if (largest == null) {
+                return emptyResult(returnLogicPoints, startTime, TableSkipReason.NO_TABLE_REGION, timings);
+            }
+            return runRegions(img, Collections.singletonList(largest), dtBoxes, recRes, returnLogicPoints, startTime,
+                    timings).get(0);
+        }
+
+        // 3、4. 表格结构推理
+        TableStructure structure = predictPageStructure(img, dtBoxes, timings);
+
+        // 5、6. 匹配并组装结果
+        return assembleResult(structure.getTokens(), structure.getCellBoxes(), dtBoxes, recRes,
+                returnLogicPoints, startTime, timings);
+    }
+
+    /**
+     * 整页结构推理：有线表格快速路径 -> 超长表格分块 -> 模型推理
+     *
+     * @param img     图像
+     * @param dtBoxes OCR 文本框，结构推理先于 OCR 完成时传 null（此时不分块）
+     * @param timings 分阶段计时，命中缓存时不计入推理阶段
+     * @return 表格结构（未解码逻辑坐标），bbox 为原图坐标
+     */
+    TableStructure predictPageStructure(Mat img, List<float[]> dtBoxes, TableTimings timings) {
+        String key = structureKey(img, dtBoxes);
+        if (key == null) {
+            return inferPageStructure(img, dtBoxes, timings);
+        }
+        if (this.structureCache != null) {
+            return this.structureCache.get(key, () -> loadPageStructure(key, img, dtBoxes, timings), timings);
+        }
+        return loadPageStructure(key, img, dtBoxes, timings);
+    }
+
+    /**
+     * 结构缓存与持久化存储的键：配置指纹 | 文本框数量与坐标哈希（影响分块、输入边长等） | 像素哈希
+     *
+     * @return 未开启缓存与存储，或图像不可缓存时返回 null
+     */
+    private String structureKey(Mat img, List<float[]> dtBoxes) {
+        if (this.structureCache == null && this.structureStore == null) {
+            return null;
+        }
+        String hash = StructureCache.contentHash(img);
+        return hash == null ? null : this.structureConfigKey + '|' + StructureCache.boxesHash(dtBoxes) + '|' + hash;
+    }
+
+    /**
+     * 先查持久化存储，未命中时推理并写入
+     */
+    private TableStructure loadPageStructure(String key, Mat img, List<float[]> dtBoxes, TableTimings timings) {
+        if (this.structureStore == null) {
+            return inferPageStructure(img, dtBoxes, timings);
+        }
+        TableStructure stored = this.structureStore.get(key);
+        if (stored != null) {
+            return stored;
+        }
+        TableStructure structure = inferPageStructure(img, dtBoxes, timings);
+        this.structureStore.put(key, structure);
+        return structure;
+    }
+
+    /**
+     * 依次查结构缓存、持久化存储，持久化存储命中时写入结构缓存
+     *
+     * @return 均未命中或 key 为 null 时返回 null
+     */
+    private TableStructure lookupStructure(String key) {
+        if (key == null) {
+            return null;
+        }
+        if (this.structureCache != null) {
+            TableStructure cached = this.structureCache.getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        if (this.structureStore != null) {
+            TableStructure stored = this.structureStore.get(key);
+            if (stored != null && this.structureCache != null) {
+                this.structureCache.put(key, stored);
+            }
+            return stored;
+        }
+        return null;
+    }
+
+    /**
+     * 将推理结果写入结构缓存与持久化存储，key 为 null 时忽略
+     */
+    private void saveStructure(String key, TableStructure structure) {
+        if (key == null) {
+            return;
+        }
+        if (this.structureCache != null) {
+            this.structureCache.put(key, structure);
+        }
+        if (this.structureStore != null) {
+            this.structureStore.put(key, structure);
+        }
+    }
+
+    private TableStructure inferPageStructure(Mat img, List<float[]> dtBoxes, TableTimings timings) {
+        LayoutTemplateCache.Fingerprint[] fingerprint = new LayoutTemplateCache.Fingerprint[1];
+        TableStructure structure = inferWithoutModel(img, dtBoxes, fingerprint, timings);
+        if (structure == null) {
+            structure = inferModelStructure(img, dtBoxes, timings);
+            rememberTemplate(fingerprint[0], structure);
+        }
+        return structure;
+    }
+
+    /**
+     * 不经过整图模型推理的结构：有线表格快速路径 -> 版式模板 -> 超长表格分块
+     *
+     * @param fingerprint 长度为 1 的数组，返回图像的版式指纹（未开启版式模板缓存时为 null），供整图推理后写入模板
+     * @return 需要整图模型推理时返回 null
+     */
+    private TableStructure inferWithoutModel(Mat img, List<float[]> dtBoxes, LayoutTemplateCache.Fingerprint[] fingerprint,
+                                             TableTimings timings) {
         int h = img.rows();
         int w = img.cols();
 
-        // 2. 解析 dt_boxes, rec_res
-        Pair<List<float[]>, List<Pair<String, Float>>> boxAndRec = getBoxesRecs(ocrResult, h, w);
-        List<float[]> dtBoxes = boxAndRec.getLeft();
-        List<Pair<String, Float>> recRes = boxAndRec.getRight();
+        // 有线表格快速路径：由线条直接还原结构，不经过模型
+        if (this.wiredStructurer != null) {
+            Triple<List<String>, List<float[]>, Double> wired = this.wiredStructurer.call(img, dtBoxes);
+            if (wired != null) {
+                return new TableStructure(wired.getLeft(), wired.getMiddle(), 1.0f, null, w, h);
+            }
+        }
+
+        // 版式模板缓存：网格相同的表格复用已推理的结构
+        if (this.templateCache != null) {
+            fingerprint[0] = this.templateCache.fingerprint(img);
+            TableStructure template = this.templateCache.lookup(fingerprint[0], img);
+            if (template != null) {
+                return template;
+            }
+        }
+
+        // 超长表格分块推理
+        if (dtBoxes != null && this.tableTiler != null && this.tableTiler.shouldTile(h, w)) {
+            TableStructure structure = runTiled(img, dtBoxes, timings);
+            rememberTemplate(fingerprint[0], structure);
+            return structure;
+        }
+        return null;
+    }
+
+    private void rememberTemplate(LayoutTemplateCache.Fingerprint fingerprint, TableStructure structure) {
+        if (this.templateCache != null) {
+            this.templateCache.put(fingerprint, structure);
+        }
+    }
+
+    private TableStructure inferModelStructure(Mat img, List<float[]> dtBoxes, TableTimings timings) {
+        int h = img.rows();
+        int w = img.cols();
 
         // 3. 表格结构推理: pred_structures, pred_bboxes, ...
-        Triple<List<String>, List<float[]>, Double> structureRes = this.tableStructure.call(img);
+        int inputSize = this.tableStructure.selectInputSize(h, w, dtBoxes == null ? -1 : dtBoxes.size());
+        float[] score = new float[1];
+        Triple<List<String>, List<float[]>, Double> structureRes =
+                this.tableStructure.callBatch(Collections.singletonList(img), inputSize, score, timings).get(0);
         List<String> predStructures = structureRes.getLeft();
         List<float[]> predBBoxes = structureRes.getMiddle();
+        if (predStructures == null) {
+            return new TableStructure(Collections.emptyList(), Collections.emptyList(), 0.0f, null, w, h);
+        }
 
         // 4、如果是 slanet-plus，需要缩放
         if (TableModelType.SLANET_PLUS.equals(this.modelType)) {
-            predBBoxes = adaptSlanetPlus(img, predBBoxes);
+            predBBoxes = adaptSlanetPlus(img, predBBoxes, inputSize, timings);
+        }
+        return new TableStructure(predStructures, predBBoxes, score[0], null, w, h);
+    }
+
+    /**
+     * 结构推理是否依赖 OCR 结果（表格预判、区域检测、分块均需要 OCR 文本框；自适应输入边长按文本框数量选择，
+     * 不先做 OCR 会与 {@link #run} 选出不同的输入边长）
+     */
+    boolean structureNeedsOcr() {
+        return this.tableClassifier != null || this.regionDetector != null || this.tableTiler != null
+                || this.tableStructure.isInputSizeAdaptive();
+    }
+
+    /**
+     * 加载图像，供组合流水线复用同一个 Mat
+     */
+    Mat loadImage(Object imgContent, TableTimings timings) throws Exception {
+        long start = System.nanoTime();
+        Mat img = this.loadImg.call(imgContent);
+        timings.record(TableStage.LOAD, start);
+        return img;
+    }
+
+    /**
+     * 由已推理的结构与 OCR 结果组装最终结果
+     *
+     * @param startTime 开始时间 System.nanoTime()
+     */
+    TableResult assemble(TableStructure structure, List<RecResult> ocrResult, boolean returnLogicPoints, long startTime,
+                         TableTimings timings) {
+        long parseStart = System.nanoTime();
+        Pair<List<float[]>, List<Pair<String, Float>>> boxAndRec =
+                getBoxesRecs(ocrResult, structure.getImageHeight(), structure.getImageWidth());
+        timings.record(TableStage.OCR_PARSE, parseStart);
+        return assembleResult(structure.getTokens(), structure.getCellBoxes(), boxAndRec.getLeft(), boxAndRec.getRight(),
+                () -> logicPointsOf(structure), startTime, timings);
+    }
+
+    /**
+     * 优先使用结构中已解码的逻辑坐标
+     */
+    private List<int[]> logicPointsOf(TableStructure structure) {
+        List<int[]> logicPoints = structure.getLogicPoints();
+        return logicPoints != null ? logicPoints : this.tableMatcher.decodeLogicPoints(structure.getTokens());
+    }
+
+    /**
+     * 同一张图中的多个表格共用一个计时器
+     */
+    private List<TableResult> runTablesImpl(Object imgContent, List<RecResult> ocrResult, boolean returnLogicPoints) throws Exception {
+        Lock lock = enterRun();
+        try {
+            TableTimings timings = newTimings();
+            Mat img = loadImage(imgContent, timings);
+
+            long startTime = System.nanoTime();
+            Pair<List<float[]>, List<Pair<String, Float>>> boxAndRec = getBoxesRecs(ocrResult, img.rows(), img.cols());
+            List<float[]> dtBoxes = boxAndRec.getLeft();
+            List<Pair<String, Float>> recRes = boxAndRec.getRight();
+            timings.record(TableStage.OCR_PARSE, startTime);
+            if (this.tableClassifier != null) {
+                TableSkipReason reason = this.tableClassifier.check(img, dtBoxes);
+                if (reason != null) {
+                    return Collections.singletonList(notifyResult(emptyResult(returnLogicPoints, startTime, reason, timings)));
+                }
+            }
+            List<TableResult> tables;
+            if (this.regionDetector == null) {
+                // 未开启区域检测时，整页视为一个表格
+                Rect page = new Rect(0, 0, img.cols(), img.rows());
+                tables = runRegions(img, Collections.singletonList(page), dtBoxes, recRes, returnLogicPoints, startTime, timings);
+            } else {
+                tables = runRegions(img, dtBoxes, recRes, returnLogicPoints, startTime, timings);
+                if (tables.isEmpty()) {
+                    tables = Collections.singletonList(
+                            emptyResult(returnLogicPoints, startTime, TableSkipReason.NO_TABLE_REGION, timings));
+                }
+            }
+            tables.forEach(this::notifyResult);
+            return tables;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<TableResult> runRegions(Mat img, List<float[]> dtBoxes, List<Pair<String, Float>> recRes,
+                                         boolean returnLogicPoints, long startTime, TableTimings timings) {
+        List<Rect> regions = this.regionDetector.detect(img, dtBoxes);
+        return runRegions(img, regions, dtBoxes, recRes, returnLogicPoints, startTime, timings);
+    }
+
+    /**
+     * 对每个表格区域裁剪后推理（命中结构缓存、持久化存储、版式模板或走有线表格快速路径、分块推理的区域除外，
+     * 其余组成一个 batch），并将单元格坐标映射回原图
+     */
+    private List<TableResult> runRegions(Mat img, List<Rect> regions, List<float[]> dtBoxes, List<Pair<String, Float>> recRes,
+                                         boolean returnLogicPoints, long startTime, TableTimings timings) {
+        if (regions.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 1. 裁剪区域，并按区域划分 OCR 结果（按文本框中心点归属）
+        List<Mat> crops = new ArrayList<>();
+        List<List<float[]>> regionDtBoxes = new ArrayList<>();
+        List<List<Pair<String, Float>>> regionRecRes = new ArrayList<>();
+        for (Rect region : regions) {
+            crops.add(img.submat(region));
+            List<float[]> boxes = new ArrayList<>();
+            List<Pair<String, Float>> recs = new ArrayList<>();
+            for (int i = 0; i < dtBoxes.size(); i++) {
+                float[] box = dtBoxes.get(i);
+                float cx = (box[0] + box[2]) / 2;
+                float cy = (box[1] + box[3]) / 2;
+                if (cx >= region.x && cx < region.x + region.width && cy >= region.y && cy < region.y + region.height) {
+                    boxes.add(box);
+                    recs.add(recRes.get(i));
+                }
+            }
+            regionDtBoxes.add(boxes);
+            regionRecRes.add(recs);
         }
 
-        // 5. 调用表格匹配器, 组装最终 HTML
-        String predHtml = this.tableMatcher.call(predStructures, predBBoxes, dtBoxes, recRes);
-        // 6. 若需要逻辑坐标
-        double elapse = (System.currentTimeMillis() - startTime) / 1000.0;
-        if (returnLogicPoints) {
-            List<int[]> logicPoints = this.tableMatcher.decodeLogicPoints(predStructures);
-            return new TableResult(predHtml, predBBoxes, logicPoints, elapse);
+        // 2. 每个区域依次查结构缓存、持久化存储、有线表格快速路径、版式模板、超长表格分块，其余区域组成 batch 推理
+        List<TableStructure> structures = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<LayoutTemplateCache.Fingerprint> fingerprints = new ArrayList<>();
+        List<Integer> modelIndices = new ArrayList<>();
+        List<Mat> modelCrops = new ArrayList<>();
+        int inputSize = 0;
+        for (int i = 0; i < regions.size(); i++) {
+            Rect region = regions.get(i);
+            Mat crop = crops.get(i);
+            // 区域内的文本框，裁剪图坐标
+            List<float[]> localBoxes = shiftBoxes(regionDtBoxes.get(i), -region.x, -region.y);
+            String key = structureKey(crop, localBoxes);
+            LayoutTemplateCache.Fingerprint[] fingerprint = new LayoutTemplateCache.Fingerprint[1];
+            TableStructure structure = lookupStructure(key);
+            if (structure == null) {
+                structure = inferWithoutModel(crop, localBoxes, fingerprint, timings);
+                if (structure != null) {
+                    saveStructure(key, structure);
+                }
+            }
+            structures.add(structure);
+            keys.add(key);
+            fingerprints.add(fingerprint[0]);
+            if (structure == null) {
+                modelIndices.add(i);
+                modelCrops.add(crop);
+                // batch 内共用同一输入边长
+                inputSize = Math.max(inputSize, this.tableStructure.selectInputSize(region.height, region.width, localBoxes.size()));
+            }
+        }
+        if (!modelCrops.isEmpty()) {
+            float[] scores = new float[modelCrops.size()];
+            List<Triple<List<String>, List<float[]>, Double>> batchResults =
+                    this.tableStructure.callBatch(modelCrops, inputSize, scores, timings);
+            for (int k = 0; k < modelIndices.size(); k++) {
+                int i = modelIndices.get(k);
+                Mat crop = crops.get(i);
+                Triple<List<String>, List<float[]>, Double> res = batchResults.get(k);
+                TableStructure structure;
+                if (res.getLeft() == null) {
+                    structure = new TableStructure(Collections.emptyList(), Collections.emptyList(), 0.0f, null,
+                            crop.cols(), crop.rows());
+                } else {
+                    List<float[]> predBBoxes = res.getMiddle();
+                    if (TableModelType.SLANET_PLUS.equals(this.modelType)) {
+                        predBBoxes = adaptSlanetPlus(crop, predBBoxes, inputSize, timings);
+                    }
+                    structure = new TableStructure(res.getLeft(), predBBoxes, scores[k], null, crop.cols(), crop.rows());
+                }
+                rememberTemplate(fingerprints.get(i), structure);
+                saveStructure(keys.get(i), structure);
+                structures.set(i, structure);
+            }
+        }
+
+        // 3. 逐个区域匹配
+        List<TableResult> tables = new ArrayList<>();
+        for (int i = 0; i < regions.size(); i++) {
+            Rect region = regions.get(i);
+            // 裁剪坐标 -> 原图坐标
+            List<float[]> predBBoxes = shiftBoxes(structures.get(i).getCellBoxes(), region.x, region.y);
+            tables.add(assembleResult(structures.get(i).getTokens(), predBBoxes, regionDtBoxes.get(i), regionRecRes.get(i),
+                    returnLogicPoints, startTime, timings));
+        }
+        return tables;
+    }
+
+    /**
+     * 平移坐标框，返回新的列表
+     */
+    private static List<float[]> shiftBoxes(List<float[]> boxes, float dx, float dy) {
+        List<float[]> shifted = new ArrayList<>(boxes.size());
+        for (float[] box : boxes) {
+            float[] copy = box.clone();
+            for (int j = 0; j < copy.length; j++) {
+                copy[j] += j % 2 == 0 ? dx : dy;
+            }
+            shifted.add(copy);
+        }
+        return shifted;
+    }
+
+    /**
+     * 等待全部条带推理完成，任一条带失败时取消其余条带并抛出原异常
+     */
+    private static <T> List<T> awaitTiles(List<Future<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待条带推理时被中断", e);
         }
-        return new TableResult(predHtml, predBBoxes, null, elapse);
+    }
+
+    /**
+     * 超长表格：按行边界切成重叠条带，batch（或并行）推理后按行拼接
+     *
+     * @return 拼接后的表格结构，bbox 为原图坐标，score 为各条带的平均值
+     */
+    private TableStructure runTiled(Mat img, List<float[]> dtBoxes, TableTimings timings) {
+        int w = img.cols();
+        List<int[]> strips = this.tableTiler.planStrips(img.rows(), w, dtBoxes);
+
+        List<Mat> crops = new ArrayList<>();
+        int size = 0;
+        for (int[] strip : strips) {
+            crops.add(img.rowRange(strip[0], strip[1]));
+            int boxCount = 0;
+            for (float[] box : dtBoxes) {
+                if (box[1] >= strip[0] && box[3] <= strip[1]) {
+                    boxCount++;
+                }
+            }
+            size = Math.max(size, this.tableStructure.selectInputSize(strip[1] - strip[0], w, boxCount));
+        }
+        int inputSize = size;
+
+        // 动态 batch 模型一次推理全部条带，否则在条带线程池中并行推理
+        List<Triple<List<String>, List<float[]>, Double>> results;
+        float[] scores = new float[crops.size()];
+        if (this.tableStructure.isDynamicBatch()) {
+            results = this.tableStructure.callBatch(crops, inputSize, scores, timings);
+        } else {
+            List<Future<Triple<List<String>, List<float[]>, Double>>> futures = new ArrayList<>(crops.size());
+            for (int i = 0; i < crops.size(); i++) {
+                final int index = i;
+                futures.add(this.tilePool.submit(() -> {
+                    float[] score = new float[1];
+                    Triple<List<String>, List<float[]>, Double> res = this.tableStructure.callBatch(
+                            Collections.singletonList(crops.get(index)), inputSize, score, timings).get(0);
+                    scores[index] = score[0];
+                    return res;
+                }));
+            }
+            results = awaitTiles(futures);
+        }
+
+        List<List<String>> structures = new ArrayList<>();
+        List<List<float[]>> bboxes = new ArrayList<>();
+        for (int i = 0; i < strips.size(); i++) {
+            List<float[]> predBBoxes = results.get(i).getMiddle();
+            if (predBBoxes != null && TableModelType.SLANET_PLUS.equals(this.modelType)) {
+                predBBoxes = adaptSlanetPlus(crops.get(i), predBBoxes, inputSize, timings);
+            }
+            if (predBBoxes != null) {
+                // 条带坐标 -> 原图坐标
+                for (float[] box : predBBoxes) {
+                    for (int j = 1; j < box.length; j += 2) {
+                        box[j] += strips.get(i)[0];
+                    }
+                }
+            }
+            structures.add(results.get(i).getLeft());
+            bboxes.add(predBBoxes);
+        }
+        Pair<List<String>, List<float[]>> stitched = this.tableTiler.stitch(strips, structures, bboxes);
+        float scoreSum = 0;
+        for (float score : scores) {
+            scoreSum += score;
+        }
+        return new TableStructure(stitched.getLeft(), stitched.getRight(), scoreSum / Math.max(1, scores.length), null,
+                w, img.rows());
+    }
+
+    /**
+     * 由已推理的结构与已归入单元格的 OCR 结果组装最终结果，不再做框匹配
+     *
+     * @param matchedIndex key: 单元格索引，value: recRes 索引列表
+     */
+    TableResult assembleMatched(TableStructure structure, Map<Integer, List<Integer>> matchedIndex,
+                                List<Pair<String, Float>> recRes, boolean returnLogicPoints, long startTime,
+                                TableTimings timings) {
+        List<String> predStructures = structure.getTokens();
+        double elapse = (System.nanoTime() - startTime) / 1e9;
+        List<float[]> predBBoxes = structure.getCellBoxes();
+        Supplier<List<int[]>> logicPoints = timedLogicPoints(() -> logicPointsOf(structure), timings);
+        TableResult result = new TableResult(
+                () -> this.tableMatcher.buildHtmlAndCells(predStructures, predBBoxes, matchedIndex, recRes,
+                        logicPoints, timings),
+                predBBoxes, logicPoints, elapse);
+        result.setTimings(timings);
+        return result;
+    }
+
+    /**
+     * 调用表格匹配器, 组装最终 HTML 及结果
+     * HTML（匹配）与逻辑坐标在首次访问时才计算，returnLogicPoints 仅为兼容保留，逻辑坐标始终可获取
+     */
+    private TableResult assembleResult(List<String> predStructures, List<float[]> predBBoxes,
+                                       List<float[]> dtBoxes, List<Pair<String, Float>> recRes,
+                                       boolean returnLogicPoints, long startTime, TableTimings timings) {
+        return assembleResult(predStructures, predBBoxes, dtBoxes, recRes,
+                () -> this.tableMatcher.decodeLogicPoints(predStructures), startTime, timings);
+    }
+
+    private TableResult assembleResult(List<String> predStructures, List<float[]> predBBoxes,
+                                       List<float[]> dtBoxes, List<Pair<String, Float>> recRes,
+                                       Supplier<List<int[]>> logicPoints, long startTime, TableTimings timings) {
+        double elapse = (System.nanoTime() - startTime) / 1e9;
+        // 5. 调用表格匹配器, 组装最终 HTML 及单元格列表；6. 逻辑坐标，与单元格列表共用一次解码
+        Supplier<List<int[]>> sharedLogicPoints = timedLogicPoints(logicPoints, timings);
+        TableResult result = new TableResult(
+                () -> this.tableMatcher.callWithCells(predStructures, predBBoxes, dtBoxes, recRes, sharedLogicPoints,
+                        timings),
+                predBBoxes, sharedLogicPoints, elapse);
+        result.setTimings(timings);
+        return result;
+    }
+
+    /**
+     * 计时并缓存逻辑坐标的解码，单元格列表与结果的逻辑坐标只解码一次
+     */
+    private static Supplier<List<int[]>> timedLogicPoints(Supplier<List<int[]>> logicPoints, TableTimings timings) {
+        return new Supplier<List<int[]>>() {
+            private List<int[]> points;
+
+            @Override
+            public synchronized List<int[]> get() {
+                if (points == null) {
+                    long start = System.nanoTime();
+                    points = logicPoints.get();
+                    timings.record(TableStage.LOGIC_POINTS, start);
+                }
+                return points;
+            }
+        };
+    }
+
+    private TableResult emptyResult(boolean returnLogicPoints, long startTime, TableSkipReason reason, TableTimings timings) {
+        double elapse = (System.nanoTime() - startTime) / 1e9;
+        TableResult result = new TableResult(() -> Pair.of("", new ArrayList<>()), new ArrayList<>(), ArrayList::new, elapse);
+        result.setSkipReason(reason);
+        result.setTimings(timings);
+        return result;
     }
 
     /**
@@ -146,34 +1312,43 @@ public class RapidTable {
             // 处理识别结果和分数
 
             // 处理边框坐标
-            Point[] box = result.getDtBoxes();
-            if (box == null || box.length == 0) {
+            float[] box = toRectBox(result.getDtBoxes(), h, w);
+            if (box == null) {
                 continue; // 如果边框为空，跳过
             }
+            rBoxes.add(box);
+        }
+        return Pair.of(rBoxes, recRes);
+    }
 
-            float xMin = Float.MAX_VALUE;
-            float xMax = Float.MIN_VALUE;
-            float yMin = Float.MAX_VALUE;
-            float yMax = Float.MIN_VALUE;
+    /**
+     * OCR 四点框转为 [xMin, yMin, xMax, yMax]，外扩 1 像素并限制在图像范围内；框为空时返回 null
+     */
+    static float[] toRectBox(Point[] box, int h, int w) {
+        if (box == null || box.length == 0) {
+            return null;
+        }
+        float xMin = Float.MAX_VALUE;
+        float xMax = Float.MIN_VALUE;
+        float yMin = Float.MAX_VALUE;
+        float yMax = Float.MIN_VALUE;
 
-            for (Point point : box) {
-                float x = (float) point.x;
-                float y = (float) point.y;
-                if (x < xMin) xMin = x;
-                if (x > xMax) xMax = x;
-                if (y < yMin) yMin = y;
-                if (y > yMax) yMax = y;
-            }
+        for (Point point : box) {
+            float x = (float) point.x;
+            float y = (float) point.y;
+            if (x < xMin) xMin = x;
+            if (x > xMax) xMax = x;
+            if (y < yMin) yMin = y;
+            if (y > yMax) yMax = y;
+        }
 
-            // 调整边界并确保在图片范围内
-            xMin = Math.max(0, xMin - 1);
-            xMax = Math.min(w, xMax + 1);
-            yMin = Math.max(0, yMin - 1);
-            yMax = Math.min(h, yMax + 1);
+        // 调整边界并确保在图片范围内
+        xMin = Math.max(0, xMin - 1);
+        xMax = Math.min(w, xMax + 1);
+        yMin = Math.max(0, yMin - 1);
+        yMax = Math.min(h, yMax + 1);
 
-            rBoxes.add(new float[]{xMin, yMin, xMax, yMax});
-        }
-        return Pair.of(rBoxes, recRes);
+        return new float[]{xMin, yMin, xMax, yMax};
     }
 
     /**
@@ -181,13 +1356,15 @@ public class RapidTable {
      *
      * @param img         图像对象
      * @param predBBoxes  原预测 box, shape [n, 8] or [n, 4] 需看项目情况
+     * @param resized     推理时使用的输入边长
+     * @param timings     分阶段计时
      * @return 适配后的 box
      */
-    private List<float[]> adaptSlanetPlus(Mat img, List<float[]> predBBoxes) {
+    private List<float[]> adaptSlanetPlus(Mat img, List<float[]> predBBoxes, int resized, TableTimings timings) {
+        long start = System.nanoTime();
         int h = img.rows();
         int w = img.cols();
 
-        int resized = 488;
         float ratio = Math.min((float) resized / h, (float) resized / w);
 
         float w_ratio = resized / (w * ratio);
@@ -202,6 +1379,7 @@ public class RapidTable {
                 }
             }
         }
+        timings.record(TableStage.BOX_ADAPT, start);
         return predBBoxes;
     }
 }
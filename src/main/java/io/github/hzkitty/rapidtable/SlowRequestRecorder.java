@@ -0,0 +1,273 @@
+package io.github.hzkitty.rapidtable;
+
+import io.github.hzkitty.entity.RecResult;
+import io.github.hzkitty.rapidtable.entity.TableResult;
+import io.github.hzkitty.rapidtable.entity.TableStage;
+import io.github.hzkitty.rapidtable.entity.TableTimings;
+import io.github.hzkitty.rapidtable.utils.TableGridWriter;
+import io.github.hzkitty.rapidtable.utils.TokenCodec;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 慢请求记录器：耗时超过阈值的识别请求落盘为可回放的用例
+ * <p>
+ * 目录结构：
+ * <pre>
+ * case-1700000000000-0001/
+ *     image.png     输入图像的原始字节（文件路径保留原扩展名，Mat、BufferedImage 编码为 PNG）
+ *     case.json     OCR 输入、分阶段耗时、HTML token 序列、单元格数等
+ * </pre>
+ * 图像字节在调用线程上复制（调用方返回后可能复用 Mat），写盘在后台线程进行；
+ * 队列已满时丢弃用例，不阻塞识别。用例数超过上限时删除最早的用例。
+ */
+class SlowRequestRecorder implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowRequestRecorder.class);
+
+    static final int FORMAT_VERSION = 1;
+    static final String CASE_PREFIX = "case-";
+    static final String CASE_FILE = "case.json";
+    private static final int QUEUE_SIZE = 16;
+    // 通知写盘线程退出的哨兵
+    private static final Case STOP = new Case();
+    private static final long CLOSE_TIMEOUT_MS = 5000;
+
+    private final Path dir;
+    private final long thresholdNanos;
+    private final int maxCases;
+    private final BlockingQueue<Case> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * @param dir         用例目录，不存在时创建
+     * @param thresholdMs 耗时阈值（毫秒）
+     * @param maxCases    最多保留的用例数
+     */
+    SlowRequestRecorder(Path dir, long thresholdMs, int maxCases) throws IOException {
+        this.dir = dir;
+        this.thresholdNanos = thresholdMs * 1_000_000L;
+        this.maxCases = Math.max(1, maxCases);
+        Files.createDirectories(dir);
+
+        this.writer = new Thread(this::drain, "rapidtable-slow-request");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * 耗时超过阈值时记录请求，否则直接返回
+     *
+     * @param elapsedNanos 从加载图像到生成 HTML 的耗时
+     */
+    void record(Object imgContent, List<RecResult> ocrResult, boolean returnLogicPoints, TableResult result,
+                long elapsedNanos) {
+        if (closed || elapsedNanos < thresholdNanos) {
+            return;
+        }
+        try {
+            Case c = new Case();
+            c.timestamp = System.currentTimeMillis();
+            c.elapsedNanos = elapsedNanos;
+            c.returnLogicPoints = returnLogicPoints;
+            c.imageExt = imageExtension(imgContent);
+            c.image = imageBytes(imgContent);
+            c.ocrResult = ocrResult;
+            c.result = result;
+            if (!queue.offer(c)) {
+                logger.warn("慢请求队列已满，丢弃用例（耗时 {}ms）", elapsedNanos / 1_000_000);
+            }
+        } catch (Exception e) {
+            logger.warn("慢请求记录失败", e);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Case c;
+            try {
+                c = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (c == STOP) {
+                return;
+            }
+            try {
+                write(c);
+                prune();
+            } catch (Exception e) {
+                logger.warn("慢请求写入失败", e);
+            }
+        }
+    }
+
+    /**
+     * 停止接受新用例，写完队列中已有的用例后结束写盘线程（最多等待 5 秒）
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            if (!queue.offer(STOP, CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                writer.interrupt();
+            }
+            writer.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            writer.interrupt();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Case c) throws IOException {
+        String html = c.result.getHtmlStr();
+        List<String> tokens = html != null ? TokenCodec.splitHtml(html) : Collections.emptyList();
+        int cellCount = c.result.getCellCount();
+
+        String name = String.format("%s%013d-%04d", CASE_PREFIX, c.timestamp, sequence.incrementAndGet() % 10000);
+        Path tmp = dir.resolve(name + ".tmp");
+        Files.createDirectories(tmp);
+        String imageFile = "image." + c.imageExt;
+        Files.write(tmp.resolve(imageFile), c.image);
+
+        try (Writer out = Files.newBufferedWriter(tmp.resolve(CASE_FILE), StandardCharsets.UTF_8)) {
+            out.write("{\n  \"version\": " + FORMAT_VERSION);
+            out.write(",\n  \"timestamp\": " + c.timestamp);
+            out.write(",\n  \"elapseMs\": " + c.elapsedNanos / 1e6);
+            out.write(",\n  \"thresholdMs\": " + thresholdNanos / 1_000_000);
+            out.write(",\n  \"imageFile\": ");
+            TableGridWriter.writeJsonString(imageFile, out);
+            out.write(",\n  \"returnLogicPoints\": " + c.returnLogicPoints);
+            out.write(",\n  \"htmlTokenCount\": " + tokens.size());
+            out.write(",\n  \"htmlTokens\": [");
+            for (int i = 0; i < tokens.size(); i++) {
+                out.write(i == 0 ? "" : ", ");
+                TableGridWriter.writeJsonString(tokens.get(i), out);
+            }
+            out.write("]");
+            out.write(",\n  \"cellCount\": " + cellCount);
+            if (c.result.getSkipReason() != null) {
+                out.write(",\n  \"skipReason\": ");
+                TableGridWriter.writeJsonString(c.result.getSkipReason().name(), out);
+            }
+            out.write(",\n  \"timings\": {");
+            TableTimings timings = c.result.getTimings();
+            boolean first = true;
+            for (TableStage stage : TableStage.values()) {
+                long nanos = timings != null ? timings.getNanos(stage) : 0;
+                if (nanos == 0) {
+                    continue;
+                }
+                out.write(first ? "" : ", ");
+                TableGridWriter.writeJsonString(stage.getCode(), out);
+                out.write(": " + nanos);
+                first = false;
+            }
+            out.write("},\n  \"ocr\": ");
+            OcrJson.write(c.ocrResult, out, "    ");
+            out.write("\n}\n");
+        }
+        Files.move(tmp, dir.resolve(name));
+        logger.info("已记录慢请求 {}（耗时 {}ms）", name, String.format("%.1f", c.elapsedNanos / 1e6));
+    }
+
+    private void prune() throws IOException {
+        List<Path> cases = listCases(dir);
+        for (int i = 0; i < cases.size() - maxCases; i++) {
+            deleteRecursively(cases.get(i));
+        }
+    }
+
+    /**
+     * 目录下已完成写入的用例，按时间升序
+     */
+    static List<Path> listCases(Path dir) throws IOException {
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream.filter(p -> p.getFileName().toString().startsWith(CASE_PREFIX)
+                            && !p.getFileName().toString().endsWith(".tmp")
+                            && Files.isRegularFile(p.resolve(CASE_FILE)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> stream = Files.walk(path)) {
+            List<Path> paths = stream.sorted((a, b) -> b.getNameCount() - a.getNameCount()).collect(Collectors.toList());
+            for (Path p : paths) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private static String imageExtension(Object img) {
+        if (img instanceof String || img instanceof Path) {
+            String name = (img instanceof String ? Paths.get((String) img) : (Path) img).getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            if (dot > 0 && dot < name.length() - 1) {
+                return name.substring(dot + 1).toLowerCase();
+            }
+            return "bin";
+        }
+        return img instanceof byte[] ? "bin" : "png";
+    }
+
+    private static byte[] imageBytes(Object img) throws IOException {
+        if (img instanceof String || img instanceof Path) {
+            return Files.readAllBytes(img instanceof String ? Paths.get((String) img) : (Path) img);
+        }
+        if (img instanceof byte[]) {
+            return ((byte[]) img).clone();
+        }
+        if (img instanceof Mat) {
+            MatOfByte buf = new MatOfByte();
+            try {
+                if (!Imgcodecs.imencode(".png", (Mat) img, buf)) {
+                    throw new IOException("Mat 编码失败");
+                }
+                return buf.toArray();
+            } finally {
+                buf.release();
+            }
+        }
+        if (img instanceof BufferedImage) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write((BufferedImage) img, "png", out);
+            return out.toByteArray();
+        }
+        throw new IOException("不支持的图像类型: " + (img == null ? null : img.getClass().getName()));
+    }
+
+    private static class Case {
+        long timestamp;
+        long elapsedNanos;
+        boolean returnLogicPoints;
+        String imageExt;
+        byte[] image;
+        List<RecResult> ocrResult;
+        TableResult result;
+    }
+}
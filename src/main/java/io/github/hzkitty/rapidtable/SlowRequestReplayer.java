@@ -0,0 +1,182 @@
+package io.github.hzkitty.rapidtable;
+
+import io.github.hzkitty.entity.Pair;
+import io.github.hzkitty.rapidtable.entity.TableResult;
+import io.github.hzkitty.rapidtable.utils.SimpleJson;
+import io.github.hzkitty.rapidtable.utils.TokenCodec;
+import org.opencv.core.Point;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 回放 {@link SlowRequestRecorder} 记录的慢请求，将病态输入作为回归基准
+ * <p>
+ * 回放使用传入引擎的当前配置，OCR 输入按记录时的四点框与文本重建，与原请求走相同的解析与识别流程。
+ */
+public class SlowRequestReplayer {
+
+    private final RapidTable engine;
+
+    public SlowRequestReplayer(RapidTable engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * 目录下的用例，按记录时间升序
+     */
+    public static List<Path> listCases(Path dir) throws IOException {
+        return SlowRequestRecorder.listCases(dir);
+    }
+
+    /**
+     * 回放单个用例
+     *
+     * @param caseDir 用例目录
+     */
+    public Replay replay(Path caseDir) throws Exception {
+        Map<?, ?> json;
+        try (BufferedReader reader = Files.newBufferedReader(caseDir.resolve(SlowRequestRecorder.CASE_FILE),
+                StandardCharsets.UTF_8)) {
+            json = (Map<?, ?>) SimpleJson.parse(reader);
+        }
+        Number version = (Number) json.get("version");
+        if (version == null || version.intValue() > SlowRequestRecorder.FORMAT_VERSION) {
+            throw new IllegalArgumentException("不支持的用例版本: " + version + " (" + caseDir + ")");
+        }
+        byte[] image = Files.readAllBytes(caseDir.resolve(String.valueOf(json.get("imageFile"))));
+        boolean returnLogicPoints = Boolean.TRUE.equals(json.get("returnLogicPoints"));
+
+        Pair<List<Point[]>, List<Pair<String, Float>>> ocr = OcrJson.read((List<?>) json.get("ocr"));
+
+        long runStart = System.nanoTime();
+        TableResult result = engine.runOcrEntries(image, ocr.getLeft(), ocr.getRight(), returnLogicPoints);
+        // 与记录时一致，耗时包含延迟计算的匹配与 HTML
+        result.getHtmlStr();
+        long replayNanos = System.nanoTime() - runStart;
+
+        List<String> recordedTokens = null;
+        if (json.get("htmlTokens") instanceof List) {
+            recordedTokens = new ArrayList<>();
+            for (Object token : (List<?>) json.get("htmlTokens")) {
+                recordedTokens.add(String.valueOf(token));
+            }
+        }
+        return new Replay(caseDir, ((Number) json.get("elapseMs")).doubleValue(), replayNanos / 1e6,
+                ((Number) json.get("cellCount")).intValue(), recordedTokens, result);
+    }
+
+    /**
+     * 回放目录下的全部用例
+     *
+     * @param repeat 每个用例的回放次数，取最后一次的结果
+     */
+    public List<Replay> replayAll(Path dir, int repeat) throws Exception {
+        List<Replay> replays = new ArrayList<>();
+        for (Path caseDir : listCases(dir)) {
+            Replay replay = null;
+            for (int i = 0; i < Math.max(1, repeat); i++) {
+                replay = replay(caseDir);
+            }
+            replays.add(replay);
+        }
+        return replays;
+    }
+
+    /**
+     * 用法：SlowRequestReplayer &lt;用例目录&gt; [回放次数]，使用默认配置
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("用法: SlowRequestReplayer <用例目录> [回放次数]");
+            return;
+        }
+        Path dir = Paths.get(args[0]);
+        int repeat = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        SlowRequestReplayer replayer = new SlowRequestReplayer(RapidTable.create());
+        for (Replay replay : replayer.replayAll(dir, repeat)) {
+            System.out.println(replay);
+            System.out.println("  " + replay.getResult().getTimings());
+        }
+    }
+
+    /**
+     * 单个用例的回放结果
+     */
+    public static class Replay {
+        private final Path caseDir;
+        private final double recordedMillis;
+        private final double replayMillis;
+        private final int recordedCellCount;
+        // 记录时的 HTML token 序列，早期用例未记录时为 null
+        private final List<String> recordedTokens;
+        private final TableResult result;
+
+        Replay(Path caseDir, double recordedMillis, double replayMillis, int recordedCellCount,
+               List<String> recordedTokens, TableResult result) {
+            this.caseDir = caseDir;
+            this.recordedMillis = recordedMillis;
+            this.replayMillis = replayMillis;
+            this.recordedCellCount = recordedCellCount;
+            this.recordedTokens = recordedTokens;
+            this.result = result;
+        }
+
+        public Path getCaseDir() {
+            return caseDir;
+        }
+
+        public double getRecordedMillis() {
+            return recordedMillis;
+        }
+
+        public double getReplayMillis() {
+            return replayMillis;
+        }
+
+        public int getRecordedCellCount() {
+            return recordedCellCount;
+        }
+
+        public List<String> getRecordedTokens() {
+            return recordedTokens;
+        }
+
+        public TableResult getResult() {
+            return result;
+        }
+
+        /**
+         * 回放的单元格数与记录时一致
+         */
+        public boolean isCellCountMatched() {
+            return result.getCellCount() == recordedCellCount;
+        }
+
+        /**
+         * 回放的 HTML token 序列与记录时一致，用例未记录 token 时只比较单元格数
+         */
+        public boolean isTokensMatched() {
+            if (recordedTokens == null) {
+                return isCellCountMatched();
+            }
+            String html = result.getHtmlStr();
+            return recordedTokens.equals(html != null ? TokenCodec.splitHtml(html) : Collections.emptyList());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: recorded=%.1fms, replay=%.1fms, cells=%d/%d%s", caseDir.getFileName(),
+                    recordedMillis, replayMillis, result.getCellCount(), recordedCellCount,
+                    isTokensMatched() ? "" : " (不一致)");
+        }
+    }
+}
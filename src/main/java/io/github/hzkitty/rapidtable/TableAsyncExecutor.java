@@ -0,0 +1,110 @@
+package io.github.hzkitty.rapidtable;
+
+import io.github.hzkitty.rapidtable.entity.TableTimeoutException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link RapidTable#runAsync} 使用的有界线程池：加载（解码图像、解析 OCR 结果）与推理分别在独立的线程池中执行，
+ * 解码慢的图像不会占用推理线程
+ * <p>
+ * 等待队列有界，队列满时不再排队，直接返回以 {@link RejectedExecutionException} 失败的 future，由调用方降级或重试。
+ */
+final class TableAsyncExecutor implements AutoCloseable {
+
+    private final ThreadPoolExecutor loadPool;
+    private final ThreadPoolExecutor inferPool;
+    // 调用方等待超时的定时器
+    private final ScheduledThreadPoolExecutor timer;
+
+    TableAsyncExecutor(int loadThreads, int inferThreads, int queueSize) {
+        this.loadPool = newPool("rapidtable-load-", loadThreads, queueSize);
+        this.inferPool = newPool("rapidtable-infer-", inferThreads, queueSize);
+        this.timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "rapidtable-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    private static ThreadPoolExecutor newPool(String prefix, int threads, int queueSize) {
+        int n = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), r -> {
+            Thread thread = new Thread(r, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 在加载线程池中执行
+     */
+    <T> CompletableFuture<T> load(Callable<T> task) {
+        return submit(this.loadPool, "加载", task);
+    }
+
+    /**
+     * 在推理线程池中执行
+     */
+    <T> CompletableFuture<T> infer(Callable<T> task) {
+        return submit(this.inferPool, "推理", task);
+    }
+
+    private static <T> CompletableFuture<T> submit(ThreadPoolExecutor pool, String name, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            pool.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new RejectedExecutionException(pool.isShutdown() ? "RapidTable 已关闭"
+                    : name + "队列已满（" + pool.getQueue().size() + " 个等待）", e));
+        }
+        return future;
+    }
+
+    /**
+     * 超过 timeoutNanos 仍未完成时以 {@link TableTimeoutException} 结束 future，任务本身在下一个检查点放弃
+     */
+    <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, long timeoutNanos) {
+        ScheduledFuture<?> scheduled = this.timer.schedule(
+                () -> future.completeExceptionally(new TableTimeoutException(null)), timeoutNanos, TimeUnit.NANOSECONDS);
+        future.whenComplete((result, e) -> scheduled.cancel(false));
+        return future;
+    }
+
+    /**
+     * 不再接受新任务，并等待已提交的任务执行完成（之后才能安全释放 ORT 会话）
+     * <p>
+     * 先关闭加载线程池并等待其结束，已接受的加载任务仍可提交推理任务；再关闭推理线程池。
+     */
+    @Override
+    public void close() {
+        try {
+            this.loadPool.shutdown();
+            this.loadPool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            this.inferPool.shutdown();
+            this.inferPool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            this.inferPool.shutdown();
+            Thread.currentThread().interrupt();
+        } finally {
+            this.timer.shutdown();
+        }
+    }
+}
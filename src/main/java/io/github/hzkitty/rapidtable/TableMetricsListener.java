@@ -0,0 +1,27 @@
+package io.github.hzkitty.rapidtable;
+
+import io.github.hzkitty.rapidtable.entity.TableResult;
+import io.github.hzkitty.rapidtable.entity.TableStage;
+
+/**
+ * 指标监听器，用于将分阶段耗时桥接到外部监控系统，不引入额外依赖
+ * <p>
+ * 回调可能来自多个线程（并行分块推理、异步流水线），也可能在结果首次访问 HTML、逻辑坐标时才发生，实现需线程安全且尽量轻量；
+ * 回调抛出的异常会被忽略，不影响识别。
+ */
+public interface TableMetricsListener {
+
+    /**
+     * 某个阶段完成
+     *
+     * @param stage 阶段
+     * @param nanos 耗时（纳秒）
+     */
+    void onStage(TableStage stage, long nanos);
+
+    /**
+     * 一次识别返回结果，此时延迟计算的阶段（匹配、HTML、逻辑坐标）尚未执行
+     */
+    default void onResult(TableResult result) {
+    }
+}
@@ -0,0 +1,259 @@
+package io.github.hzkitty.rapidtable;
+
+import io.github.hzkitty.RapidOCR;
+import io.github.hzkitty.entity.OcrResult;
+import io.github.hzkitty.entity.Pair;
+import io.github.hzkitty.entity.RecResult;
+import io.github.hzkitty.rapidtable.entity.TableResult;
+import io.github.hzkitty.rapidtable.entity.TableStage;
+import io.github.hzkitty.rapidtable.entity.TableStructure;
+import io.github.hzkitty.rapidtable.entity.TableTimings;
+import io.github.hzkitty.rapidtable.tablematcher.CellOcrMatcher;
+import io.github.hzkitty.rapidtable.utils.TableEventSpan;
+import io.github.hzkitty.rapidtable.utils.TableEvents;
+import org.opencv.core.Mat;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * OCR + 表格识别组合流水线
+ * <p>
+ * 图像只解码一次；OCR 与表格结构推理在同一个 Mat 上并行执行，到匹配阶段再汇合，
+ * 单张图像耗时约为 max(OCR, 结构推理) + 匹配。
+ * 开启表格预判、区域检测或分块推理时，结构推理依赖 OCR 文本框，退化为先 OCR 后识别表格。
+ * <p>
+ * 先结构模式（structureFirst）：先推理表格结构，再只对单元格所在行带做 OCR，文本直接归入单元格，
+ * 适合文本稀疏的表格，同时避免表格外的文字被匹配进单元格。
+ */
+public class TableOcrPipeline implements AutoCloseable {
+
+    private final RapidOCR rapidOCR;
+    private final RapidTable rapidTable;
+    private final ExecutorService executor;
+    // 线程池是否由本类创建，关闭时只关闭自己创建的线程池
+    private final boolean ownsExecutor;
+    // 先结构后 OCR，为 null 时 OCR 与结构推理并行
+    private final CellOcrMatcher cellOcrMatcher;
+
+    public TableOcrPipeline(RapidOCR rapidOCR, RapidTable rapidTable) {
+        this(rapidOCR, rapidTable, false);
+    }
+
+    public TableOcrPipeline(RapidOCR rapidOCR, RapidTable rapidTable, boolean structureFirst) {
+        this(rapidOCR, rapidTable, newOcrExecutor(), true, structureFirst);
+    }
+
+    public TableOcrPipeline(RapidOCR rapidOCR, RapidTable rapidTable, ExecutorService executor) {
+        this(rapidOCR, rapidTable, executor, false, false);
+    }
+
+    public TableOcrPipeline(RapidOCR rapidOCR, RapidTable rapidTable, ExecutorService executor, boolean structureFirst) {
+        this(rapidOCR, rapidTable, executor, false, structureFirst);
+    }
+
+    private TableOcrPipeline(RapidOCR rapidOCR, RapidTable rapidTable, ExecutorService executor,
+                             boolean ownsExecutor, boolean structureFirst) {
+        this.rapidOCR = rapidOCR;
+        this.rapidTable = rapidTable;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.cellOcrMatcher = structureFirst ? new CellOcrMatcher() : null;
+    }
+
+    public TableResult run(String imagePath) throws Exception {
+        return this.runImpl(imagePath, false);
+    }
+
+    public TableResult run(Path imagePath) throws Exception {
+        return this.runImpl(imagePath, false);
+    }
+
+    public TableResult run(byte[] imageData) throws Exception {
+        return this.runImpl(imageData, false);
+    }
+
+    public TableResult run(BufferedImage image) throws Exception {
+        return this.runImpl(image, false);
+    }
+
+    public TableResult run(Mat mat) throws Exception {
+        return this.runImpl(mat, false);
+    }
+
+    public TableResult run(String imagePath, boolean returnLogicPoints) throws Exception {
+        return this.runImpl(imagePath, returnLogicPoints);
+    }
+
+    public TableResult run(Path imagePath, boolean returnLogicPoints) throws Exception {
+        return this.runImpl(imagePath, returnLogicPoints);
+    }
+
+    public TableResult run(byte[] imageData, boolean returnLogicPoints) throws Exception {
+        return this.runImpl(imageData, returnLogicPoints);
+    }
+
+    public TableResult run(BufferedImage image, boolean returnLogicPoints) throws Exception {
+        return this.runImpl(image, returnLogicPoints);
+    }
+
+    public TableResult run(Mat mat, boolean returnLogicPoints) throws Exception {
+        return this.runImpl(mat, returnLogicPoints);
+    }
+
+    private TableResult runImpl(Object imgContent, boolean returnLogicPoints) throws Exception {
+        Lock lock = this.rapidTable.enterRun();
+        try {
+            long runStart = System.nanoTime();
+            try (TableEventSpan span = TableEvents.run()) {
+                // 1. 只解码一次
+                TableTimings timings = this.rapidTable.newTimings();
+                Mat img = this.rapidTable.loadImage(imgContent, timings);
+
+                // 结构推理依赖 OCR 文本框时，只能串行
+                if (this.rapidTable.structureNeedsOcr()) {
+                    OcrResult ocrResult = runOcr(img, timings);
+                    return this.rapidTable.runLoaded(imgContent, img, ocrResult.getRecRes(), returnLogicPoints,
+                            runStart, timings, span);
+                }
+
+                span.imageSize(img.cols(), img.rows());
+                long startTime = System.nanoTime();
+                if (this.cellOcrMatcher != null) {
+                    TableResult result = runStructureFirst(img, returnLogicPoints, startTime, timings);
+                    // 拼图上的 OCR 结果不是整页坐标，慢请求不记录 OCR 结果
+                    return this.rapidTable.completeRun(imgContent, null, returnLogicPoints, runStart, timings, span, result);
+                }
+
+                // 2. OCR 在后台线程执行，结构推理在当前线程执行
+                Future<OcrResult> ocrFuture = this.executor.submit(() -> runOcr(img, timings));
+                TableStructure structure;
+                try {
+                    structure = this.rapidTable.predictPageStructure(img, null, timings);
+                } catch (RuntimeException e) {
+                    ocrFuture.cancel(true);
+                    throw e;
+                }
+
+                // 3. 汇合后匹配
+                List<RecResult> recRes = getOcr(ocrFuture).getRecRes();
+                span.ocrBoxCount(recRes == null ? 0 : recRes.size());
+                TableResult result = this.rapidTable.assemble(structure, recRes, returnLogicPoints, startTime, timings);
+                return this.rapidTable.completeRun(imgContent, recRes, returnLogicPoints, runStart, timings, span, result);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private OcrResult runOcr(Mat img, TableTimings timings) throws Exception {
+        long start = System.nanoTime();
+        OcrResult ocrResult = this.rapidOCR.run(img);
+        timings.record(TableStage.OCR, start);
+        return ocrResult;
+    }
+
+    /**
+     * 先推理结构，再只对单元格所在行带做 OCR，文本直接归入单元格
+     */
+    private TableResult runStructureFirst(Mat img, boolean returnLogicPoints, long startTime,
+                                          TableTimings timings) throws Exception {
+        TableStructure structure = this.rapidTable.predictPageStructure(img, null, timings);
+        List<float[]> cellBoxes = structure.getCellBoxes();
+
+        // 各张拼图并行 OCR；拼图由执行 OCR 的任务释放，出错时取消其余任务，未开始的任务的拼图由当前线程释放
+        List<CellOcrMatcher.Mosaic> mosaics = this.cellOcrMatcher.buildMosaics(img, cellBoxes);
+        List<Future<OcrResult>> futures = new ArrayList<>(mosaics.size());
+        List<AtomicBoolean> claims = new ArrayList<>(mosaics.size());
+        List<float[]> dtBoxes = new ArrayList<>();
+        List<Pair<String, Float>> recRes = new ArrayList<>();
+        long ocrStart = System.nanoTime();
+        try {
+            for (CellOcrMatcher.Mosaic mosaic : mosaics) {
+                AtomicBoolean claimed = new AtomicBoolean();
+                futures.add(this.executor.submit(() -> ocrMosaic(mosaic.getImage(), claimed)));
+                claims.add(claimed);
+            }
+
+            for (int i = 0; i < mosaics.size(); i++) {
+                CellOcrMatcher.Mosaic mosaic = mosaics.get(i);
+                // 拼图在 OCR 结束后已释放，使用创建时记录的尺寸
+                List<RecResult> mosaicRes = getOcr(futures.get(i)).getRecRes();
+                if (mosaicRes == null) {
+                    continue;
+                }
+                Pair<List<float[]>, List<Pair<String, Float>>> boxAndRec =
+                        this.rapidTable.getBoxesRecs(mosaicRes, mosaic.getHeight(), mosaic.getWidth());
+                this.cellOcrMatcher.mapBack(mosaic, boxAndRec.getLeft(), boxAndRec.getRight(), dtBoxes, recRes);
+            }
+            timings.record(TableStage.OCR, ocrStart);
+        } finally {
+            for (int i = 0; i < mosaics.size(); i++) {
+                if (i < futures.size()) {
+                    futures.get(i).cancel(true);
+                }
+                // 任务尚未开始（或未能提交）时，由当前线程释放拼图
+                if (i >= claims.size() || claims.get(i).compareAndSet(false, true)) {
+                    mosaics.get(i).getImage().release();
+                }
+            }
+        }
+
+        long matchStart = System.nanoTime();
+        Map<Integer, List<Integer>> matchedIndex = this.cellOcrMatcher.assign(dtBoxes, cellBoxes);
+        timings.record(TableStage.MATCH, matchStart);
+        return this.rapidTable.assembleMatched(structure, matchedIndex, recRes, returnLogicPoints, startTime, timings);
+    }
+
+    /**
+     * 对一张拼图做 OCR，结束后释放拼图；任务开始前已被放弃（claimed 已置位）时直接返回
+     */
+    private OcrResult ocrMosaic(Mat image, AtomicBoolean claimed) throws Exception {
+        if (!claimed.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            return this.rapidOCR.run(image);
+        } finally {
+            image.release();
+        }
+    }
+
+    private static OcrResult getOcr(Future<OcrResult> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.ownsExecutor) {
+            this.executor.shutdown();
+        }
+    }
+
+    private static ExecutorService newOcrExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), r -> {
+            Thread thread = new Thread(r, "rapidtable-ocr-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,298 @@
+package io.github.hzkitty.rapidtable.cache;
+
+import io.github.hzkitty.rapidtable.entity.TableStructure;
+import io.github.hzkitty.rapidtable.tabledetector.TableRegionDetector;
+import org.opencv.core.*;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 版式模板缓存：相同网格、不同文字的表格（发票、对账单等）复用结构推理结果
+ * <p>
+ * 1. 指纹：提取横线、竖线，裁剪到线条外接框（消除平移），膨胀后缩放为 64x64 二值图（容忍少量偏移）
+ * 2. 匹配：外接框宽高比接近，且二值图的 Jaccard 相似度不低于阈值
+ * 3. 命中时将缓存的单元格框按外接框缩放到新图像，结构 token 原样复用
+ * 没有表格线的图像无法生成指纹，不参与缓存。
+ */
+public class LayoutTemplateCache {
+
+    // 指纹边长
+    private static final int HASH_SIDE = 64;
+    private static final int HASH_WORDS = HASH_SIDE * HASH_SIDE / 64;
+    // 线条提取前的最大边长
+    private static final int MAX_SIDE = 800;
+    // 外接框宽高比允许的相对误差
+    private static final double ASPECT_TOLERANCE = 0.05;
+    // 线条像素过少时不生成指纹
+    private static final int MIN_LINE_BITS = 64;
+
+    // 最大模板数
+    private final int capacity;
+    // 相似度阈值 (0, 1]
+    private final double threshold;
+
+    // 按访问顺序排列的 LRU，访问需持有本对象锁
+    private final LinkedHashMap<Long, Template> templates = new LinkedHashMap<>(16, 0.75f, true);
+    private long nextId = 0;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LayoutTemplateCache(int capacity, double threshold) {
+        this.capacity = capacity;
+        this.threshold = threshold;
+    }
+
+    /**
+     * 计算版式指纹
+     *
+     * @param img 表格图像
+     * @return 指纹；图像中没有足够的表格线时返回 null
+     */
+    public Fingerprint fingerprint(Mat img) {
+        int h = img.rows();
+        int w = img.cols();
+        double scale = Math.min(1.0, (double) MAX_SIDE / Math.max(h, w));
+
+        // 1. 二值化并提取线条
+        Mat gray = new Mat();
+        if (img.channels() == 3) {
+            Imgproc.cvtColor(img, gray, Imgproc.COLOR_BGR2GRAY);
+        } else {
+            img.copyTo(gray);
+        }
+        if (scale < 1.0) {
+            Imgproc.resize(gray, gray, new Size(Math.round(w * scale), Math.round(h * scale)), 0, 0, Imgproc.INTER_AREA);
+        }
+        Mat binary = new Mat();
+        Imgproc.adaptiveThreshold(gray, binary, 255, Imgproc.ADAPTIVE_THRESH_MEAN_C, Imgproc.THRESH_BINARY_INV, 15, 10);
+        Mat[] lines = TableRegionDetector.extractLines(binary);
+        Mat mask = new Mat();
+        Core.bitwise_or(lines[0], lines[1], mask);
+
+        // 2. 裁剪到线条外接框，消除平移
+        int[] rowRange = nonZeroRange(mask, 1);
+        int[] colRange = nonZeroRange(mask, 0);
+        if (rowRange == null || colRange == null) {
+            return null;
+        }
+        Rect box = new Rect(colRange[0], rowRange[0], colRange[1] - colRange[0], rowRange[1] - rowRange[0]);
+        if (box.width < 16 || box.height < 16) {
+            return null;
+        }
+        Mat cropped = new Mat();
+        Imgproc.dilate(mask.submat(box), cropped, Imgproc.getStructuringElement(Imgproc.MORPH_RECT, new Size(5, 5)));
+
+        // 3. 缩放为固定大小的二值图
+        Mat small = new Mat();
+        Imgproc.resize(cropped, small, new Size(HASH_SIDE, HASH_SIDE), 0, 0, Imgproc.INTER_AREA);
+        byte[] pixels = new byte[HASH_SIDE * HASH_SIDE];
+        small.get(0, 0, pixels);
+        long[] bits = new long[HASH_WORDS];
+        int bitCount = 0;
+        for (int i = 0; i < pixels.length; i++) {
+            if ((pixels[i] & 0xFF) > 32) {
+                bits[i >>> 6] |= 1L << (i & 63);
+                bitCount++;
+            }
+        }
+        if (bitCount < MIN_LINE_BITS) {
+            return null;
+        }
+
+        // 外接框映射回原图坐标
+        float[] bounds = new float[]{
+                (float) (box.x / scale), (float) (box.y / scale),
+                (float) ((box.x + box.width) / scale), (float) ((box.y + box.height) / scale)};
+        return new Fingerprint(bits, bounds);
+    }
+
+    /**
+     * 查找相似模板，并将其结构缩放到新图像
+     *
+     * @param fingerprint 新图像的指纹，为 null 时直接返回 null
+     * @param img         新图像
+     * @return 缩放后的结构；没有足够相似的模板时返回 null
+     */
+    public TableStructure lookup(Fingerprint fingerprint, Mat img) {
+        if (fingerprint == null) {
+            return null;
+        }
+        lookups.incrementAndGet();
+
+        Template best = null;
+        double bestSimilarity = threshold;
+        synchronized (this) {
+            for (Template template : templates.values()) {
+                if (Math.abs(template.fingerprint.aspect() / fingerprint.aspect() - 1) > ASPECT_TOLERANCE) {
+                    continue;
+                }
+                double similarity = similarity(template.fingerprint.bits, fingerprint.bits);
+                if (similarity >= bestSimilarity) {
+                    bestSimilarity = similarity;
+                    best = template;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            // 刷新 LRU 顺序
+            templates.get(best.id);
+        }
+        hits.incrementAndGet();
+        return rescale(best, fingerprint, img.cols(), img.rows());
+    }
+
+    /**
+     * 以模型推理的结果新增模板
+     */
+    public void put(Fingerprint fingerprint, TableStructure structure) {
+        if (fingerprint == null || structure.getCellCount() == 0) {
+            return;
+        }
+        synchronized (this) {
+            long id = nextId++;
+            templates.put(id, new Template(id, fingerprint, structure));
+            Iterator<Map.Entry<Long, Template>> it = templates.entrySet().iterator();
+            while (templates.size() > capacity && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        templates.clear();
+    }
+
+    public synchronized int size() {
+        return templates.size();
+    }
+
+    public long getLookupCount() {
+        return lookups.get();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public double getHitRate() {
+        long total = lookups.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    /**
+     * 两个二值图的 Jaccard 相似度
+     */
+    private static double similarity(long[] a, long[] b) {
+        int inter = 0;
+        int union = 0;
+        for (int i = 0; i < a.length; i++) {
+            inter += Long.bitCount(a[i] & b[i]);
+            union += Long.bitCount(a[i] | b[i]);
+        }
+        return union == 0 ? 0.0 : (double) inter / union;
+    }
+
+    /**
+     * 按线条外接框将模板的单元格框映射到新图像
+     */
+    private static TableStructure rescale(Template template, Fingerprint target, int width, int height) {
+        float[] src = template.fingerprint.bounds;
+        float[] dst = target.bounds;
+        float sx = (dst[2] - dst[0]) / Math.max(1f, src[2] - src[0]);
+        float sy = (dst[3] - dst[1]) / Math.max(1f, src[3] - src[1]);
+
+        List<float[]> boxes = template.structure.getCellBoxes();
+        List<float[]> scaled = new ArrayList<>(boxes.size());
+        for (float[] box : boxes) {
+            float[] copy = new float[box.length];
+            for (int j = 0; j < box.length; j++) {
+                if (j % 2 == 0) {
+                    copy[j] = Math.min(width, Math.max(0, (box[j] - src[0]) * sx + dst[0]));
+                } else {
+                    copy[j] = Math.min(height, Math.max(0, (box[j] - src[1]) * sy + dst[1]));
+                }
+            }
+            scaled.add(copy);
+        }
+        return new TableStructure(template.structure.getTokens(), scaled, template.structure.getScore(),
+                template.structure.getLogicPoints(), width, height);
+    }
+
+    /**
+     * 投影后返回非零区间 [start, end)，没有非零像素时返回 null
+     */
+    private static int[] nonZeroRange(Mat mask, int dim) {
+        Mat projection = new Mat();
+        Core.reduce(mask, projection, dim, Core.REDUCE_MAX);
+        byte[] values = new byte[(int) projection.total()];
+        projection.get(0, 0, values);
+        int start = -1;
+        int end = -1;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != 0) {
+                if (start < 0) {
+                    start = i;
+                }
+                end = i + 1;
+            }
+        }
+        return start < 0 ? null : new int[]{start, end};
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutTemplateCache{" +
+                "size=" + size() +
+                ", lookups=" + lookups.get() +
+                ", hits=" + hits.get() +
+                ", evictions=" + evictions.get() +
+                ", hitRate=" + String.format("%.3f", getHitRate()) +
+                '}';
+    }
+
+    /**
+     * 版式指纹
+     */
+    public static class Fingerprint {
+        // 64x64 二值图，按行展开
+        private final long[] bits;
+        // 线条外接框 [x0, y0, x1, y1]，原图坐标
+        private final float[] bounds;
+
+        Fingerprint(long[] bits, float[] bounds) {
+            this.bits = bits;
+            this.bounds = bounds;
+        }
+
+        double aspect() {
+            return (bounds[2] - bounds[0]) / Math.max(1f, bounds[3] - bounds[1]);
+        }
+    }
+
+    private static class Template {
+        private final long id;
+        private final Fingerprint fingerprint;
+        private final TableStructure structure;
+
+        Template(long id, Fingerprint fingerprint, TableStructure structure) {
+            this.id = id;
+            this.fingerprint = fingerprint;
+            this.structure = structure;
+        }
+    }
+}
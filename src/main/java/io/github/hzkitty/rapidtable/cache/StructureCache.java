@@ -0,0 +1,310 @@
+package io.github.hzkitty.rapidtable.cache;
+
+import io.github.hzkitty.rapidtable.entity.TableStage;
+import io.github.hzkitty.rapidtable.entity.TableStructure;
+import io.github.hzkitty.rapidtable.entity.TableTimeoutException;
+import io.github.hzkitty.rapidtable.entity.TableTimings;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * 按内容寻址的表格结构缓存：以解码后像素的哈希（见 {@link #contentHash(Mat)}）+ 模型与配置为键
+ * <p>
+ * 1. LRU 淘汰，容量与存活时间（TTL）可配置
+ * 2. 同一个键的并发请求只推理一次，其余请求等待并共享结果（有截止时间的请求不发起共享推理）
+ * 3. 统计命中、未命中、合并、淘汰次数
+ */
+public class StructureCache {
+
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    // 最大缓存条数
+    private final int maxEntries;
+    // 存活时间（毫秒），<= 0 表示不过期
+    private final long ttlMillis;
+
+    // 按访问顺序排列的 LRU，访问需持有本对象锁
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // 正在推理的请求
+    private final ConcurrentHashMap<String, CompletableFuture<TableStructure>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong dedups = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public StructureCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 计算图像内容哈希（形状 + CRC32 + 64 位乘法混合哈希）
+     *
+     * @param img 解码后的图像
+     * @return 内容哈希；图像不是 8 位时返回 null，表示不缓存
+     */
+    public static String contentHash(Mat img) {
+        int depth = img.depth();
+        if (depth != CvType.CV_8U && depth != CvType.CV_8S) {
+            // 只缓存 8 位图像（LoadImage 的输出均为 8 位）
+            return null;
+        }
+        Mat continuous = img.isContinuous() ? img : img.clone();
+        byte[] data = new byte[(int) (continuous.total() * continuous.elemSize())];
+        continuous.get(0, 0, data);
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        return img.rows() + "x" + img.cols() + "x" + img.type()
+                + '-' + Long.toHexString(crc.getValue()) + Long.toHexString(mix64(data));
+    }
+
+    /**
+     * 计算 OCR 文本框的哈希（数量 + 各坐标的 64 位乘法混合哈希），文本框影响分块、有线表格校验与输入边长
+     *
+     * @param dtBoxes OCR 文本框，可为 null
+     * @return 文本框哈希；dtBoxes 为 null 时返回 "-1"
+     */
+    public static String boxesHash(List<float[]> dtBoxes) {
+        if (dtBoxes == null) {
+            return "-1";
+        }
+        long h = dtBoxes.size() * MIX;
+        for (float[] box : dtBoxes) {
+            h = (h ^ box.length) * MIX;
+            for (float v : box) {
+                h = (h ^ (Float.floatToIntBits(v) & 0xFFFFFFFFL)) * MIX;
+                h ^= h >>> 29;
+            }
+        }
+        return dtBoxes.size() + "-" + Long.toHexString(h ^ (h >>> 32));
+    }
+
+    /**
+     * 查询缓存，未命中时调用 loader 推理并写入缓存；相同键的并发请求只调用一次 loader
+     */
+    public TableStructure get(String key, Supplier<TableStructure> loader) {
+        return get(key, loader, new TableTimings());
+    }
+
+    /**
+     * 同 {@link #get(String, Supplier)}，并遵守本次识别的截止时间：
+     * 有截止时间的请求不发起共享推理（其超时不会使等待的其他请求失败），只在自己的线程推理；
+     * 等待其他请求的推理结果时最多等到自己的截止时间，超时抛出 {@link TableTimeoutException}
+     */
+    public TableStructure get(String key, Supplier<TableStructure> loader, TableTimings timings) {
+        if (key == null) {
+            return loader.get();
+        }
+        TableStructure cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<TableStructure> existing = inFlight.get(key);
+        if (existing == null) {
+            if (timings.hasDeadline()) {
+                misses.incrementAndGet();
+                TableStructure structure = loader.get();
+                put(key, structure);
+                return structure;
+            }
+            CompletableFuture<TableStructure> future = new CompletableFuture<>();
+            existing = inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                // 查询缓存与登记之间，其他请求可能已完成推理并写入缓存，再查一次
+                cached = lookup(key);
+                if (cached != null) {
+                    hits.incrementAndGet();
+                    future.complete(cached);
+                    inFlight.remove(key, future);
+                    return cached;
+                }
+                return load(key, loader, future);
+            }
+        }
+        // 已有相同请求在推理，等待其结果
+        dedups.incrementAndGet();
+        return await(existing, timings);
+    }
+
+    private TableStructure load(String key, Supplier<TableStructure> loader, CompletableFuture<TableStructure> future) {
+        misses.incrementAndGet();
+        try {
+            TableStructure structure = loader.get();
+            put(key, structure);
+            future.complete(structure);
+            return structure;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 只查询缓存，不推理；用于调用方自行批量推理未命中项后再 {@link #put(String, TableStructure)}
+     *
+     * @return 未命中时返回 null，并计为一次未命中
+     */
+    public TableStructure getIfPresent(String key) {
+        TableStructure cached = lookup(key);
+        (cached != null ? hits : misses).incrementAndGet();
+        return cached;
+    }
+
+    /**
+     * 等待共享推理的结果，推理失败时抛出原异常
+     */
+    private static TableStructure await(CompletableFuture<TableStructure> future, TableTimings timings) {
+        try {
+            if (timings.hasDeadline()) {
+                return future.get(Math.max(0, timings.getRemainingNanos()), TimeUnit.NANOSECONDS);
+            }
+            return future.get();
+        } catch (TimeoutException e) {
+            throw new TableTimeoutException(TableStage.ORT_RUN, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待结构推理时被中断", e);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * 与正在推理的相同请求合并的次数
+     */
+    public long getDedupCount() {
+        return dedups.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * 命中率，合并的请求计为命中
+     */
+    public double getHitRate() {
+        long hit = hits.get() + dedups.get();
+        long total = hit + misses.get();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    private synchronized TableStructure lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, System.currentTimeMillis())) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(String key, TableStructure value) {
+        long now = System.currentTimeMillis();
+        entries.put(key, new Entry(value, now));
+        // 先清理过期条目，再按 LRU 淘汰超出容量的条目
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> e = it.next();
+            if (entries.size() > maxEntries || isExpired(e.getValue(), now)) {
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return ttlMillis > 0 && now - entry.createdAt > ttlMillis;
+    }
+
+    /**
+     * 64 位乘法混合哈希，与 CRC32 组合降低碰撞概率
+     */
+    private static long mix64(byte[] data) {
+        long h = data.length * MIX;
+        int i = 0;
+        for (; i + 8 <= data.length; i += 8) {
+            long v = (data[i] & 0xFFL)
+                    | (data[i + 1] & 0xFFL) << 8
+                    | (data[i + 2] & 0xFFL) << 16
+                    | (data[i + 3] & 0xFFL) << 24
+                    | (data[i + 4] & 0xFFL) << 32
+                    | (data[i + 5] & 0xFFL) << 40
+                    | (data[i + 6] & 0xFFL) << 48
+                    | (data[i + 7] & 0xFFL) << 56;
+            h = (h ^ v * MIX) * MIX;
+            h ^= h >>> 29;
+        }
+        for (; i < data.length; i++) {
+            h = (h ^ (data[i] & 0xFFL)) * MIX;
+        }
+        return h ^ (h >>> 32);
+    }
+
+    @Override
+    public String toString() {
+        return "StructureCache{" +
+                "size=" + size() +
+                ", hits=" + hits.get() +
+                ", misses=" + misses.get() +
+                ", dedups=" + dedups.get() +
+                ", evictions=" + evictions.get() +
+                ", hitRate=" + String.format("%.3f", getHitRate()) +
+                '}';
+    }
+
+    private static class Entry {
+        private final TableStructure value;
+        private final long createdAt;
+
+        Entry(TableStructure value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
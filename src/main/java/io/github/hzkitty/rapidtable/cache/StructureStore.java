@@ -0,0 +1,436 @@
+package io.github.hzkitty.rapidtable.cache;
+
+import io.github.hzkitty.rapidtable.entity.TableStructure;
+import io.github.hzkitty.rapidtable.utils.TokenCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 持久化的表格结构存储，进程重启后仍然有效
+ * <p>
+ * 目录结构：
+ * <pre>
+ * index.bin          开放寻址哈希索引（内存映射），每个槽 32 字节：key 哈希 (16) + 段号 (4) + 长度 (4) + 偏移 (8)
+ * segment-00000.seg  只追加的数据段（内存映射），每条记录：CRC32 (4) + 编码后的 TableStructure
+ * </pre>
+ * 先写数据再写索引，进程中途退出最多丢失最后一条记录。索引装载率超过 0.7 时扩容重建。
+ * 索引与数据均在堆外，数百万条记录不占用堆内存。
+ * <p>
+ * 打开时对 index.bin 加排他文件锁，同一目录同时只能由一个实例（含其他进程）打开，关闭时释放。
+ */
+public class StructureStore implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StructureStore.class);
+
+    private static final long MAGIC = 0x5254534C54424C31L; // "RTSLTBL1"
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 32;
+    private static final double MAX_LOAD = 0.7;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final Path dir;
+    // 单个数据段的大小，已有存储以索引中记录的为准
+    private int segmentBytes;
+
+    private MappedByteBuffer index;
+    // 持有 index.bin 排他锁的通道，扩容替换索引文件时随之切换
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private boolean closed;
+    private int capacity;
+    private int count;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private int activeSegment;
+    private int writeOffset;
+
+    /**
+     * @param dir           存储目录，不存在时创建
+     * @param segmentBytes  单个数据段的大小
+     * @throws IOException 目录已被其他实例打开，或索引无效
+     */
+    public StructureStore(Path dir, int segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(dir);
+
+        Path indexPath = dir.resolve("index.bin");
+        boolean exists = Files.exists(indexPath) && Files.size(indexPath) > 0;
+        lockIndex(indexPath);
+        try {
+            open(indexPath, exists);
+        } catch (IOException | RuntimeException e) {
+            releaseLock();
+            throw e;
+        }
+        logger.info("StructureStore opened: {}, entries={}", dir, this.count);
+    }
+
+    /**
+     * 通过持锁的通道映射索引：同一进程关闭该文件的其他描述符会释放文件锁，索引不另外打开
+     */
+    private void open(Path indexPath, boolean exists) throws IOException {
+        if (exists) {
+            this.index = map(this.lockChannel, this.lockChannel.size());
+            if (this.index.getLong(0) != MAGIC) {
+                throw new IOException("不是有效的结构存储索引: " + indexPath);
+            }
+            this.capacity = this.index.getInt(8);
+            this.count = this.index.getInt(12);
+            this.activeSegment = this.index.getInt(16);
+            this.writeOffset = this.index.getInt(20);
+            this.segmentBytes = this.index.getInt(24);
+        } else {
+            this.capacity = 1 << 16;
+            this.index = map(this.lockChannel, HEADER_BYTES + (long) this.capacity * SLOT_BYTES);
+            this.activeSegment = 0;
+            this.writeOffset = 0;
+            writeHeader();
+        }
+        for (int i = 0; i <= this.activeSegment; i++) {
+            this.segments.add(map(segmentPath(i), this.segmentBytes));
+        }
+    }
+
+    /**
+     * 对索引文件加排他锁，已被其他实例持有时抛出 IOException
+     */
+    private void lockIndex(Path indexPath) throws IOException {
+        FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        if (acquired == null) {
+            channel.close();
+            throw new IOException("结构存储目录已被其他实例打开: " + dir);
+        }
+        this.lockChannel = channel;
+        this.lock = acquired;
+    }
+
+    private void releaseLock() {
+        try {
+            if (this.lock != null) {
+                this.lock.release();
+            }
+            if (this.lockChannel != null) {
+                this.lockChannel.close();
+            }
+        } catch (IOException e) {
+            logger.warn("StructureStore unlock failed: {}", e.getMessage());
+        }
+        this.lock = null;
+        this.lockChannel = null;
+    }
+
+    /**
+     * 查询结构，不存在或数据损坏时返回 null
+     */
+    public synchronized TableStructure get(String key) {
+        long[] hash = hash(key);
+        int slot = findSlot(hash);
+        int pos = HEADER_BYTES + slot * SLOT_BYTES;
+        if (index.getLong(pos) == 0 && index.getLong(pos + 8) == 0) {
+            return null;
+        }
+        int segment = index.getInt(pos + 16);
+        int length = index.getInt(pos + 20);
+        int offset = (int) index.getLong(pos + 24);
+
+        ByteBuffer record = segments.get(segment).duplicate();
+        record.position(offset).limit(offset + length);
+        record = record.slice().order(ByteOrder.LITTLE_ENDIAN);
+        int crc = record.getInt();
+        ByteBuffer payload = record.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (crc != crc32(payload.duplicate())) {
+            logger.warn("StructureStore record corrupted, key={}", key);
+            return null;
+        }
+        return decode(payload);
+    }
+
+    /**
+     * 写入结构，已存在时忽略
+     */
+    public synchronized void put(String key, TableStructure structure) {
+        long[] hash = hash(key);
+        int slot = findSlot(hash);
+        int pos = HEADER_BYTES + slot * SLOT_BYTES;
+        if (index.getLong(pos) != 0 || index.getLong(pos + 8) != 0) {
+            return;
+        }
+
+        ByteBuffer payload = encode(structure);
+        int length = 4 + payload.remaining();
+        if (length > segmentBytes) {
+            logger.warn("StructureStore record too large: {} bytes", length);
+            return;
+        }
+        try {
+            // 1. 当前段剩余空间不足时切换到新段
+            if (writeOffset + length > segmentBytes) {
+                activeSegment++;
+                writeOffset = 0;
+                segments.add(map(segmentPath(activeSegment), segmentBytes));
+            }
+            // 2. 先写数据
+            ByteBuffer out = segments.get(activeSegment).duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            out.position(writeOffset);
+            out.putInt(crc32(payload.duplicate()));
+            out.put(payload);
+            int offset = writeOffset;
+            writeOffset += length;
+
+            // 3. 再写索引
+            if (count + 1 > capacity * MAX_LOAD) {
+                grow();
+                slot = findSlot(hash);
+                pos = HEADER_BYTES + slot * SLOT_BYTES;
+            }
+            index.putInt(pos + 16, activeSegment);
+            index.putInt(pos + 20, length);
+            index.putLong(pos + 24, offset);
+            index.putLong(pos + 8, hash[1]);
+            index.putLong(pos, hash[0]);
+            count++;
+            writeHeader();
+        } catch (IOException e) {
+            logger.warn("StructureStore write failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * 将映射内容刷到磁盘
+     */
+    public synchronized void flush() {
+        index.force();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * 刷盘并释放目录锁，重复调用无副作用
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            releaseLock();
+        }
+    }
+
+    /**
+     * 线性探测查找 key 所在的槽，不存在时返回第一个空槽
+     */
+    private int findSlot(long[] hash) {
+        int mask = capacity - 1;
+        int slot = (int) (hash[0] ^ (hash[0] >>> 32)) & mask;
+        while (true) {
+            int pos = HEADER_BYTES + slot * SLOT_BYTES;
+            long h0 = index.getLong(pos);
+            long h1 = index.getLong(pos + 8);
+            if ((h0 == 0 && h1 == 0) || (h0 == hash[0] && h1 == hash[1])) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * 容量翻倍并重建索引，写入临时文件后原子替换
+     */
+    private void grow() throws IOException {
+        Path indexPath = dir.resolve("index.bin");
+        Path tmpPath = dir.resolve("index.bin.tmp");
+        MappedByteBuffer old = this.index;
+        int oldCapacity = this.capacity;
+
+        this.capacity = oldCapacity * 2;
+        this.index = createIndex(tmpPath, this.capacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            int src = HEADER_BYTES + i * SLOT_BYTES;
+            long h0 = old.getLong(src);
+            long h1 = old.getLong(src + 8);
+            if (h0 == 0 && h1 == 0) {
+                continue;
+            }
+            int dst = HEADER_BYTES + findSlot(new long[]{h0, h1}) * SLOT_BYTES;
+            for (int b = 0; b < SLOT_BYTES; b += 8) {
+                this.index.putLong(dst + b, old.getLong(src + b));
+            }
+        }
+        writeHeader();
+        this.index.force();
+        // 先锁住新索引再替换，替换后的 index.bin 仍由本实例持有锁
+        FileLock oldLock = this.lock;
+        FileChannel oldChannel = this.lockChannel;
+        lockIndex(tmpPath);
+        Files.move(tmpPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        oldLock.release();
+        oldChannel.close();
+    }
+
+    private void writeHeader() {
+        index.putLong(0, MAGIC);
+        index.putInt(8, capacity);
+        index.putInt(12, count);
+        index.putInt(16, activeSegment);
+        index.putInt(20, writeOffset);
+        index.putInt(24, segmentBytes);
+    }
+
+    private Path segmentPath(int segment) {
+        return dir.resolve(String.format("segment-%05d.seg", segment));
+    }
+
+    private static MappedByteBuffer createIndex(Path path, int capacity) throws IOException {
+        Files.deleteIfExists(path);
+        return map(path, HEADER_BYTES + (long) capacity * SLOT_BYTES);
+    }
+
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            // 映射在通道关闭后仍然有效
+            return map(file.getChannel(), size);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * 128 位 key 哈希，全 0 保留为空槽
+     */
+    private static long[] hash(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long h0 = 0xcbf29ce484222325L;
+        long h1 = 0x84222325cbf29ce4L;
+        for (byte b : bytes) {
+            h0 = (h0 ^ (b & 0xFF)) * 0x100000001b3L;
+            h1 = (h1 ^ (b & 0xFF)) * 0x9E3779B97F4A7C15L;
+            h1 ^= h1 >>> 31;
+        }
+        if (h0 == 0 && h1 == 0) {
+            h0 = 1;
+        }
+        return new long[]{h0, h1};
+    }
+
+    private static int crc32(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 编码：版本、score、图像尺寸、token、单元格框（float32）、逻辑坐标（varint）
+     */
+    static ByteBuffer encode(TableStructure structure) {
+        List<String> tokens = structure.getTokens();
+        List<float[]> boxes = structure.getCellBoxes();
+        List<int[]> logicPoints = structure.getLogicPoints();
+        int coords = boxes.isEmpty() ? 0 : boxes.get(0).length;
+        int capacity = 32 + TokenCodec.maxEncodedSize(tokens) + boxes.size() * coords * 4
+                + (logicPoints == null ? 0 : logicPoints.size() * 25);
+        ByteBuffer out = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+
+        out.put(FORMAT_VERSION);
+        out.putFloat(structure.getScore());
+        TokenCodec.writeVarint(out, structure.getImageWidth());
+        TokenCodec.writeVarint(out, structure.getImageHeight());
+        TokenCodec.writeTokens(tokens, out);
+        TokenCodec.writeVarint(out, boxes.size());
+        TokenCodec.writeVarint(out, coords);
+        for (float[] box : boxes) {
+            for (int j = 0; j < coords; j++) {
+                out.putFloat(j < box.length ? box[j] : 0f);
+            }
+        }
+        if (logicPoints == null) {
+            out.put((byte) 0);
+        } else {
+            out.put((byte) 1);
+            TokenCodec.writeVarint(out, logicPoints.size());
+            for (int[] point : logicPoints) {
+                TokenCodec.writeVarint(out, point.length);
+                for (int v : point) {
+                    TokenCodec.writeVarint(out, v);
+                }
+            }
+        }
+        out.flip();
+        return out;
+    }
+
+    static TableStructure decode(ByteBuffer in) {
+        byte version = in.get();
+        if (version != FORMAT_VERSION) {
+            return null;
+        }
+        float score = in.getFloat();
+        int width = TokenCodec.readVarint(in);
+        int height = TokenCodec.readVarint(in);
+        List<String> tokens = TokenCodec.readTokens(in);
+        int boxCount = TokenCodec.readVarint(in);
+        int coords = TokenCodec.readVarint(in);
+        List<float[]> boxes = new ArrayList<>(boxCount);
+        for (int i = 0; i < boxCount; i++) {
+            float[] box = new float[coords];
+            for (int j = 0; j < coords; j++) {
+                box[j] = in.getFloat();
+            }
+            boxes.add(box);
+        }
+        List<int[]> logicPoints = null;
+        if (in.get() == 1) {
+            int n = TokenCodec.readVarint(in);
+            logicPoints = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                int[] point = new int[TokenCodec.readVarint(in)];
+                for (int j = 0; j < point.length; j++) {
+                    point[j] = TokenCodec.readVarint(in);
+                }
+                logicPoints.add(point);
+            }
+        }
+        return new TableStructure(tokens, boxes, score, logicPoints, width, height);
+    }
+}
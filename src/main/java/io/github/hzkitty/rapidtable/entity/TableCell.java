@@ -0,0 +1,77 @@
+package io.github.hzkitty.rapidtable.entity;
+
+import java.util.Arrays;
+
+/**
+ * 表格单元格：逻辑坐标（行列起止，含合并）、单元格框及其中的文本
+ */
+public final class TableCell {
+
+    private final int rowStart;
+    private final int rowEnd;
+    private final int colStart;
+    private final int colEnd;
+    // 单元格框（4 点或 8 点），原图坐标
+    private final float[] box;
+    // 单元格文本，多个 OCR 文本框以空格连接，无文本时为空串
+    private final String text;
+    // OCR 置信度的平均值，无文本时为 0
+    private final float confidence;
+
+    public TableCell(int rowStart, int rowEnd, int colStart, int colEnd, float[] box, String text, float confidence) {
+        this.rowStart = rowStart;
+        this.rowEnd = rowEnd;
+        this.colStart = colStart;
+        this.colEnd = colEnd;
+        this.box = box;
+        this.text = text;
+        this.confidence = confidence;
+    }
+
+    public int getRowStart() {
+        return rowStart;
+    }
+
+    public int getRowEnd() {
+        return rowEnd;
+    }
+
+    public int getColStart() {
+        return colStart;
+    }
+
+    public int getColEnd() {
+        return colEnd;
+    }
+
+    public int getRowSpan() {
+        return rowEnd - rowStart + 1;
+    }
+
+    public int getColSpan() {
+        return colEnd - colStart + 1;
+    }
+
+    public float[] getBox() {
+        return box.clone();
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public float getConfidence() {
+        return confidence;
+    }
+
+    @Override
+    public String toString() {
+        return "TableCell{" +
+                "row=" + rowStart + "-" + rowEnd +
+                ", col=" + colStart + "-" + colEnd +
+                ", box=" + Arrays.toString(box) +
+                ", text='" + text + '\'' +
+                ", confidence=" + confidence +
+                '}';
+    }
+}
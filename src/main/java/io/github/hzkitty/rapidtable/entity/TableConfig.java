@@ -7,6 +7,38 @@ public class TableConfig {
     public boolean useCuda = false; // 是否使用 CUDA
     public int deviceId = 0; // 显卡编号
     public boolean useArena = false; // arena内存池的扩展策略（速度有提升，但内存会剧增，且持续占用，不释放，默认关闭）
+    public int intraOpNumThreads = -1; // ORT 算子内并行线程数，-1 表示使用 ORT 默认值
+    public int interOpNumThreads = -1; // ORT 算子间并行线程数，-1 表示使用 ORT 默认值
+    public boolean uint8Input = false; // 是否使用 uint8 输入（加载时生成内置归一化的派生模型，输入传输量减少 4 倍，要求模型 opset >= 11，默认关闭）
+    public int inputSize = 488; // 模型输入边长，需与模型输入形状一致（动态维度不限制）
+    public boolean adaptiveInputSize = false; // 是否按图像尺寸和文本框数量自适应缩小输入边长，仅动态输入模型生效
+    public int minInputSize = 256; // 自适应时的最小输入边长
+    public boolean detectTableRegion = false; // 是否先检测表格区域并裁剪后再推理（无表格时直接返回空结果）
+    public boolean tiledInference = false; // 是否对超长表格分块推理（按行边界切成重叠条带，推理后拼接）
+    public float tileTriggerRatio = 2.0f; // 高宽比超过该值时分块
+    public float tileHeightRatio = 1.0f; // 条带高度与图像宽度之比
+    public float tileOverlapRatio = 0.1f; // 相邻条带重叠高度与条带高度之比
+    public int tileThreads = 2; // 静态 batch 模型并行推理条带的线程数（独立的有界线程池，不占用公共 ForkJoinPool）
+    public boolean wiredFastPath = false; // 是否对有线表格使用线条提取的快速路径（不经过模型，非有线表格自动回退到模型）
+    public boolean tableClassifier = false; // 是否在推理前预判图像是否包含表格，非表格直接返回空结果
+    public double tableClassifierThreshold = 0.3; // 表格度阈值 [0, 1]，低于该值视为非表格
+    public boolean structureCache = false; // 是否缓存结构推理结果（按像素哈希 + 配置寻址，重复图像跳过推理）
+    public int structureCacheSize = 256; // 结构缓存最大条数（LRU 淘汰）
+    public long structureCacheTtlSeconds = 600; // 结构缓存存活时间（秒），<= 0 表示不过期
+    public boolean templateCache = false; // 是否按表格线版式复用结构推理结果（网格相同、文字不同的表格跳过推理）
+    public int templateCacheSize = 300; // 版式模板最大数量（LRU 淘汰）
+    public double templateCacheThreshold = 0.85; // 版式相似度阈值 (0, 1]，越高越严格
+    public String structureStorePath = null; // 持久化结构存储目录（内存映射的只追加段文件 + 索引，同一目录同时只能由一个引擎打开），为 null 时关闭
+    public int structureStoreSegmentMb = 64; // 持久化结构存储单个数据段大小（MB，1 ~ 2047）
+    public String ortProfileDir = null; // ORT 性能分析 trace（chrome-trace JSON）输出目录，为 null 时关闭；采样的推理在独立会话上串行执行
+    public double ortProfileSampleRate = 0.01; // 参与性能分析的推理比例 (0, 1]
+    public int ortProfileRunsPerFile = 100; // 每个 trace 文件包含的推理次数，达到后开始新文件
+    public String slowRequestDir = null; // 慢请求用例目录（输入图像、OCR 结果、分阶段耗时，可用 SlowRequestReplayer 回放），为 null 时关闭
+    public long slowRequestThresholdMs = 1000; // 慢请求耗时阈值（毫秒）
+    public int slowRequestMaxCases = 100; // 最多保留的慢请求用例数，超出时删除最早的用例
+    public int asyncLoadThreads = 2; // runAsync 加载图像、解析 OCR 结果的线程数
+    public int asyncInferThreads = 2; // runAsync 结构推理的线程数（共享同一个 ORT 会话）
+    public int asyncQueueSize = 64; // runAsync 每个线程池的等待队列长度，队列满时返回失败的 future
 
     public String getModelPath() {
         return modelPath;
@@ -47,4 +79,260 @@ public class TableConfig {
     public void setUseArena(boolean useArena) {
         this.useArena = useArena;
     }
+
+    public int getIntraOpNumThreads() {
+        return intraOpNumThreads;
+    }
+
+    public void setIntraOpNumThreads(int intraOpNumThreads) {
+        this.intraOpNumThreads = intraOpNumThreads;
+    }
+
+    public int getInterOpNumThreads() {
+        return interOpNumThreads;
+    }
+
+    public void setInterOpNumThreads(int interOpNumThreads) {
+        this.interOpNumThreads = interOpNumThreads;
+    }
+
+    public boolean isUint8Input() {
+        return uint8Input;
+    }
+
+    public void setUint8Input(boolean uint8Input) {
+        this.uint8Input = uint8Input;
+    }
+
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    public void setInputSize(int inputSize) {
+        this.inputSize = inputSize;
+    }
+
+    public boolean isAdaptiveInputSize() {
+        return adaptiveInputSize;
+    }
+
+    public void setAdaptiveInputSize(boolean adaptiveInputSize) {
+        this.adaptiveInputSize = adaptiveInputSize;
+    }
+
+    public int getMinInputSize() {
+        return minInputSize;
+    }
+
+    public void setMinInputSize(int minInputSize) {
+        this.minInputSize = minInputSize;
+    }
+
+    public boolean isDetectTableRegion() {
+        return detectTableRegion;
+    }
+
+    public void setDetectTableRegion(boolean detectTableRegion) {
+        this.detectTableRegion = detectTableRegion;
+    }
+
+    public boolean isTiledInference() {
+        return tiledInference;
+    }
+
+    public void setTiledInference(boolean tiledInference) {
+        this.tiledInference = tiledInference;
+    }
+
+    public float getTileTriggerRatio() {
+        return tileTriggerRatio;
+    }
+
+    public void setTileTriggerRatio(float tileTriggerRatio) {
+        this.tileTriggerRatio = tileTriggerRatio;
+    }
+
+    public float getTileHeightRatio() {
+        return tileHeightRatio;
+    }
+
+    public void setTileHeightRatio(float tileHeightRatio) {
+        this.tileHeightRatio = tileHeightRatio;
+    }
+
+    public float getTileOverlapRatio() {
+        return tileOverlapRatio;
+    }
+
+    public void setTileOverlapRatio(float tileOverlapRatio) {
+        this.tileOverlapRatio = tileOverlapRatio;
+    }
+
+    public int getTileThreads() {
+        return tileThreads;
+    }
+
+    public void setTileThreads(int tileThreads) {
+        this.tileThreads = tileThreads;
+    }
+
+    public boolean isWiredFastPath() {
+        return wiredFastPath;
+    }
+
+    public void setWiredFastPath(boolean wiredFastPath) {
+        this.wiredFastPath = wiredFastPath;
+    }
+
+    public boolean isTableClassifier() {
+        return tableClassifier;
+    }
+
+    public void setTableClassifier(boolean tableClassifier) {
+        this.tableClassifier = tableClassifier;
+    }
+
+    public double getTableClassifierThreshold() {
+        return tableClassifierThreshold;
+    }
+
+    public void setTableClassifierThreshold(double tableClassifierThreshold) {
+        this.tableClassifierThreshold = tableClassifierThreshold;
+    }
+
+    public boolean isStructureCache() {
+        return structureCache;
+    }
+
+    public void setStructureCache(boolean structureCache) {
+        this.structureCache = structureCache;
+    }
+
+    public int getStructureCacheSize() {
+        return structureCacheSize;
+    }
+
+    public void setStructureCacheSize(int structureCacheSize) {
+        this.structureCacheSize = structureCacheSize;
+    }
+
+    public long getStructureCacheTtlSeconds() {
+        return structureCacheTtlSeconds;
+    }
+
+    public void setStructureCacheTtlSeconds(long structureCacheTtlSeconds) {
+        this.structureCacheTtlSeconds = structureCacheTtlSeconds;
+    }
+
+    public boolean isTemplateCache() {
+        return templateCache;
+    }
+
+    public void setTemplateCache(boolean templateCache) {
+        this.templateCache = templateCache;
+    }
+
+    public int getTemplateCacheSize() {
+        return templateCacheSize;
+    }
+
+    public void setTemplateCacheSize(int templateCacheSize) {
+        this.templateCacheSize = templateCacheSize;
+    }
+
+    public double getTemplateCacheThreshold() {
+        return templateCacheThreshold;
+    }
+
+    public void setTemplateCacheThreshold(double templateCacheThreshold) {
+        this.templateCacheThreshold = templateCacheThreshold;
+    }
+
+    public String getStructureStorePath() {
+        return structureStorePath;
+    }
+
+    public void setStructureStorePath(String structureStorePath) {
+        this.structureStorePath = structureStorePath;
+    }
+
+    public int getStructureStoreSegmentMb() {
+        return structureStoreSegmentMb;
+    }
+
+    public void setStructureStoreSegmentMb(int structureStoreSegmentMb) {
+        this.structureStoreSegmentMb = structureStoreSegmentMb;
+    }
+
+    public String getOrtProfileDir() {
+        return ortProfileDir;
+    }
+
+    public void setOrtProfileDir(String ortProfileDir) {
+        this.ortProfileDir = ortProfileDir;
+    }
+
+    public double getOrtProfileSampleRate() {
+        return ortProfileSampleRate;
+    }
+
+    public void setOrtProfileSampleRate(double ortProfileSampleRate) {
+        this.ortProfileSampleRate = ortProfileSampleRate;
+    }
+
+    public int getOrtProfileRunsPerFile() {
+        return ortProfileRunsPerFile;
+    }
+
+    public void setOrtProfileRunsPerFile(int ortProfileRunsPerFile) {
+        this.ortProfileRunsPerFile = ortProfileRunsPerFile;
+    }
+
+    public String getSlowRequestDir() {
+        return slowRequestDir;
+    }
+
+    public void setSlowRequestDir(String slowRequestDir) {
+        this.slowRequestDir = slowRequestDir;
+    }
+
+    public long getSlowRequestThresholdMs() {
+        return slowRequestThresholdMs;
+    }
+
+    public void setSlowRequestThresholdMs(long slowRequestThresholdMs) {
+        this.slowRequestThresholdMs = slowRequestThresholdMs;
+    }
+
+    public int getSlowRequestMaxCases() {
+        return slowRequestMaxCases;
+    }
+
+    public void setSlowRequestMaxCases(int slowRequestMaxCases) {
+        this.slowRequestMaxCases = slowRequestMaxCases;
+    }
+
+    public int getAsyncLoadThreads() {
+        return asyncLoadThreads;
+    }
+
+    public void setAsyncLoadThreads(int asyncLoadThreads) {
+        this.asyncLoadThreads = asyncLoadThreads;
+    }
+
+    public int getAsyncInferThreads() {
+        return asyncInferThreads;
+    }
+
+    public void setAsyncInferThreads(int asyncInferThreads) {
+        this.asyncInferThreads = asyncInferThreads;
+    }
+
+    public int getAsyncQueueSize() {
+        return asyncQueueSize;
+    }
+
+    public void setAsyncQueueSize(int asyncQueueSize) {
+        this.asyncQueueSize = asyncQueueSize;
+    }
 }
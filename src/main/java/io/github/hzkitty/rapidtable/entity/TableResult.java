@@ -1,64 +1,313 @@
 package io.github.hzkitty.rapidtable.entity;
 
+import io.github.hzkitty.entity.Pair;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
+/**
+ * 表格识别结果
+ * <p>
+ * 单元格框与逻辑坐标分别压缩存储在一个 float[]、int[] 中；首次调用列表形式的 getter 时展开为列表并缓存，
+ * 之后以该列表为准（对列表及其中数组的修改可见），压缩数组按需重新生成。
+ * <p>
+ * HTML、单元格列表、逻辑坐标和 toString 在首次访问时才计算，计算后缓存并释放计算所需的 OCR 框、文本等输入；
+ * HTML 与单元格列表在同一次匹配中生成。匹配中的异常在首次调用 {@link #getHtmlStr()} 或 {@link #getCells()}
+ * 时抛出，之后的调用抛出同一异常。
+ */
 public class TableResult {
 
+    // 每个逻辑坐标的元素个数 [row_start, row_end, col_start, col_end]
+    private static final int LOGIC_STRIDE = 4;
+
     private String htmlStr;
+    // HTML 已由 setHtmlStr 指定，匹配只用于生成单元格列表
+    private boolean htmlOverridden;
+    // 单元格列表（行列、框、文本），由旧构造函数创建时为 null，getCells 返回空列表
+    private List<TableCell> cells;
+    // 未执行的匹配，生成 (HTML, 单元格列表)，执行后（无论成功与否）置为 null
+    private Supplier<Pair<String, List<TableCell>>> matchSupplier;
+    // 匹配抛出的异常，之后的访问重新抛出
+    private RuntimeException matchFailure;
 
-    private List<float[]> cellBoxes;
+    // 单元格框，按 boxStride 个坐标一组依次存放；cellBoxList 不为 null 时以其为准
+    private float[] boxes;
+    private int boxStride;
+    // getCellBoxes 返回的列表，首次调用时展开
+    private List<float[]> cellBoxList;
 
-    private List<int[]> logicPoints;
+    // 逻辑坐标，按 LOGIC_STRIDE 个一组依次存放；为 null 且 logicSupplier、logicPointList 为 null 时表示没有逻辑坐标
+    private int[] logicPoints;
+    // 未计算的逻辑坐标，计算后置为 null
+    private Supplier<List<int[]>> logicSupplier;
+    // getLogicPoints 返回的列表，首次调用时展开
+    private List<int[]> logicPointList;
 
+    // 从开始识别到返回结果的耗时（秒），不含延迟计算的匹配、HTML 与逻辑坐标
     private double elapse;
 
+    // 跳过推理时的原因，正常推理时为 null
+    private TableSkipReason skipReason;
+
+    // 分阶段耗时，由旧构造函数创建时为 null
+    private TableTimings timings;
+
+    // toString 的缓存
+    private String rendered;
+
     public TableResult(String htmlStr, List<float[]> cellBoxes, List<int[]> logicPoints, double elapse) {
         this.htmlStr = htmlStr;
-        this.cellBoxes = cellBoxes;
-        this.logicPoints = logicPoints;
+        setCellBoxes(cellBoxes);
+        setLogicPoints(logicPoints);
+        this.elapse = elapse;
+    }
+
+    /**
+     * HTML、单元格列表与逻辑坐标延迟计算的结果
+     *
+     * @param matchSupplier 首次调用 {@link #getHtmlStr()} 或 {@link #getCells()} 时执行，返回 (HTML, 单元格列表)
+     * @param logicSupplier 首次调用 {@link #getLogicPoints()} 时执行，可为 null
+     */
+    public TableResult(Supplier<Pair<String, List<TableCell>>> matchSupplier, List<float[]> cellBoxes,
+                       Supplier<List<int[]>> logicSupplier, double elapse) {
+        this.matchSupplier = matchSupplier;
+        setCellBoxes(cellBoxes);
+        this.logicSupplier = logicSupplier;
+        this.elapse = elapse;
+    }
+
+    /**
+     * 单元格框已压缩存储的结果，用于反序列化，packedBoxes 直接作为内部数组使用
+     *
+     * @param boxStride 每个单元格框的坐标个数
+     */
+    public TableResult(Supplier<Pair<String, List<TableCell>>> matchSupplier, float[] packedBoxes, int boxStride,
+                       Supplier<List<int[]>> logicSupplier, double elapse) {
+        this.matchSupplier = matchSupplier;
+        this.boxes = packedBoxes;
+        this.boxStride = boxStride;
+        this.logicSupplier = logicSupplier;
         this.elapse = elapse;
     }
 
-    public String getHtmlStr() {
+    public synchronized String getHtmlStr() {
+        if (!htmlOverridden) {
+            materializeMatch();
+        }
         return htmlStr;
     }
 
-    public void setHtmlStr(String htmlStr) {
+    /**
+     * 替换 HTML，不触发匹配；尚未执行的匹配保留，之后只用于生成单元格列表
+     */
+    public synchronized void setHtmlStr(String htmlStr) {
         this.htmlStr = htmlStr;
+        this.htmlOverridden = true;
+        this.rendered = null;
+    }
+
+    /**
+     * 单元格列表，顺序与 HTML 中的 td 一致；由不含单元格信息的构造函数创建时为空列表
+     */
+    public synchronized List<TableCell> getCells() {
+        materializeMatch();
+        return cells != null ? cells : Collections.emptyList();
+    }
+
+    private void materializeMatch() {
+        if (matchFailure != null) {
+            throw matchFailure;
+        }
+        if (matchSupplier != null) {
+            Supplier<Pair<String, List<TableCell>>> supplier = matchSupplier;
+            matchSupplier = null;
+            Pair<String, List<TableCell>> match;
+            try {
+                match = supplier.get();
+            } catch (RuntimeException e) {
+                matchFailure = e;
+                throw e;
+            }
+            if (!htmlOverridden) {
+                htmlStr = match.getLeft();
+            }
+            cells = match.getRight() == null ? null : Collections.unmodifiableList(match.getRight());
+        }
+    }
+
+    /**
+     * 单元格框列表，首次调用时展开并缓存，之后每次返回同一列表
+     */
+    public synchronized List<float[]> getCellBoxes() {
+        if (cellBoxList == null) {
+            List<float[]> list = new ArrayList<>(getCellCount());
+            for (int i = 0; i < getCellCount(); i++) {
+                list.add(Arrays.copyOfRange(boxes, i * boxStride, (i + 1) * boxStride));
+            }
+            cellBoxList = list;
+            boxes = null;
+        }
+        return cellBoxList;
+    }
+
+    public synchronized void setCellBoxes(List<float[]> cellBoxes) {
+        packBoxes(cellBoxes);
+        this.cellBoxList = null;
+        this.rendered = null;
+    }
+
+    private void packBoxes(List<float[]> cellBoxes) {
+        int stride = 0;
+        if (cellBoxes != null) {
+            for (float[] box : cellBoxes) {
+                stride = Math.max(stride, box.length);
+            }
+        }
+        float[] packed = new float[cellBoxes == null ? 0 : cellBoxes.size() * stride];
+        for (int i = 0; cellBoxes != null && i < cellBoxes.size(); i++) {
+            float[] box = cellBoxes.get(i);
+            System.arraycopy(box, 0, packed, i * stride, box.length);
+        }
+        this.boxes = packed;
+        this.boxStride = stride;
+    }
+
+    /**
+     * 压缩存储的单元格框，按 {@link #getBoxStride()} 个坐标一组；未展开为列表时返回内部数组，请勿修改
+     */
+    public synchronized float[] getPackedCellBoxes() {
+        if (cellBoxList != null) {
+            // 列表可能已被修改，重新压缩
+            packBoxes(cellBoxList);
+            float[] packed = boxes;
+            boxes = null;
+            return packed;
+        }
+        return boxes;
     }
 
-    public List<float[]> getCellBoxes() {
-        return cellBoxes;
+    /**
+     * 每个单元格框的坐标个数（4 或 8）
+     */
+    public synchronized int getBoxStride() {
+        if (cellBoxList != null) {
+            int stride = 0;
+            for (float[] box : cellBoxList) {
+                stride = Math.max(stride, box.length);
+            }
+            return stride;
+        }
+        return boxStride;
     }
 
-    public void setCellBoxes(List<float[]> cellBoxes) {
-        this.cellBoxes = cellBoxes;
+    public synchronized int getCellCount() {
+        if (cellBoxList != null) {
+            return cellBoxList.size();
+        }
+        return boxStride == 0 ? 0 : boxes.length / boxStride;
     }
 
-    public List<int[]> getLogicPoints() {
+    /**
+     * 逻辑坐标列表 [row_start, row_end, col_start, col_end]，首次调用时展开并缓存；没有逻辑坐标时为 null
+     */
+    public synchronized List<int[]> getLogicPoints() {
+        if (logicPointList == null) {
+            int[] packed = getPackedLogicPoints();
+            if (packed == null) {
+                return null;
+            }
+            List<int[]> list = new ArrayList<>(packed.length / LOGIC_STRIDE);
+            for (int i = 0; i < packed.length; i += LOGIC_STRIDE) {
+                list.add(Arrays.copyOfRange(packed, i, i + LOGIC_STRIDE));
+            }
+            logicPointList = list;
+            logicPoints = null;
+        }
+        return logicPointList;
+    }
+
+    /**
+     * 压缩存储的逻辑坐标，每 4 个一组；未展开为列表时返回内部数组，请勿修改
+     */
+    public synchronized int[] getPackedLogicPoints() {
+        if (logicPointList != null) {
+            // 列表可能已被修改，重新压缩
+            return pack(logicPointList);
+        }
+        if (logicSupplier != null) {
+            logicPoints = pack(logicSupplier.get());
+            logicSupplier = null;
+        }
         return logicPoints;
     }
 
-    public void setLogicPoints(List<int[]> logicPoints) {
-        this.logicPoints = logicPoints;
+    public synchronized void setLogicPoints(List<int[]> logicPoints) {
+        this.logicPoints = pack(logicPoints);
+        this.logicSupplier = null;
+        this.logicPointList = null;
+        this.rendered = null;
+    }
+
+    public synchronized TableSkipReason getSkipReason() {
+        return skipReason;
     }
 
-    public double getElapse() {
+    public synchronized void setSkipReason(TableSkipReason skipReason) {
+        this.skipReason = skipReason;
+        this.rendered = null;
+    }
+
+    /**
+     * 分阶段耗时（纳秒），延迟计算的阶段在首次访问对应数据后才计入
+     */
+    public synchronized TableTimings getTimings() {
+        return timings;
+    }
+
+    public synchronized void setTimings(TableTimings timings) {
+        this.timings = timings;
+    }
+
+    /**
+     * 从开始识别到返回结果的耗时（秒）。匹配、HTML 与逻辑坐标延迟计算，不计入该值，
+     * 完整的分阶段耗时见 {@link #getTimings()}
+     */
+    public synchronized double getElapse() {
         return elapse;
     }
 
-    public void setElapse(double elapse) {
+    public synchronized void setElapse(double elapse) {
         this.elapse = elapse;
+        this.rendered = null;
+    }
+
+    private static int[] pack(List<int[]> points) {
+        if (points == null) {
+            return null;
+        }
+        int[] packed = new int[points.size() * LOGIC_STRIDE];
+        for (int i = 0; i < points.size(); i++) {
+            int[] point = points.get(i);
+            System.arraycopy(point, 0, packed, i * LOGIC_STRIDE, Math.min(LOGIC_STRIDE, point.length));
+        }
+        return packed;
     }
 
     @Override
-    public String toString() {
-        return "TableResult{" +
-                "htmlStr='" + htmlStr + '\'' +
-                ", cellBoxes=" + (cellBoxes != null ? Arrays.deepToString(cellBoxes.toArray()) : "null") +
-                ", logicPoints=" + (logicPoints != null ? Arrays.deepToString(logicPoints.toArray()) : "null") +
-                ", elapse=" + elapse +
-                '}';
-    }
-}
\ No newline at end of file
+    public synchronized String toString() {
+        if (rendered == null) {
+            List<int[]> logic = getLogicPoints();
+            rendered = "TableResult{" +
+                    "htmlStr='" + getHtmlStr() + '\'' +
+                    ", cellBoxes=" + Arrays.deepToString(getCellBoxes().toArray()) +
+                    ", logicPoints=" + (logic != null ? Arrays.deepToString(logic.toArray()) : "null") +
+                    ", elapse=" + elapse +
+                    (skipReason != null ? ", skipReason=" + skipReason.getCode() : "") +
+                    '}';
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.hzkitty.rapidtable.entity;
+
+/**
+ * 跳过结构推理、返回空结果的原因
+ */
+public enum TableSkipReason {
+
+    NO_TEXT("no_text"), // 既没有 OCR 文本也没有表格线
+    LOW_TABLENESS("low_tableness"), // 表格度低于阈值
+    NO_TABLE_REGION("no_table_region"); // 区域检测未找到表格
+
+    private final String code;
+
+    TableSkipReason(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+}
@@ -0,0 +1,32 @@
+package io.github.hzkitty.rapidtable.entity;
+
+/**
+ * 流水线阶段，用于分阶段计时
+ */
+public enum TableStage {
+
+    LOAD("load"), // 图像加载
+    OCR("ocr"), // 组合流水线中的 OCR（并行模式下与结构推理重叠）
+    OCR_PARSE("ocr_parse"), // OCR 结果解析为文本框
+    PREPROCESS("preprocess"), // 缩放、归一化、填充
+    TENSOR_BUILD("tensor_build"), // 构造 batch 输入与 OnnxTensor
+    ORT_RUN("ort_run"), // OrtSession.run 及输出拷贝
+    LABEL_DECODE("label_decode"), // token 与 bbox 解码
+    BOX_ADAPT("box_adapt"), // slanet-plus 坐标缩放
+    OCR_FILTER("ocr_filter"), // 过滤表格外的 OCR 结果
+    MATCH("match"), // OCR 文本框与单元格匹配
+    HTML("html"), // HTML 拼接
+    CELLS("cells"), // 单元格列表组装
+    LOGIC_POINTS("logic_points"); // 逻辑坐标解码
+
+    private final String code;
+
+    TableStage(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+}
@@ -0,0 +1,102 @@
+package io.github.hzkitty.rapidtable.entity;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 表格结构推理结果，与 OCR 无关，可缓存、序列化，并与不同的 OCR 结果重复匹配
+ * <p>
+ * 不可变：构造时复制传入的数据，获取坐标时返回副本
+ */
+public final class TableStructure implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // 结构 token 序列，含 <html><body><table> 包裹
+    private final List<String> tokens;
+    // 单元格框（4 点或 8 点），原图坐标，与 td token 一一对应
+    private final List<float[]> cellBoxes;
+    // 结构 token 的平均置信度，非模型推理（如有线表格快速路径）时为 1
+    private final float score;
+    // 逻辑坐标 [row_start, row_end, col_start, col_end]，未解码时为 null
+    private final List<int[]> logicPoints;
+    // 推理时的图像尺寸，匹配时用于裁剪 OCR 文本框
+    private final int imageWidth;
+    private final int imageHeight;
+
+    public TableStructure(List<String> tokens, List<float[]> cellBoxes, float score, List<int[]> logicPoints,
+                          int imageWidth, int imageHeight) {
+        this.tokens = Collections.unmodifiableList(new ArrayList<>(tokens));
+        this.cellBoxes = Collections.unmodifiableList(copyFloats(cellBoxes));
+        this.score = score;
+        this.logicPoints = logicPoints == null ? null : Collections.unmodifiableList(copyInts(logicPoints));
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+    }
+
+    /**
+     * 返回带逻辑坐标的新结构
+     */
+    public TableStructure withLogicPoints(List<int[]> logicPoints) {
+        return new TableStructure(this.tokens, this.cellBoxes, this.score, logicPoints, this.imageWidth, this.imageHeight);
+    }
+
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    public List<float[]> getCellBoxes() {
+        return copyFloats(cellBoxes);
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    public List<int[]> getLogicPoints() {
+        return logicPoints == null ? null : copyInts(logicPoints);
+    }
+
+    public int getImageWidth() {
+        return imageWidth;
+    }
+
+    public int getImageHeight() {
+        return imageHeight;
+    }
+
+    public int getCellCount() {
+        return cellBoxes.size();
+    }
+
+    private static List<float[]> copyFloats(List<float[]> boxes) {
+        List<float[]> copy = new ArrayList<>(boxes.size());
+        for (float[] box : boxes) {
+            copy.add(box.clone());
+        }
+        return copy;
+    }
+
+    private static List<int[]> copyInts(List<int[]> points) {
+        List<int[]> copy = new ArrayList<>(points.size());
+        for (int[] point : points) {
+            copy.add(point.clone());
+        }
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "TableStructure{" +
+                "tokens=" + String.join("", tokens) +
+                ", cellBoxes=" + Arrays.deepToString(cellBoxes.toArray()) +
+                ", score=" + score +
+                ", logicPoints=" + (logicPoints != null ? Arrays.deepToString(logicPoints.toArray()) : "null") +
+                ", imageWidth=" + imageWidth +
+                ", imageHeight=" + imageHeight +
+                '}';
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.hzkitty.rapidtable.entity;
+
+/**
+ * 识别超过截止时间时抛出
+ * <p>
+ * 排队中已超时的请求在加载或推理前直接丢弃；推理中的请求通过 ORT RunOptions 终止；匹配循环定期检查截止时间。
+ */
+public class TableTimeoutException extends RuntimeException {
+
+    // 检测到超时的阶段，调用方等待超时（任务仍在排队）时为 null
+    private final TableStage stage;
+
+    public TableTimeoutException(TableStage stage) {
+        this(stage, null);
+    }
+
+    public TableTimeoutException(TableStage stage, Throwable cause) {
+        super(stage == null ? "识别超时" : "识别超时，阶段: " + stage.getCode(), cause);
+        this.stage = stage;
+    }
+
+    public TableStage getStage() {
+        return stage;
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.hzkitty.rapidtable.entity;
+
+import io.github.hzkitty.rapidtable.TableMetricsListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 一次识别的分阶段耗时（System.nanoTime），同一阶段多次执行时累加
+ * <p>
+ * 线程安全；匹配、HTML、逻辑坐标在结果首次访问时才计算，对应耗时随之写入。
+ * <p>
+ * 计时器随一次识别传递到推理与匹配，同时携带该次识别的截止时间（见 {@link #setTimeout(long)}）。
+ */
+public final class TableTimings {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableTimings.class);
+
+    private static final TableStage[] STAGES = TableStage.values();
+
+    private final AtomicLongArray nanos = new AtomicLongArray(STAGES.length);
+    // 每个阶段完成时回调，可为 null
+    private final TableMetricsListener listener;
+    // 截止时间 System.nanoTime()，hasDeadline 为 false 时不限
+    private volatile long deadlineNanos;
+    private volatile boolean hasDeadline;
+
+    public TableTimings() {
+        this(null);
+    }
+
+    public TableTimings(TableMetricsListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 记录从 startNanos 到当前的耗时
+     *
+     * @param startNanos 阶段开始时的 System.nanoTime()
+     */
+    public void record(TableStage stage, long startNanos) {
+        add(stage, System.nanoTime() - startNanos);
+    }
+
+    public void add(TableStage stage, long elapsedNanos) {
+        nanos.addAndGet(stage.ordinal(), elapsedNanos);
+        if (listener != null) {
+            try {
+                listener.onStage(stage, elapsedNanos);
+            } catch (RuntimeException e) {
+                logger.warn("TableMetricsListener.onStage failed", e);
+            }
+        }
+    }
+
+    /**
+     * 设置截止时间，超时后在下一个检查点抛出 {@link TableTimeoutException}
+     *
+     * @param timeoutNanos 从现在起的超时时间（纳秒），<= 0 表示不限
+     */
+    public void setTimeout(long timeoutNanos) {
+        if (timeoutNanos <= 0) {
+            this.hasDeadline = false;
+            return;
+        }
+        this.deadlineNanos = System.nanoTime() + timeoutNanos;
+        this.hasDeadline = true;
+    }
+
+    public boolean hasDeadline() {
+        return hasDeadline;
+    }
+
+    /**
+     * 距截止时间的剩余纳秒数（已超时时 <= 0），未设置截止时间时为 Long.MAX_VALUE
+     */
+    public long getRemainingNanos() {
+        return hasDeadline ? deadlineNanos - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * 已超过截止时间时抛出 {@link TableTimeoutException}
+     *
+     * @param stage 当前（或即将开始的）阶段
+     */
+    public void checkDeadline(TableStage stage) {
+        if (hasDeadline && deadlineNanos - System.nanoTime() <= 0) {
+            throw new TableTimeoutException(stage);
+        }
+    }
+
+    public long getNanos(TableStage stage) {
+        return nanos.get(stage.ordinal());
+    }
+
+    public double getMillis(TableStage stage) {
+        return getNanos(stage) / 1_000_000.0;
+    }
+
+    /**
+     * 所有阶段的耗时之和（纳秒）
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (int i = 0; i < STAGES.length; i++) {
+            total += nanos.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * 已记录的阶段及耗时（纳秒），按阶段顺序
+     */
+    public Map<TableStage, Long> toMap() {
+        Map<TableStage, Long> map = new EnumMap<>(TableStage.class);
+        for (TableStage stage : STAGES) {
+            long value = nanos.get(stage.ordinal());
+            if (value != 0) {
+                map.put(stage, value);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("TableTimings{");
+        boolean first = true;
+        for (Map.Entry<TableStage, Long> entry : toMap().entrySet()) {
+            if (!first) {
+                sb.append(", ");
+            }
+            sb.append(entry.getKey().getCode()).append('=').append(String.format("%.3fms", entry.getValue() / 1_000_000.0));
+            first = false;
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.hzkitty.rapidtable.tabledetector;
+
+import io.github.hzkitty.rapidtable.entity.TableSkipReason;
+import org.opencv.core.*;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 表格/非表格的轻量预判，在结构推理前过滤掉不含表格的图像
+ * <p>
+ * 综合两类信号计算"表格度"：
+ * 1. 文本排布：OCR 文本框是否成行成列（多列文本行占比、列对齐占比）
+ * 2. 线条密度：缩小后的图像中横线、竖线像素的占比
+ */
+public class TableClassifier {
+
+    // 线条检测使用的最大边长
+    private static final int MAX_SIDE = 512;
+    // 线条像素占比达到该值时，线条得分为 1
+    private static final double FULL_LINE_DENSITY = 0.01;
+
+    // 表格度阈值，低于该值判定为非表格
+    private final double threshold;
+
+    public TableClassifier(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * 判断是否需要跳过结构推理
+     *
+     * @param img     图像
+     * @param dtBoxes OCR 文本框 [x0, y0, x1, y1]
+     * @return 跳过原因；判定为表格时返回 null
+     */
+    public TableSkipReason check(Mat img, List<float[]> dtBoxes) {
+        double lineScore = lineScore(img);
+        if ((dtBoxes == null || dtBoxes.isEmpty()) && lineScore == 0) {
+            return TableSkipReason.NO_TEXT;
+        }
+        double score = Math.max(lineScore, textScore(dtBoxes));
+        return score < threshold ? TableSkipReason.LOW_TABLENESS : null;
+    }
+
+    /**
+     * 文本排布得分 [0, 1]
+     */
+    double textScore(List<float[]> dtBoxes) {
+        if (dtBoxes == null || dtBoxes.size() < 4) {
+            return 0;
+        }
+        List<TextLine> lines = TextLine.group(dtBoxes);
+
+        // 1. 位于多列文本行中的文本框占比
+        int multiColumnBoxes = 0;
+        List<TextLine> multiLines = new ArrayList<>();
+        float heightSum = 0;
+        for (TextLine line : lines) {
+            heightSum += line.height();
+            if (line.size() >= 2) {
+                multiColumnBoxes += line.size();
+                multiLines.add(line);
+            }
+        }
+        double multiRatio = (double) multiColumnBoxes / dtBoxes.size();
+        if (multiLines.size() < 2) {
+            return 0.5 * multiRatio;
+        }
+
+        // 2. 多列文本行中，左边缘、中心或右边缘能与其它行对齐的文本框占比
+        float tolerance = Math.max(2f, heightSum / lines.size());
+        int aligned = 0;
+        for (int i = 0; i < multiLines.size(); i++) {
+            for (float[] box : multiLines.get(i).boxes()) {
+                if (alignsWithOtherLine(box, multiLines, i, tolerance)) {
+                    aligned++;
+                }
+            }
+        }
+        double alignedRatio = (double) aligned / multiColumnBoxes;
+        return 0.5 * multiRatio + 0.5 * alignedRatio;
+    }
+
+    /**
+     * 线条得分 [0, 1]，需同时存在横线和竖线
+     */
+    double lineScore(Mat img) {
+        int h = img.rows();
+        int w = img.cols();
+        double scale = Math.min(1.0, (double) MAX_SIDE / Math.max(h, w));
+
+        Mat gray = new Mat();
+        if (img.channels() == 3) {
+            Imgproc.cvtColor(img, gray, Imgproc.COLOR_BGR2GRAY);
+        } else {
+            img.copyTo(gray);
+        }
+        if (scale < 1.0) {
+            Imgproc.resize(gray, gray, new Size(Math.round(w * scale), Math.round(h * scale)), 0, 0, Imgproc.INTER_AREA);
+        }
+        Mat binary = new Mat();
+        Imgproc.adaptiveThreshold(gray, binary, 255, Imgproc.ADAPTIVE_THRESH_MEAN_C, Imgproc.THRESH_BINARY_INV, 15, 10);
+        Mat[] lines = TableRegionDetector.extractLines(binary);
+        int horizontal = Core.countNonZero(lines[0]);
+        int vertical = Core.countNonZero(lines[1]);
+        if (horizontal == 0 || vertical == 0) {
+            return 0;
+        }
+        double density = (double) (horizontal + vertical) / (binary.rows() * binary.cols());
+        return Math.min(1.0, density / FULL_LINE_DENSITY);
+    }
+
+    private static boolean alignsWithOtherLine(float[] box, List<TextLine> lines, int self, float tolerance) {
+        float left = box[0];
+        float right = box[2];
+        float center = (box[0] + box[2]) / 2;
+        for (int j = 0; j < lines.size(); j++) {
+            if (j == self) {
+                continue;
+            }
+            for (float[] other : lines.get(j).boxes()) {
+                if (Math.abs(other[0] - left) <= tolerance
+                        || Math.abs(other[2] - right) <= tolerance
+                        || Math.abs((other[0] + other[2]) / 2 - center) <= tolerance) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
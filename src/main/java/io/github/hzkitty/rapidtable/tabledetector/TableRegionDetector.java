@@ -0,0 +1,225 @@
+package io.github.hzkitty.rapidtable.tabledetector;
+
+import org.opencv.core.*;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 表格区域检测：在结构推理之前定位页面中的表格区域
+ * <p>
+ * 1. 有线表格：OpenCV 形态学提取横线、竖线，取网格连通区域
+ * 2. 无线表格：OCR 文本框按行聚类，连续的多列文本行视为一个表格
+ * 两类候选区域合并后返回，按从上到下排序
+ */
+public class TableRegionDetector {
+
+    // 形态学处理前的最大边长，大图先缩小以加速
+    private static final int LINE_DETECT_MAX_SIDE = 1200;
+
+    // 区域最小面积占页面的比例
+    private final double minAreaRatio;
+    // 区域向外扩展的像素
+    private final int margin;
+    // 无线表格至少需要的多列文本行数
+    private final int minTextRows;
+
+    public TableRegionDetector() {
+        this(0.01, 8, 2);
+    }
+
+    public TableRegionDetector(double minAreaRatio, int margin, int minTextRows) {
+        this.minAreaRatio = minAreaRatio;
+        this.margin = margin;
+        this.minTextRows = minTextRows;
+    }
+
+    /**
+     * 检测表格区域
+     *
+     * @param img     页面图像
+     * @param dtBoxes OCR 文本框 [x0, y0, x1, y1]，可为空
+     * @return 表格区域列表，按从上到下排序；页面中没有表格时为空列表
+     */
+    public List<Rect> detect(Mat img, List<float[]> dtBoxes) {
+        int h = img.rows();
+        int w = img.cols();
+
+        List<Rect> candidates = new ArrayList<>(detectByLines(img));
+        if (dtBoxes != null && !dtBoxes.isEmpty()) {
+            candidates.addAll(detectByTextLayout(dtBoxes));
+        }
+
+        // 合并相交区域，过滤过小区域，扩展边距
+        List<Rect> merged = mergeOverlapping(candidates);
+        double minArea = minAreaRatio * h * w;
+        List<Rect> regions = new ArrayList<>();
+        for (Rect rect : merged) {
+            if ((double) rect.width * rect.height < minArea) {
+                continue;
+            }
+            int x0 = Math.max(0, rect.x - margin);
+            int y0 = Math.max(0, rect.y - margin);
+            int x1 = Math.min(w, rect.x + rect.width + margin);
+            int y1 = Math.min(h, rect.y + rect.height + margin);
+            regions.add(new Rect(x0, y0, x1 - x0, y1 - y0));
+        }
+        regions.sort(Comparator.comparingInt((Rect r) -> r.y).thenComparingInt(r -> r.x));
+        return regions;
+    }
+
+    /**
+     * 通过横线、竖线定位有线表格
+     */
+    List<Rect> detectByLines(Mat img) {
+        int h = img.rows();
+        int w = img.cols();
+        double scale = Math.min(1.0, (double) LINE_DETECT_MAX_SIDE / Math.max(h, w));
+
+        Mat gray = new Mat();
+        if (img.channels() == 3) {
+            Imgproc.cvtColor(img, gray, Imgproc.COLOR_BGR2GRAY);
+        } else {
+            img.copyTo(gray);
+        }
+        if (scale < 1.0) {
+            Imgproc.resize(gray, gray, new Size(Math.round(w * scale), Math.round(h * scale)), 0, 0, Imgproc.INTER_AREA);
+        }
+
+        Mat binary = new Mat();
+        Imgproc.adaptiveThreshold(gray, binary, 255, Imgproc.ADAPTIVE_THRESH_MEAN_C, Imgproc.THRESH_BINARY_INV, 15, 10);
+
+        Mat[] lines = extractLines(binary);
+        Mat horizontal = lines[0];
+        Mat vertical = lines[1];
+
+        Mat grid = new Mat();
+        Core.bitwise_or(horizontal, vertical, grid);
+        Imgproc.dilate(grid, grid, Imgproc.getStructuringElement(Imgproc.MORPH_RECT, new Size(3, 3)));
+
+        List<MatOfPoint> contours = new ArrayList<>();
+        Imgproc.findContours(grid, contours, new Mat(), Imgproc.RETR_EXTERNAL, Imgproc.CHAIN_APPROX_SIMPLE);
+
+        List<Rect> rects = new ArrayList<>();
+        for (MatOfPoint contour : contours) {
+            Rect rect = Imgproc.boundingRect(contour);
+            // 单独的一条线不是表格：需要同时包含横线和竖线
+            if (rect.width < 20 || rect.height < 20) {
+                continue;
+            }
+            if (Core.countNonZero(horizontal.submat(rect)) == 0 || Core.countNonZero(vertical.submat(rect)) == 0) {
+                continue;
+            }
+            rects.add(new Rect(
+                    (int) Math.floor(rect.x / scale),
+                    (int) Math.floor(rect.y / scale),
+                    (int) Math.ceil(rect.width / scale),
+                    (int) Math.ceil(rect.height / scale)));
+        }
+        return rects;
+    }
+
+    /**
+     * 从二值图中提取横线和竖线
+     *
+     * @param binary 前景为 255 的二值图
+     * @return {横线, 竖线}
+     */
+    public static Mat[] extractLines(Mat binary) {
+        int hLen = Math.max(10, binary.cols() / 30);
+        int vLen = Math.max(10, binary.rows() / 30);
+
+        Mat horizontal = new Mat();
+        Imgproc.morphologyEx(binary, horizontal, Imgproc.MORPH_OPEN,
+                Imgproc.getStructuringElement(Imgproc.MORPH_RECT, new Size(hLen, 1)));
+        Mat vertical = new Mat();
+        Imgproc.morphologyEx(binary, vertical, Imgproc.MORPH_OPEN,
+                Imgproc.getStructuringElement(Imgproc.MORPH_RECT, new Size(1, vLen)));
+        return new Mat[]{horizontal, vertical};
+    }
+
+    /**
+     * 通过 OCR 文本框的行列排布定位无线表格
+     */
+    List<Rect> detectByTextLayout(List<float[]> dtBoxes) {
+        List<TextLine> lines = TextLine.group(dtBoxes);
+
+        List<Rect> rects = new ArrayList<>();
+        // block: 截止到最后一个多列行的区域；pending: 其后尚未确认的单列行
+        float[] block = null;
+        float[] pending = null;
+        int multiColumnRows = 0;
+        TextLine prev = null;
+        for (TextLine line : lines) {
+            boolean multiColumn = line.size() >= 2;
+            // 行间距过大，或连续两行单列时断开
+            boolean gapBreak = prev != null && line.y0 - prev.y1 > 2.5 * Math.max(line.height(), prev.height());
+            if (block != null && (gapBreak || (!multiColumn && pending != null))) {
+                if (multiColumnRows >= minTextRows) {
+                    rects.add(toRect(block));
+                }
+                block = null;
+                pending = null;
+                multiColumnRows = 0;
+            }
+            if (multiColumn) {
+                block = block == null ? line.bounds() : TextLine.union(block, line.bounds());
+                if (pending != null) {
+                    block = TextLine.union(block, pending);
+                    pending = null;
+                }
+                multiColumnRows++;
+            } else if (block != null) {
+                // 允许表格中间出现一行合并单元格
+                pending = line.bounds();
+            }
+            prev = line;
+        }
+        if (block != null && multiColumnRows >= minTextRows) {
+            rects.add(toRect(block));
+        }
+        return rects;
+    }
+
+    /**
+     * 合并相交的区域，直到没有相交为止
+     */
+    private List<Rect> mergeOverlapping(List<Rect> rects) {
+        List<Rect> result = new ArrayList<>(rects);
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            outer:
+            for (int i = 0; i < result.size(); i++) {
+                for (int j = i + 1; j < result.size(); j++) {
+                    Rect a = result.get(i);
+                    Rect b = result.get(j);
+                    if (intersects(a, b)) {
+                        int x0 = Math.min(a.x, b.x);
+                        int y0 = Math.min(a.y, b.y);
+                        int x1 = Math.max(a.x + a.width, b.x + b.width);
+                        int y1 = Math.max(a.y + a.height, b.y + b.height);
+                        result.set(i, new Rect(x0, y0, x1 - x0, y1 - y0));
+                        result.remove(j);
+                        merged = true;
+                        break outer;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean intersects(Rect a, Rect b) {
+        return a.x < b.x + b.width && b.x < a.x + a.width
+                && a.y < b.y + b.height && b.y < a.y + a.height;
+    }
+
+    private static Rect toRect(float[] box) {
+        int x0 = (int) Math.floor(box[0]);
+        int y0 = (int) Math.floor(box[1]);
+        return new Rect(x0, y0, (int) Math.ceil(box[2]) - x0, (int) Math.ceil(box[3]) - y0);
+    }
+}
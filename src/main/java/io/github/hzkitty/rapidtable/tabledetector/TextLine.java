@@ -0,0 +1,75 @@
+package io.github.hzkitty.rapidtable.tabledetector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 一行文本框，由 OCR 文本框按纵向重叠聚类得到
+ */
+class TextLine {
+    private final List<float[]> boxes = new ArrayList<>();
+    float y0;
+    float y1;
+
+    TextLine(float[] box) {
+        this.y0 = box[1];
+        this.y1 = box[3];
+        this.boxes.add(box);
+    }
+
+    /**
+     * 按纵向重叠将文本框 [x0, y0, x1, y1] 聚成文本行，从上到下排序
+     */
+    static List<TextLine> group(List<float[]> dtBoxes) {
+        List<float[]> sorted = new ArrayList<>(dtBoxes);
+        sorted.sort(Comparator.comparingDouble(b -> (b[1] + b[3]) / 2));
+
+        List<TextLine> lines = new ArrayList<>();
+        TextLine current = null;
+        for (float[] box : sorted) {
+            float boxH = box[3] - box[1];
+            if (current != null) {
+                float overlap = Math.min(current.y1, box[3]) - Math.max(current.y0, box[1]);
+                if (overlap > 0.5f * Math.min(current.height(), boxH)) {
+                    current.add(box);
+                    continue;
+                }
+            }
+            current = new TextLine(box);
+            lines.add(current);
+        }
+        return lines;
+    }
+
+    static float[] union(float[] a, float[] b) {
+        return new float[]{Math.min(a[0], b[0]), Math.min(a[1], b[1]), Math.max(a[2], b[2]), Math.max(a[3], b[3])};
+    }
+
+    void add(float[] box) {
+        this.boxes.add(box);
+        this.y0 = Math.min(this.y0, box[1]);
+        this.y1 = Math.max(this.y1, box[3]);
+    }
+
+    int size() {
+        return boxes.size();
+    }
+
+    List<float[]> boxes() {
+        return Collections.unmodifiableList(boxes);
+    }
+
+    float height() {
+        return y1 - y0;
+    }
+
+    float[] bounds() {
+        float[] bounds = null;
+        for (float[] box : boxes) {
+            bounds = bounds == null ? box : union(bounds, box);
+        }
+        return bounds;
+    }
+}
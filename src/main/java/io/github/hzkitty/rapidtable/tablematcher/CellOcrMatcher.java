@@ -0,0 +1,242 @@
+package io.github.hzkitty.rapidtable.tablematcher;
+
+import io.github.hzkitty.entity.Pair;
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 先结构后 OCR：只在预测的单元格所在行带内做 OCR
+ * <p>
+ * 1. 单元格框按纵向重叠聚成行带，行带裁剪后纵向拼成一张或多张拼图，OCR 一次处理一张拼图
+ * 2. OCR 文本框从拼图坐标映射回原图坐标，落在行带间隔中的文本框丢弃
+ * 3. 文本框按中心点直接归入单元格，不再经过 {@link TableMatch#matchResult}
+ */
+public class CellOcrMatcher {
+
+    // 拼图中行带之间的空白间隔，避免 OCR 把上下两行检测为同一个文本框
+    private static final int BAND_GAP = 16;
+    // 行带上下扩展的像素，避免贴边的文字被截断
+    private static final int BAND_MARGIN = 4;
+
+    // 单张拼图的最大高度，超过后另起一张，避免 OCR 检测时被整体缩小
+    private final int maxMosaicHeight;
+
+    public CellOcrMatcher() {
+        this(2000);
+    }
+
+    public CellOcrMatcher(int maxMosaicHeight) {
+        this.maxMosaicHeight = maxMosaicHeight;
+    }
+
+    /**
+     * 按单元格框生成行带拼图
+     *
+     * @param img       原图
+     * @param cellBoxes 单元格框（4 点或 8 点），原图坐标
+     * @return 拼图列表；没有单元格时为空列表
+     */
+    public List<Mosaic> buildMosaics(Mat img, List<float[]> cellBoxes) {
+        List<Rect> bands = planBands(cellBoxes, img.rows(), img.cols());
+        List<Mosaic> mosaics = new ArrayList<>();
+        int start = 0;
+        while (start < bands.size()) {
+            // 1. 收集能放进一张拼图的行带，至少放一个
+            int end = start;
+            int height = bands.get(start).height;
+            int width = bands.get(start).width;
+            while (end + 1 < bands.size() && height + BAND_GAP + bands.get(end + 1).height <= maxMosaicHeight) {
+                end++;
+                height += BAND_GAP + bands.get(end).height;
+                width = Math.max(width, bands.get(end).width);
+            }
+
+            // 2. 纵向拼接，背景填白
+            Mat image = new Mat(height, width, img.type(), new Scalar(255, 255, 255));
+            List<int[]> offsets = new ArrayList<>();
+            int y = 0;
+            for (int k = start; k <= end; k++) {
+                Rect band = bands.get(k);
+                img.submat(band).copyTo(image.submat(new Rect(0, y, band.width, band.height)));
+                // {拼图中的 y0, 拼图中的 y1, 原图 x 偏移, 原图 y 偏移}
+                offsets.add(new int[]{y, y + band.height, band.x, band.y - y});
+                y += band.height + BAND_GAP;
+            }
+            mosaics.add(new Mosaic(image, offsets));
+            start = end + 1;
+        }
+        return mosaics;
+    }
+
+    /**
+     * 将拼图上的 OCR 结果映射回原图坐标，并追加到 pageBoxes、pageRecs
+     *
+     * @param mosaic    拼图
+     * @param dtBoxes   拼图坐标的文本框 [x0, y0, x1, y1]
+     * @param recRes    与 dtBoxes 一一对应的识别结果
+     * @param pageBoxes 输出：原图坐标的文本框
+     * @param pageRecs  输出：识别结果
+     */
+    public void mapBack(Mosaic mosaic, List<float[]> dtBoxes, List<Pair<String, Float>> recRes,
+                        List<float[]> pageBoxes, List<Pair<String, Float>> pageRecs) {
+        int n = Math.min(dtBoxes.size(), recRes.size());
+        for (int i = 0; i < n; i++) {
+            float[] box = dtBoxes.get(i);
+            float cy = (box[1] + box[3]) / 2;
+            for (int[] offset : mosaic.offsets) {
+                if (cy >= offset[0] && cy < offset[1]) {
+                    pageBoxes.add(new float[]{
+                            box[0] + offset[2], Math.max(offset[0], box[1]) + offset[3],
+                            box[2] + offset[2], Math.min(offset[1], box[3]) + offset[3]});
+                    pageRecs.add(recRes.get(i));
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 文本框直接归入单元格：取包含文本框中心点的单元格，多个时取重叠面积最大的；不在任何单元格内的文本框丢弃
+     *
+     * @param dtBoxes   原图坐标的文本框 [x0, y0, x1, y1]
+     * @param cellBoxes 单元格框（4 点或 8 点）
+     * @return key: 单元格索引，value: 文本框索引列表（按阅读顺序）
+     */
+    public Map<Integer, List<Integer>> assign(List<float[]> dtBoxes, List<float[]> cellBoxes) {
+        List<float[]> cells = new ArrayList<>(cellBoxes.size());
+        for (float[] cell : cellBoxes) {
+            cells.add(bounds(cell));
+        }
+
+        Map<Integer, List<Integer>> matched = new LinkedHashMap<>();
+        for (int i = 0; i < dtBoxes.size(); i++) {
+            float[] box = dtBoxes.get(i);
+            float cx = (box[0] + box[2]) / 2;
+            float cy = (box[1] + box[3]) / 2;
+            int best = -1;
+            float bestOverlap = -1;
+            for (int j = 0; j < cells.size(); j++) {
+                float[] cell = cells.get(j);
+                if (cx < cell[0] || cx > cell[2] || cy < cell[1] || cy > cell[3]) {
+                    continue;
+                }
+                float overlap = Math.max(0, Math.min(box[2], cell[2]) - Math.max(box[0], cell[0]))
+                        * Math.max(0, Math.min(box[3], cell[3]) - Math.max(box[1], cell[1]));
+                if (overlap > bestOverlap) {
+                    bestOverlap = overlap;
+                    best = j;
+                }
+            }
+            if (best >= 0) {
+                matched.computeIfAbsent(best, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // 同一单元格内按先上后左排序
+        for (List<Integer> indices : matched.values()) {
+            indices.sort(Comparator.comparingDouble((Integer i) -> dtBoxes.get(i)[1]).thenComparingDouble(i -> dtBoxes.get(i)[0]));
+        }
+        return matched;
+    }
+
+    /**
+     * 单元格框按纵向重叠聚成行带，返回原图上的裁剪区域，按从上到下排序
+     */
+    private List<Rect> planBands(List<float[]> cellBoxes, int h, int w) {
+        List<float[]> sorted = new ArrayList<>(cellBoxes.size());
+        for (float[] cell : cellBoxes) {
+            sorted.add(bounds(cell));
+        }
+        sorted.sort(Comparator.comparingDouble(b -> b[1]));
+
+        List<Rect> bands = new ArrayList<>();
+        float[] band = null;
+        for (float[] cell : sorted) {
+            if (cell[2] <= cell[0] || cell[3] <= cell[1]) {
+                continue;
+            }
+            // 与当前行带纵向重叠超过一半的单元格并入该行带
+            if (band != null && band[3] - cell[1] > 0.5f * Math.min(cell[3] - cell[1], band[3] - band[1])) {
+                band[0] = Math.min(band[0], cell[0]);
+                band[2] = Math.max(band[2], cell[2]);
+                band[3] = Math.max(band[3], cell[3]);
+                continue;
+            }
+            if (band != null) {
+                addBand(bands, band, h, w);
+            }
+            band = cell.clone();
+        }
+        if (band != null) {
+            addBand(bands, band, h, w);
+        }
+        return bands;
+    }
+
+    private static void addBand(List<Rect> bands, float[] band, int h, int w) {
+        int x0 = Math.max(0, (int) Math.floor(band[0]));
+        int x1 = Math.min(w, (int) Math.ceil(band[2]));
+        int y0 = Math.max(0, (int) Math.floor(band[1]) - BAND_MARGIN);
+        int y1 = Math.min(h, (int) Math.ceil(band[3]) + BAND_MARGIN);
+        // 相邻行带扩展后可能重叠，从上一行带的下边界开始
+        if (!bands.isEmpty()) {
+            Rect prev = bands.get(bands.size() - 1);
+            y0 = Math.max(y0, prev.y + prev.height);
+        }
+        if (x1 > x0 && y1 > y0) {
+            bands.add(new Rect(x0, y0, x1 - x0, y1 - y0));
+        }
+    }
+
+    private static float[] bounds(float[] box) {
+        float x0 = Float.MAX_VALUE;
+        float y0 = Float.MAX_VALUE;
+        float x1 = -Float.MAX_VALUE;
+        float y1 = -Float.MAX_VALUE;
+        for (int j = 0; j + 1 < box.length; j += 2) {
+            x0 = Math.min(x0, box[j]);
+            x1 = Math.max(x1, box[j]);
+            y0 = Math.min(y0, box[j + 1]);
+            y1 = Math.max(y1, box[j + 1]);
+        }
+        return new float[]{x0, y0, x1, y1};
+    }
+
+    /**
+     * 行带拼图
+     */
+    public static class Mosaic {
+        private final Mat image;
+        // 每个行带 {拼图中的 y0, 拼图中的 y1, 原图 x 偏移, 原图 y 偏移}
+        private final List<int[]> offsets;
+        // 拼图尺寸，拼图释放后仍可用于解析 OCR 结果
+        private final int width;
+        private final int height;
+
+        Mosaic(Mat image, List<int[]> offsets) {
+            this.image = image;
+            this.offsets = offsets;
+            this.width = image.cols();
+            this.height = image.rows();
+        }
+
+        public Mat getImage() {
+            return image;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package io.github.hzkitty.rapidtable.tablematcher;
 
 import io.github.hzkitty.entity.Pair;
+import io.github.hzkitty.rapidtable.entity.TableCell;
+import io.github.hzkitty.rapidtable.entity.TableStage;
+import io.github.hzkitty.rapidtable.entity.TableTimings;
+import io.github.hzkitty.rapidtable.utils.TableEventSpan;
+import io.github.hzkitty.rapidtable.utils.TableEvents;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -54,6 +60,136 @@ public class TableMatch {
         return predHtml;
     }
 
+    /**
+     * 同 {@link #call}，并在同一次匹配中生成单元格列表
+     *
+     * @return (HTML 字符串, 单元格列表)
+     */
+    public Pair<String, List<TableCell>> callWithCells(List<String> predStructures, List<float[]> predBBoxes,
+                                                       List<float[]> dtBoxes, List<Pair<String, Float>> recRes) {
+        return callWithCells(predStructures, predBBoxes, dtBoxes, recRes, new TableTimings());
+    }
+
+    /**
+     * 同 {@link #callWithCells(List, List, List, List)}，并分别记录过滤、匹配、组装的耗时
+     */
+    public Pair<String, List<TableCell>> callWithCells(List<String> predStructures, List<float[]> predBBoxes,
+                                                       List<float[]> dtBoxes, List<Pair<String, Float>> recRes,
+                                                       TableTimings timings) {
+        return callWithCells(predStructures, predBBoxes, dtBoxes, recRes, () -> decodeLogicPoints(predStructures),
+                timings);
+    }
+
+    /**
+     * 同 {@link #callWithCells(List, List, List, List, TableTimings)}，单元格的行列取自 logicPoints，
+     * 调用方可与结果的逻辑坐标共用一次解码
+     */
+    public Pair<String, List<TableCell>> callWithCells(List<String> predStructures, List<float[]> predBBoxes,
+                                                       List<float[]> dtBoxes, List<Pair<String, Float>> recRes,
+                                                       Supplier<List<int[]>> logicPoints, TableTimings timings) {
+        try (TableEventSpan span = TableEvents.stage(TableStage.MATCH)
+                .ocrBoxCount(dtBoxes.size()).cellCount(predBBoxes.size())) {
+            return matchWithCells(predStructures, predBBoxes, dtBoxes, recRes, logicPoints, timings);
+        }
+    }
+
+    private Pair<String, List<TableCell>> matchWithCells(List<String> predStructures, List<float[]> predBBoxes,
+                                                         List<float[]> dtBoxes, List<Pair<String, Float>> recRes,
+                                                         Supplier<List<int[]>> logicPoints, TableTimings timings) {
+        long start = System.nanoTime();
+        List<float[]> filteredDtBoxes = dtBoxes;
+        List<Pair<String, Float>> filteredRecRes = recRes;
+        if (this.filterOcrResult) {
+            Object[] filtered = filterOcrResult(predBBoxes, dtBoxes, recRes);
+            filteredDtBoxes = (List<float[]>) filtered[0];
+            filteredRecRes = (List<Pair<String, Float>>) filtered[1];
+            timings.record(TableStage.OCR_FILTER, start);
+        }
+        start = System.nanoTime();
+        Map<Integer, List<Integer>> matchedIndex = matchResult(filteredDtBoxes, predBBoxes, timings);
+        timings.record(TableStage.MATCH, start);
+        return buildHtmlAndCells(predStructures, predBBoxes, matchedIndex, filteredRecRes, logicPoints, timings);
+    }
+
+    /**
+     * 由匹配结果生成 HTML 与单元格列表，分别记录 HTML 拼接与单元格组装耗时
+     *
+     * @param matchedIndex key: 单元格索引，value: recRes 索引列表
+     */
+    public Pair<String, List<TableCell>> buildHtmlAndCells(List<String> predStructures, List<float[]> predBBoxes,
+                                                           Map<Integer, List<Integer>> matchedIndex,
+                                                           List<Pair<String, Float>> recRes, TableTimings timings) {
+        return buildHtmlAndCells(predStructures, predBBoxes, matchedIndex, recRes,
+                () -> decodeLogicPoints(predStructures), timings);
+    }
+
+    /**
+     * 同 {@link #buildHtmlAndCells(List, List, Map, List, TableTimings)}，单元格的行列取自 logicPoints
+     */
+    public Pair<String, List<TableCell>> buildHtmlAndCells(List<String> predStructures, List<float[]> predBBoxes,
+                                                           Map<Integer, List<Integer>> matchedIndex,
+                                                           List<Pair<String, Float>> recRes,
+                                                           Supplier<List<int[]>> logicPoints, TableTimings timings) {
+        long start = System.nanoTime();
+        String predHtml = (String) getPredHtml(predStructures, matchedIndex, recRes)[0];
+        timings.record(TableStage.HTML, start);
+        // 逻辑坐标的解码单独计时，不计入单元格组装
+        List<int[]> points = logicPoints.get();
+        start = System.nanoTime();
+        List<TableCell> cells = buildCellsWithLogicPoints(points, predBBoxes, matchedIndex, recRes);
+        timings.record(TableStage.CELLS, start);
+        return Pair.of(predHtml, cells);
+    }
+
+    /**
+     * 由匹配结果生成单元格列表，顺序与 td token 一致
+     *
+     * @param matchedIndex key: 单元格索引，value: ocrContents 索引列表
+     */
+    public List<TableCell> buildCells(List<String> predStructures, List<float[]> predBBoxes,
+                                      Map<Integer, List<Integer>> matchedIndex, List<Pair<String, Float>> ocrContents) {
+        return buildCellsWithLogicPoints(decodeLogicPoints(predStructures), predBBoxes, matchedIndex, ocrContents);
+    }
+
+    /**
+     * 同 {@link #buildCells(List, List, Map, List)}，使用已解码的逻辑坐标
+     *
+     * @param logicPoints 与 td token 一一对应的 [row_start, row_end, col_start, col_end]
+     */
+    private List<TableCell> buildCellsWithLogicPoints(List<int[]> logicPoints, List<float[]> predBBoxes,
+                                                      Map<Integer, List<Integer>> matchedIndex,
+                                                      List<Pair<String, Float>> ocrContents) {
+        int n = Math.min(logicPoints.size(), predBBoxes.size());
+        List<TableCell> cells = new ArrayList<>(n);
+        for (int j = 0; j < n; j++) {
+            StringBuilder text = new StringBuilder();
+            float scoreSum = 0;
+            int scoreCount = 0;
+            for (int dtIndex : matchedIndex.getOrDefault(j, Collections.emptyList())) {
+                if (ocrContents == null || dtIndex < 0 || dtIndex >= ocrContents.size() || ocrContents.get(dtIndex) == null) {
+                    continue;
+                }
+                Pair<String, Float> rec = ocrContents.get(dtIndex);
+                String content = cleanupContent(rec.getLeft());
+                if (content.isEmpty()) {
+                    continue;
+                }
+                if (text.length() > 0) {
+                    text.append(' ');
+                }
+                text.append(content);
+                if (rec.getRight() != null) {
+                    scoreSum += rec.getRight();
+                    scoreCount++;
+                }
+            }
+            int[] lp = logicPoints.get(j);
+            cells.add(new TableCell(lp[0], lp[1], lp[2], lp[3], predBBoxes.get(j).clone(), text.toString(),
+                    scoreCount == 0 ? 0f : scoreSum / scoreCount));
+        }
+        return cells;
+    }
+
     /**
      * 匹配 OCR 检测框与表格单元格
      *
@@ -64,9 +200,17 @@ public class TableMatch {
      * - value: OCR 框(dtBoxes)的索引 i 列表
      */
     public Map<Integer, List<Integer>> matchResult(List<float[]> dtBoxes, List<float[]> predBBoxes) {
+        return matchResult(dtBoxes, predBBoxes, new TableTimings());
+    }
+
+    /**
+     * 同 {@link #matchResult(List, List)}，每个 OCR 框匹配前检查截止时间，超时抛出 TableTimeoutException
+     */
+    public Map<Integer, List<Integer>> matchResult(List<float[]> dtBoxes, List<float[]> predBBoxes, TableTimings timings) {
         Map<Integer, List<Integer>> matched = new LinkedHashMap<>();
 
         for (int i = 0; i < dtBoxes.size(); i++) {
+            timings.checkDeadline(TableStage.MATCH);
             float[] gtBox = dtBoxes.get(i); // OCR 框
             // distances: 存放 (distanceVal, 1.0 - iou, predBoxIndex)
             // 用于排序选出最优的 predBoxIndex
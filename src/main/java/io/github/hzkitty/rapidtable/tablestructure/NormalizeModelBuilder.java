@@ -0,0 +1,581 @@
+package io.github.hzkitty.rapidtable.tablestructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 在原始 ONNX 模型的输入前插入 Cast + Mul(scale) + Sub(mean) + Div(std) + Transpose 节点，
+ * 生成可直接接收 uint8 HWC 图像的派生模型。
+ * <p>
+ * 图像在预处理中补 0，另有一个 int64 输入 [N, 2] 给出每张图像的有效高宽；模型内由 Range + Less + And
+ * 生成有效区域掩码并与归一化结果相乘，填充区域与参考流水线（先归一化再补 0）一样为 0。Range 要求 opset >= 11。
+ * <p>
+ * 仅依赖 protobuf 的线格式(wire format)对 ModelProto/GraphProto 做最小改写，不引入 onnx 依赖。
+ */
+final class NormalizeModelBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(NormalizeModelBuilder.class);
+
+    // ModelProto
+    private static final int MODEL_GRAPH = 7;
+    private static final int MODEL_OPSET_IMPORT = 8;
+    // OperatorSetIdProto
+    private static final int OPSET_DOMAIN = 1;
+    private static final int OPSET_VERSION = 2;
+    // GraphProto
+    private static final int GRAPH_NODE = 1;
+    private static final int GRAPH_INITIALIZER = 5;
+    private static final int GRAPH_INPUT = 11;
+    // NodeProto
+    private static final int NODE_INPUT = 1;
+    private static final int NODE_OUTPUT = 2;
+    private static final int NODE_NAME = 3;
+    private static final int NODE_OP_TYPE = 4;
+    private static final int NODE_ATTRIBUTE = 5;
+    // AttributeProto
+    private static final int ATTR_NAME = 1;
+    private static final int ATTR_I = 3;
+    private static final int ATTR_INTS = 8;
+    private static final int ATTR_TYPE = 20;
+    private static final int ATTR_TYPE_INT = 2;
+    private static final int ATTR_TYPE_INTS = 7;
+    // TensorProto
+    private static final int TENSOR_DIMS = 1;
+    private static final int TENSOR_DATA_TYPE = 2;
+    private static final int TENSOR_NAME = 8;
+    private static final int TENSOR_RAW_DATA = 9;
+    // ValueInfoProto / TypeProto / TensorShapeProto
+    private static final int VALUE_INFO_NAME = 1;
+    private static final int VALUE_INFO_TYPE = 2;
+    private static final int TYPE_TENSOR = 1;
+    private static final int TENSOR_TYPE_ELEM_TYPE = 1;
+    private static final int TENSOR_TYPE_SHAPE = 2;
+    private static final int SHAPE_DIM = 1;
+    private static final int DIM_VALUE = 1;
+    // TensorProto.DataType
+    private static final int DATA_TYPE_FLOAT = 1;
+    private static final int DATA_TYPE_UINT8 = 2;
+    private static final int DATA_TYPE_INT64 = 7;
+
+    // 掩码所需的 Range 算子自 opset 11 起可用
+    private static final long MIN_OPSET = 11;
+    // 派生图的格式版本，改写方式变化时递增，使旧缓存失效
+    private static final int FORMAT_VERSION = 3;
+    // 派生模型的输入名称后缀：uint8 图像 [N, H, W, C]、有效高宽 [N, 2]
+    static final String IMAGE_INPUT_SUFFIX = "_uint8";
+    static final String VALID_SIZE_INPUT_SUFFIX = "_valid_hw";
+    // 缓存文件旁记录派生模型 SHA-256 的文件后缀
+    private static final String DIGEST_SUFFIX = ".sha256";
+
+    private NormalizeModelBuilder() {
+    }
+
+    /**
+     * 获取派生模型，若缓存目录中已存在且校验通过则直接复用，否则生成后写入缓存目录
+     *
+     * @param modelName  原模型名称，仅用于生成可读的缓存文件名
+     * @param modelBytes 原模型字节
+     * @param scale      像素缩放系数，如 1/255
+     * @param mean       按通道顺序的均值
+     * @param std        按通道顺序的标准差
+     * @return 派生模型的字节
+     */
+    static byte[] loadOrBuild(String modelName, byte[] modelBytes, float scale, float[] mean, float[] std) {
+        return loadOrBuild(Paths.get(System.getProperty("java.io.tmpdir"), "rapidtable4j"),
+                modelName, modelBytes, scale, mean, std);
+    }
+
+    /**
+     * 同 {@link #loadOrBuild(String, byte[], float, float[], float[])}，使用指定的缓存目录
+     * <p>
+     * 缓存键为原模型、归一化参数与派生格式版本的 SHA-256；缓存文件旁的 .sha256 文件记录派生模型的摘要，
+     * 读取时校验，不一致（文件损坏、写入中断）时重新生成
+     */
+    static byte[] loadOrBuild(Path cacheDir, String modelName, byte[] modelBytes, float scale, float[] mean, float[] std) {
+        MessageDigest key = OrtInferSession.newSha256();
+        key.update(modelBytes);
+        ByteBuffer params = ByteBuffer.allocate(4 * (2 + mean.length + std.length));
+        params.putInt(FORMAT_VERSION);
+        params.putFloat(scale);
+        for (float m : mean) {
+            params.putFloat(m);
+        }
+        for (float s : std) {
+            params.putFloat(s);
+        }
+        key.update(params.array());
+
+        String stem = Paths.get(modelName).getFileName().toString().replaceAll("\\.onnx$", "");
+        Path cacheFile = cacheDir.resolve(stem + "-uint8-" + OrtInferSession.toHex(key.digest()) + ".onnx");
+        Path digestFile = cacheDir.resolve(cacheFile.getFileName() + DIGEST_SUFFIX);
+        try {
+            if (Files.isRegularFile(cacheFile) && Files.isRegularFile(digestFile)) {
+                byte[] cached = Files.readAllBytes(cacheFile);
+                String expected = new String(Files.readAllBytes(digestFile), StandardCharsets.US_ASCII).trim();
+                if (expected.equals(digest(cached))) {
+                    return cached;
+                }
+                logger.warn("派生模型缓存校验失败，重新生成: {}", cacheFile);
+            }
+        } catch (IOException e) {
+            logger.warn("读取派生模型缓存失败: {}", cacheFile, e);
+        }
+
+        byte[] derived = build(modelBytes, scale, mean, std);
+        try {
+            Files.createDirectories(cacheDir);
+            // 先写模型再写摘要，摘要存在即表示模型已完整写入
+            write(cacheDir, stem, cacheFile, derived);
+            write(cacheDir, stem, digestFile, digest(derived).getBytes(StandardCharsets.US_ASCII));
+            logger.info("uint8 输入派生模型已缓存: {}", cacheFile);
+        } catch (IOException e) {
+            // 缓存失败不影响推理，下次加载时重新生成
+            logger.warn("写入派生模型缓存失败: {}", cacheFile, e);
+        }
+        return derived;
+    }
+
+    private static void write(Path dir, String prefix, Path target, byte[] data) throws IOException {
+        Path tmp = Files.createTempFile(dir, prefix, ".tmp");
+        try {
+            Files.write(tmp, data);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static String digest(byte[] data) {
+        return OrtInferSession.toHex(OrtInferSession.newSha256().digest(data));
+    }
+
+    /**
+     * 生成派生模型：新输入 [N, H, W, C] uint8 与 [N, 2] int64（有效高、宽），
+     * 内部转换为原始的 [N, C, H, W] float 输入，C 为 mean 的长度
+     */
+    static byte[] build(byte[] modelBytes, float scale, float[] mean, float[] std) {
+        ByteArrayOutputStream model = new ByteArrayOutputStream(modelBytes.length + 1024);
+        ProtoReader reader = new ProtoReader(modelBytes, 0, modelBytes.length);
+        byte[] graph = null;
+        long opset = -1;
+        while (reader.next()) {
+            if (reader.field == MODEL_GRAPH && reader.wireType == ProtoReader.WIRE_LEN) {
+                graph = reader.bytes();
+                continue;
+            }
+            if (reader.field == MODEL_OPSET_IMPORT && reader.wireType == ProtoReader.WIRE_LEN) {
+                byte[] opsetId = reader.bytes();
+                String domain = findString(opsetId, OPSET_DOMAIN);
+                if (domain == null || domain.isEmpty() || "ai.onnx".equals(domain)) {
+                    opset = findVarint(opsetId, OPSET_VERSION, -1);
+                }
+            }
+            reader.copyTo(model);
+        }
+        if (graph == null) {
+            throw new IllegalArgumentException("ONNX 模型中未找到 graph");
+        }
+        if (opset < MIN_OPSET) {
+            throw new IllegalArgumentException("uint8 输入要求模型 opset >= " + MIN_OPSET + ": " + opset);
+        }
+        ProtoWriter.writeBytes(model, MODEL_GRAPH, rewriteGraph(graph, scale, mean, std));
+        return model.toByteArray();
+    }
+
+    private static byte[] rewriteGraph(byte[] graphBytes, float scale, float[] mean, float[] std) {
+        // 1. 收集 initializer 名称，旧版 IR 中 initializer 也会出现在 input 列表里
+        Set<String> initializerNames = new HashSet<>();
+        ProtoReader reader = new ProtoReader(graphBytes, 0, graphBytes.length);
+        while (reader.next()) {
+            if (reader.field == GRAPH_INITIALIZER && reader.wireType == ProtoReader.WIRE_LEN) {
+                String name = findString(reader.bytes(), TENSOR_NAME);
+                if (name != null) {
+                    initializerNames.add(name);
+                }
+            }
+        }
+
+        // 2. 找到图像输入
+        byte[] imageInput = null;
+        String inputName = null;
+        reader = new ProtoReader(graphBytes, 0, graphBytes.length);
+        while (reader.next()) {
+            if (reader.field == GRAPH_INPUT && reader.wireType == ProtoReader.WIRE_LEN) {
+                byte[] valueInfo = reader.bytes();
+                String name = findString(valueInfo, VALUE_INFO_NAME);
+                if (name != null && !initializerNames.contains(name)) {
+                    imageInput = valueInfo;
+                    inputName = name;
+                    break;
+                }
+            }
+        }
+        if (imageInput == null) {
+            throw new IllegalArgumentException("ONNX 模型中未找到图像输入");
+        }
+
+        // 3. 解析原输入的 dims: [N, C, H, W]
+        byte[] tensorType = findBytes(findBytes(imageInput, VALUE_INFO_TYPE), TYPE_TENSOR);
+        if (tensorType == null || findVarint(tensorType, TENSOR_TYPE_ELEM_TYPE, -1) != DATA_TYPE_FLOAT) {
+            throw new IllegalArgumentException("图像输入不是 float 张量: " + inputName);
+        }
+        List<byte[]> dims = findAllBytes(findBytes(tensorType, TENSOR_TYPE_SHAPE), SHAPE_DIM);
+        if (dims.size() != 4) {
+            throw new IllegalArgumentException("图像输入必须为 4 维 NCHW: " + inputName);
+        }
+
+        String uint8Name = inputName + IMAGE_INPUT_SUFFIX;
+        String validName = inputName + VALID_SIZE_INPUT_SUFFIX;
+        String castName = inputName + "_cast";
+        String scaledName = inputName + "_scaled";
+        String centeredName = inputName + "_centered";
+        String normName = inputName + "_norm";
+        String shapeName = inputName + "_shape";
+        String heightName = inputName + "_height";
+        String widthName = inputName + "_width";
+        String rowsName = inputName + "_rows";
+        String colsName = inputName + "_cols";
+        String rowGridName = inputName + "_row_grid";
+        String colGridName = inputName + "_col_grid";
+        String validHeightName = inputName + "_valid_height";
+        String validWidthName = inputName + "_valid_width";
+        String validHeightGridName = inputName + "_valid_height_grid";
+        String validWidthGridName = inputName + "_valid_width_grid";
+        String rowMaskName = inputName + "_row_mask";
+        String colMaskName = inputName + "_col_mask";
+        String maskName = inputName + "_mask";
+        String maskFloatName = inputName + "_mask_float";
+        String maskedName = inputName + "_masked";
+        String zeroName = inputName + "_zero_const";
+        String oneName = inputName + "_one_const";
+        String twoName = inputName + "_two_const";
+        String rowGridShapeName = inputName + "_row_grid_shape_const";
+        String colGridShapeName = inputName + "_col_grid_shape_const";
+        String batchGridShapeName = inputName + "_batch_grid_shape_const";
+        String scaleName = inputName + "_scale_const";
+        String meanName = inputName + "_mean_const";
+        String stdName = inputName + "_std_const";
+
+        ByteArrayOutputStream graph = new ByteArrayOutputStream(graphBytes.length + 1024);
+
+        // 4. 先写入预处理节点，保证拓扑顺序在原节点之前
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Cast", castName, new String[]{uint8Name}, castName,
+                intAttr("to", DATA_TYPE_FLOAT)));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Mul", scaledName, new String[]{castName, scaleName}, scaledName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Sub", centeredName, new String[]{scaledName, meanName}, centeredName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Div", normName, new String[]{centeredName, stdName}, normName));
+        // 有效区域掩码：行号 [1, H, 1, 1] < 有效高 [N, 1, 1, 1]，且列号 [1, 1, W, 1] < 有效宽 [N, 1, 1, 1]
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Shape", shapeName, new String[]{uint8Name}, shapeName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Gather", heightName, new String[]{shapeName, oneName}, heightName,
+                intAttr("axis", 0)));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Gather", widthName, new String[]{shapeName, twoName}, widthName,
+                intAttr("axis", 0)));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Range", rowsName, new String[]{zeroName, heightName, oneName}, rowsName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Range", colsName, new String[]{zeroName, widthName, oneName}, colsName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Reshape", rowGridName, new String[]{rowsName, rowGridShapeName}, rowGridName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Reshape", colGridName, new String[]{colsName, colGridShapeName}, colGridName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Gather", validHeightName, new String[]{validName, zeroName}, validHeightName,
+                intAttr("axis", 1)));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Gather", validWidthName, new String[]{validName, oneName}, validWidthName,
+                intAttr("axis", 1)));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Reshape", validHeightGridName,
+                new String[]{validHeightName, batchGridShapeName}, validHeightGridName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Reshape", validWidthGridName,
+                new String[]{validWidthName, batchGridShapeName}, validWidthGridName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Less", rowMaskName, new String[]{rowGridName, validHeightGridName}, rowMaskName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Less", colMaskName, new String[]{colGridName, validWidthGridName}, colMaskName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("And", maskName, new String[]{rowMaskName, colMaskName}, maskName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Cast", maskFloatName, new String[]{maskName}, maskFloatName,
+                intAttr("to", DATA_TYPE_FLOAT)));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Mul", maskedName, new String[]{normName, maskFloatName}, maskedName));
+        ProtoWriter.writeBytes(graph, GRAPH_NODE, node("Transpose", inputName + "_transpose", new String[]{maskedName}, inputName,
+                intsAttr("perm", new long[]{0, 3, 1, 2})));
+
+        // 5. 复制原 graph，去掉被替换的图像输入
+        reader = new ProtoReader(graphBytes, 0, graphBytes.length);
+        while (reader.next()) {
+            if (reader.field == GRAPH_INPUT && reader.wireType == ProtoReader.WIRE_LEN
+                    && inputName.equals(findString(reader.bytes(), VALUE_INFO_NAME))) {
+                continue;
+            }
+            reader.copyTo(graph);
+        }
+
+        // 6. 新的 uint8 NHWC 输入与有效高宽输入
+        ByteArrayOutputStream channelDim = new ByteArrayOutputStream();
+        ProtoWriter.writeVarint(channelDim, DIM_VALUE, mean.length);
+        ProtoWriter.writeBytes(graph, GRAPH_INPUT, valueInfo(uint8Name, DATA_TYPE_UINT8,
+                dims.get(0), dims.get(2), dims.get(3), channelDim.toByteArray()));
+        ByteArrayOutputStream pairDim = new ByteArrayOutputStream();
+        ProtoWriter.writeVarint(pairDim, DIM_VALUE, 2);
+        ProtoWriter.writeBytes(graph, GRAPH_INPUT, valueInfo(validName, DATA_TYPE_INT64, dims.get(0), pairDim.toByteArray()));
+
+        // 7. 常量 initializer，下标与 Range 的参数为标量
+        ProtoWriter.writeBytes(graph, GRAPH_INITIALIZER, int64Tensor(zeroName, new long[0], new long[]{0}));
+        ProtoWriter.writeBytes(graph, GRAPH_INITIALIZER, int64Tensor(oneName, new long[0], new long[]{1}));
+        ProtoWriter.writeBytes(graph, GRAPH_INITIALIZER, int64Tensor(twoName, new long[0], new long[]{2}));
+        ProtoWriter.writeBytes(graph, GRAPH_INITIALIZER, int64Tensor(rowGridShapeName, new long[]{4}, new long[]{1, -1, 1, 1}));
+        ProtoWriter.writeBytes(graph, GRAPH_INITIALIZER, int64Tensor(colGridShapeName, new long[]{4}, new long[]{1, 1, -1, 1}));
+        ProtoWriter.writeBytes(graph, GRAPH_INITIALIZER, int64Tensor(batchGridShapeName, new long[]{4}, new long[]{-1, 1, 1, 1}));
+        ProtoWriter.writeBytes(graph, GRAPH_INITIALIZER, floatTensor(scaleName, new long[0], new float[]{scale}));
+        ProtoWriter.writeBytes(graph, GRAPH_INITIALIZER, floatTensor(meanName, new long[]{mean.length}, mean));
+        ProtoWriter.writeBytes(graph, GRAPH_INITIALIZER, floatTensor(stdName, new long[]{std.length}, std));
+        return graph.toByteArray();
+    }
+
+    /**
+     * 图输入的 ValueInfoProto
+     *
+     * @param dims 各维度的 TensorShapeProto.Dimension
+     */
+    private static byte[] valueInfo(String name, int elemType, byte[]... dims) {
+        ByteArrayOutputStream shape = new ByteArrayOutputStream();
+        for (byte[] dim : dims) {
+            ProtoWriter.writeBytes(shape, SHAPE_DIM, dim);
+        }
+        ByteArrayOutputStream tensorType = new ByteArrayOutputStream();
+        ProtoWriter.writeVarint(tensorType, TENSOR_TYPE_ELEM_TYPE, elemType);
+        ProtoWriter.writeBytes(tensorType, TENSOR_TYPE_SHAPE, shape.toByteArray());
+        ByteArrayOutputStream typeProto = new ByteArrayOutputStream();
+        ProtoWriter.writeBytes(typeProto, TYPE_TENSOR, tensorType.toByteArray());
+        ByteArrayOutputStream valueInfo = new ByteArrayOutputStream();
+        ProtoWriter.writeString(valueInfo, VALUE_INFO_NAME, name);
+        ProtoWriter.writeBytes(valueInfo, VALUE_INFO_TYPE, typeProto.toByteArray());
+        return valueInfo.toByteArray();
+    }
+
+    private static byte[] node(String opType, String name, String[] inputs, String output, byte[]... attributes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String input : inputs) {
+            ProtoWriter.writeString(out, NODE_INPUT, input);
+        }
+        ProtoWriter.writeString(out, NODE_OUTPUT, output);
+        ProtoWriter.writeString(out, NODE_NAME, name);
+        ProtoWriter.writeString(out, NODE_OP_TYPE, opType);
+        for (byte[] attribute : attributes) {
+            ProtoWriter.writeBytes(out, NODE_ATTRIBUTE, attribute);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] intAttr(String name, long value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProtoWriter.writeString(out, ATTR_NAME, name);
+        ProtoWriter.writeVarint(out, ATTR_I, value);
+        ProtoWriter.writeVarint(out, ATTR_TYPE, ATTR_TYPE_INT);
+        return out.toByteArray();
+    }
+
+    private static byte[] intsAttr(String name, long[] values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProtoWriter.writeString(out, ATTR_NAME, name);
+        for (long value : values) {
+            ProtoWriter.writeVarint(out, ATTR_INTS, value);
+        }
+        ProtoWriter.writeVarint(out, ATTR_TYPE, ATTR_TYPE_INTS);
+        return out.toByteArray();
+    }
+
+    private static byte[] floatTensor(String name, long[] dims, float[] values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long dim : dims) {
+            ProtoWriter.writeVarint(out, TENSOR_DIMS, dim);
+        }
+        ProtoWriter.writeVarint(out, TENSOR_DATA_TYPE, DATA_TYPE_FLOAT);
+        ProtoWriter.writeString(out, TENSOR_NAME, name);
+        ByteBuffer raw = ByteBuffer.allocate(values.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (float value : values) {
+            raw.putFloat(value);
+        }
+        ProtoWriter.writeBytes(out, TENSOR_RAW_DATA, raw.array());
+        return out.toByteArray();
+    }
+
+    private static byte[] int64Tensor(String name, long[] dims, long[] values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long dim : dims) {
+            ProtoWriter.writeVarint(out, TENSOR_DIMS, dim);
+        }
+        ProtoWriter.writeVarint(out, TENSOR_DATA_TYPE, DATA_TYPE_INT64);
+        ProtoWriter.writeString(out, TENSOR_NAME, name);
+        ByteBuffer raw = ByteBuffer.allocate(values.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        for (long value : values) {
+            raw.putLong(value);
+        }
+        ProtoWriter.writeBytes(out, TENSOR_RAW_DATA, raw.array());
+        return out.toByteArray();
+    }
+
+    private static String findString(byte[] message, int field) {
+        byte[] bytes = findBytes(message, field);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] findBytes(byte[] message, int field) {
+        if (message == null) {
+            return null;
+        }
+        ProtoReader reader = new ProtoReader(message, 0, message.length);
+        while (reader.next()) {
+            if (reader.field == field && reader.wireType == ProtoReader.WIRE_LEN) {
+                return reader.bytes();
+            }
+        }
+        return null;
+    }
+
+    private static List<byte[]> findAllBytes(byte[] message, int field) {
+        List<byte[]> result = new ArrayList<>();
+        if (message == null) {
+            return result;
+        }
+        ProtoReader reader = new ProtoReader(message, 0, message.length);
+        while (reader.next()) {
+            if (reader.field == field && reader.wireType == ProtoReader.WIRE_LEN) {
+                result.add(reader.bytes());
+            }
+        }
+        return result;
+    }
+
+    private static long findVarint(byte[] message, int field, long defaultValue) {
+        ProtoReader reader = new ProtoReader(message, 0, message.length);
+        while (reader.next()) {
+            if (reader.field == field && reader.wireType == ProtoReader.WIRE_VARINT) {
+                return reader.varint;
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * protobuf 线格式的顺序读取器，只记录字段位置，不做完整解析
+     */
+    private static final class ProtoReader {
+        static final int WIRE_VARINT = 0;
+        static final int WIRE_I64 = 1;
+        static final int WIRE_LEN = 2;
+        static final int WIRE_I32 = 5;
+
+        private final byte[] buf;
+        private final int end;
+        private int pos;
+
+        int field;
+        int wireType;
+        long varint;
+        private int fieldStart;
+        private int valueStart;
+        private int valueEnd;
+
+        ProtoReader(byte[] buf, int offset, int length) {
+            this.buf = buf;
+            this.pos = offset;
+            this.end = offset + length;
+        }
+
+        boolean next() {
+            if (pos >= end) {
+                return false;
+            }
+            fieldStart = pos;
+            long tag = readVarint();
+            field = (int) (tag >>> 3);
+            wireType = (int) (tag & 0x7);
+            switch (wireType) {
+                case WIRE_VARINT:
+                    valueStart = pos;
+                    varint = readVarint();
+                    break;
+                case WIRE_I64:
+                    valueStart = pos;
+                    pos += 8;
+                    break;
+                case WIRE_LEN:
+                    int len = (int) readVarint();
+                    valueStart = pos;
+                    pos += len;
+                    break;
+                case WIRE_I32:
+                    valueStart = pos;
+                    pos += 4;
+                    break;
+                default:
+                    throw new IllegalArgumentException("不支持的 protobuf wire type: " + wireType);
+            }
+            if (pos > end) {
+                throw new IllegalArgumentException("ONNX 模型数据不完整");
+            }
+            valueEnd = pos;
+            return true;
+        }
+
+        byte[] bytes() {
+            byte[] out = new byte[valueEnd - valueStart];
+            System.arraycopy(buf, valueStart, out, 0, out.length);
+            return out;
+        }
+
+        void copyTo(ByteArrayOutputStream out) {
+            out.write(buf, fieldStart, valueEnd - fieldStart);
+        }
+
+        private long readVarint() {
+            long result = 0;
+            int shift = 0;
+            while (pos < end) {
+                byte b = buf[pos++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+                shift += 7;
+            }
+            throw new IllegalArgumentException("ONNX 模型数据不完整");
+        }
+    }
+
+    /**
+     * protobuf 线格式的写入工具
+     */
+    static final class ProtoWriter {
+
+        static void writeVarint(ByteArrayOutputStream out, int field, long value) {
+            writeRawVarint(out, ((long) field << 3) | ProtoReader.WIRE_VARINT);
+            writeRawVarint(out, value);
+        }
+
+        static void writeString(ByteArrayOutputStream out, int field, String value) {
+            writeBytes(out, field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static void writeBytes(ByteArrayOutputStream out, int field, byte[] value) {
+            writeRawVarint(out, ((long) field << 3) | ProtoReader.WIRE_LEN);
+            writeRawVarint(out, value.length);
+            out.write(value, 0, value.length);
+        }
+
+        private static void writeRawVarint(ByteArrayOutputStream out, long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+}
@@ -2,32 +2,99 @@ package io.github.hzkitty.rapidtable.tablestructure;
 
 import ai.onnxruntime.*;
 import ai.onnxruntime.OrtSession.Result;
+import ai.onnxruntime.OrtSession.RunOptions;
 import ai.onnxruntime.OrtSession.SessionOptions;
 import ai.onnxruntime.providers.OrtCUDAProviderOptions;
 import io.github.hzkitty.entity.OrtInferConfig;
+import io.github.hzkitty.rapidtable.entity.TableConfig;
+import io.github.hzkitty.rapidtable.entity.TableStage;
+import io.github.hzkitty.rapidtable.entity.TableTimeoutException;
+import io.github.hzkitty.rapidtable.entity.TableTimings;
+import io.github.hzkitty.rapidtable.utils.NativeMemoryStats;
+import io.github.hzkitty.rapidtable.utils.TableEventSpan;
+import io.github.hzkitty.rapidtable.utils.TableEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
-public class OrtInferSession {
+public class OrtInferSession implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(OrtInferSession.class);
+    // 到期终止推理的定时器，所有会话共用；推理提前结束时取消的任务立即移出队列
+    private static final ScheduledThreadPoolExecutor TERMINATOR = newTerminator();
+    // endProfiling 返回的最近 trace 文件数上限，汇总不受此限制
+    private static final int MAX_PROFILE_FILES = 64;
 
     private final OrtEnvironment env;
     private final OrtSession session;
 
     private boolean useCuda;
     private boolean useDirectML;
+    // 是否加载 uint8 输入的派生模型（归一化在模型内完成）
+    private boolean uint8Input;
+
+    // ORT 性能分析的 trace 输出目录，未开启时为 null
+    private final Path profileDir;
+    // 参与性能分析的推理比例
+    private final double profileSampleRate;
+    // 每个 trace 文件包含的推理次数
+    private final int profileRunsPerFile;
+    // 性能分析会话按需创建、轮换，采样到的推理在该锁内串行执行
+    private final Object profileLock = new Object();
+    private OrtSession profileSession;
+    private int profileRuns;
+    private final Deque<Path> profileFiles = new ArrayDeque<>();
+    // 已结束但尚未计入汇总的 trace 文件
+    private final List<Path> pendingProfileFiles = new ArrayList<>();
+    // 全部 trace 文件的累计汇总，每个文件只解析一次
+    private final OrtProfileSummary.Accumulator profileTotals = new OrtProfileSummary.Accumulator();
+    // 重建性能分析会话所需的配置与模型，未开启性能分析时不保留模型
+    private final OrtInferConfig inferConfig;
+    private String modelFile;
+    private byte[] modelBytes;
+    // 原模型字节的 SHA-256，用于区分同名但权重不同的模型
+    private final String modelDigest;
+    // 创建会话前的内存快照
+    private final NativeMemoryStats baselineMemory;
 
 
     public OrtInferSession(OrtInferConfig ortInferConfig) {
+        this(ortInferConfig, false);
+    }
+
+    public OrtInferSession(OrtInferConfig ortInferConfig, boolean uint8Input) {
+        this(ortInferConfig, uint8Input, null, 0, 0);
+    }
+
+    public OrtInferSession(OrtInferConfig ortInferConfig, TableConfig tableConfig) {
+        this(ortInferConfig, tableConfig.uint8Input, tableConfig.ortProfileDir,
+                tableConfig.ortProfileSampleRate, tableConfig.ortProfileRunsPerFile);
+    }
+
+    private OrtInferSession(OrtInferConfig ortInferConfig, boolean uint8Input, String profileDir,
+                            double profileSampleRate, int profileRunsPerFile) {
         logger.info("Initializing OrtInferSession...");
+        this.baselineMemory = NativeMemoryStats.capture();
+        this.uint8Input = uint8Input;
+        this.inferConfig = ortInferConfig;
+        this.profileDir = profileDir == null ? null : Paths.get(profileDir);
+        this.profileSampleRate = profileSampleRate;
+        this.profileRunsPerFile = Math.max(1, profileRunsPerFile);
 
         String modelPath = ortInferConfig.getModelPath();
         this.useCuda = ortInferConfig.isUseCuda();
@@ -37,47 +104,89 @@ public class OrtInferSession {
         this.env = OrtEnvironment.getEnvironment("OrtInferSessionEnv");
 
         try {
-            // 2. 初始化 SessionOptions
-            SessionOptions sessionOptions = initSessionOptions(ortInferConfig);
-            EnumSet<OrtProvider> availableProviders = env.getAvailableProviders();
-            if (this.useCuda && availableProviders.contains(OrtProvider.CUDA)) {
-                OrtCUDAProviderOptions providerOptions = new OrtCUDAProviderOptions(ortInferConfig.deviceId);
-                // kNextPowerOfTwo（默认值）以 2 的幂数扩展，而 kSameAsRequested 每次扩展的大小与分配请求的大小相同。
-                providerOptions.add("arena_extend_strategy", "kNextPowerOfTwo");
-                providerOptions.add("cudnn_conv_algo_search", "EXHAUSTIVE");
-                providerOptions.add("do_copy_in_default_stream", "1");
-                sessionOptions.addCUDA(providerOptions);
-                logger.info("Requested CUDA EP added to session options.");
-            }
-
-            if (this.useDirectML && availableProviders.contains(OrtProvider.DIRECT_ML)) {
-                sessionOptions.addDirectML(ortInferConfig.deviceId);
-                logger.info("Requested DirectML EP - might not be supported in certain Java packages.");
-            }
-
-            // 最后添加 CPU
-            if (availableProviders.contains(OrtProvider.CPU)) {
-                sessionOptions.addCPU(ortInferConfig.useArena);
-                logger.info("CPU EP added to session options.");
-            }
+            // 2. 初始化 SessionOptions，会话创建后即可释放
+            SessionOptions sessionOptions = buildSessionOptions(ortInferConfig);
 
             // 4. 创建推理会话
             Path path = Paths.get(modelPath);
-            if (path.isAbsolute()) {
+            if (this.uint8Input) {
+                byte[] modelBytes = path.isAbsolute() ? readModel(path, modelPath)
+                        : loadModel(Thread.currentThread().getContextClassLoader().getResourceAsStream(modelPath));
+                this.modelDigest = sha256(modelBytes);
+                byte[] derived = NormalizeModelBuilder.loadOrBuild(modelPath, modelBytes,
+                        (float) TablePreprocess.NORM_SCALE, toFloats(TablePreprocess.NORM_MEAN.val), toFloats(TablePreprocess.NORM_STD.val));
+                this.modelBytes = derived;
+            } else if (path.isAbsolute()) {
                 if (!path.toFile().exists()) {
                     throw new RuntimeException("模型文件未找到: " + modelPath);
                 }
-                this.session = env.createSession(modelPath, sessionOptions);
+                this.modelFile = modelPath;
+                this.modelDigest = sha256(path);
             } else {
                 InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(modelPath);
-                this.session = env.createSession(loadModel(inputStream), sessionOptions);
+                this.modelBytes = loadModel(inputStream);
+                this.modelDigest = sha256(this.modelBytes);
             }
-        } catch (OrtException e) {
+            try {
+                this.session = createSession(sessionOptions);
+            } finally {
+                sessionOptions.close();
+            }
+            if (this.profileDir == null) {
+                this.modelBytes = null;
+            } else {
+                Files.createDirectories(this.profileDir);
+            }
+        } catch (OrtException | IOException e) {
             throw new RuntimeException(e);
         }
         logger.info("OrtInferSession initialization completed.");
     }
 
+    private static ScheduledThreadPoolExecutor newTerminator() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "rapidtable-ort-terminator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private OrtSession createSession(SessionOptions sessionOptions) throws OrtException {
+        return this.modelFile != null ? env.createSession(this.modelFile, sessionOptions)
+                : env.createSession(this.modelBytes, sessionOptions);
+    }
+
+    /**
+     * 初始化 SessionOptions 并添加执行提供者
+     */
+    private SessionOptions buildSessionOptions(OrtInferConfig ortInferConfig) throws OrtException {
+        SessionOptions sessionOptions = initSessionOptions(ortInferConfig);
+        EnumSet<OrtProvider> availableProviders = env.getAvailableProviders();
+        if (this.useCuda && availableProviders.contains(OrtProvider.CUDA)) {
+            OrtCUDAProviderOptions providerOptions = new OrtCUDAProviderOptions(ortInferConfig.deviceId);
+            // kNextPowerOfTwo（默认值）以 2 的幂数扩展，而 kSameAsRequested 每次扩展的大小与分配请求的大小相同。
+            providerOptions.add("arena_extend_strategy", "kNextPowerOfTwo");
+            providerOptions.add("cudnn_conv_algo_search", "EXHAUSTIVE");
+            providerOptions.add("do_copy_in_default_stream", "1");
+            sessionOptions.addCUDA(providerOptions);
+            logger.info("Requested CUDA EP added to session options.");
+        }
+
+        if (this.useDirectML && availableProviders.contains(OrtProvider.DIRECT_ML)) {
+            sessionOptions.addDirectML(ortInferConfig.deviceId);
+            logger.info("Requested DirectML EP - might not be supported in certain Java packages.");
+        }
+
+        // 最后添加 CPU
+        if (availableProviders.contains(OrtProvider.CPU)) {
+            sessionOptions.addCPU(ortInferConfig.useArena);
+            logger.info("CPU EP added to session options.");
+        }
+        return sessionOptions;
+    }
+
     /**
      * 初始化 SessionOptions
      */
@@ -85,12 +194,12 @@ public class OrtInferSession {
         SessionOptions sessOpt = new SessionOptions();
         int cpuNums = Runtime.getRuntime().availableProcessors();
 
-        int intraOpNumThreads = ortInferConfig.intraOpNumThreads;
-        if (intraOpNumThreads >= 1 && intraOpNumThreads <= cpuNums) {
+        int intraOpNumThreads = clampThreads("intraOpNumThreads", ortInferConfig.intraOpNumThreads, cpuNums);
+        if (intraOpNumThreads >= 1) {
             sessOpt.setIntraOpNumThreads(intraOpNumThreads);
         }
-        int interOpNumThreads = ortInferConfig.interOpNumThreads;
-        if (interOpNumThreads >= 1 && interOpNumThreads <= cpuNums) {
+        int interOpNumThreads = clampThreads("interOpNumThreads", ortInferConfig.interOpNumThreads, cpuNums);
+        if (interOpNumThreads >= 1) {
             sessOpt.setInterOpNumThreads(interOpNumThreads);
         }
         // 禁用 arena 内存池的扩展策略
@@ -103,6 +212,17 @@ public class OrtInferSession {
         return sessOpt;
     }
 
+    /**
+     * 线程数超过 CPU 核数时降为核数并告警，小于 1 时使用 ORT 默认值
+     */
+    private static int clampThreads(String name, int threads, int cpuNums) {
+        if (threads > cpuNums) {
+            logger.warn("{}={} 超过 CPU 核数 {}，按 {} 设置", name, threads, cpuNums, cpuNums);
+            return cpuNums;
+        }
+        return threads;
+    }
+
     /**
      * 执行推理
      *
@@ -110,19 +230,253 @@ public class OrtInferSession {
      * @return 推理结果 (形状需根据模型而定)
      */
     public Object[] run(float[][][][] inputData) throws OrtException {
+        return run(inputData, new TableTimings());
+    }
+
+    /**
+     * 同 {@link #run(float[][][][])}，分别记录构造张量与推理的耗时
+     */
+    public Object[] run(float[][][][] inputData, TableTimings timings) throws OrtException {
         String inputName = this.getInputNames().get(0);
+        long start = System.nanoTime();
         try (OnnxTensor tensor = OnnxTensor.createTensor(env, inputData)) {
-            try (Result result = session.run(Collections.singletonMap(inputName, tensor))) {
-                int outputSize = result.size();
-                Object[] outputs = new Object[outputSize];
-                // 遍历所有输出并存储到outputs数组中
-                for (int i = 0; i < outputSize; i++) {
-                    // 提取实际的数据
-                    outputs[i] = result.get(i).getValue();
+            timings.record(TableStage.TENSOR_BUILD, start);
+            return run(Collections.singletonMap(inputName, tensor), timings);
+        }
+    }
+
+    /**
+     * 执行 uint8 输入的推理，仅在 uint8Input 模式下可用
+     *
+     * @param hwcData    连续的 [N, H, W, C] uint8 数据，填充区域为 0
+     * @param shape      输入形状 [N, H, W, C]
+     * @param validSizes 每张图像的有效高、宽 [h0, w0, h1, w1, ...]，模型据此将填充区域的归一化结果置 0
+     * @return 推理结果 (形状需根据模型而定)
+     */
+    public Object[] run(byte[] hwcData, long[] shape, long[] validSizes) throws OrtException {
+        return run(hwcData, shape, validSizes, new TableTimings());
+    }
+
+    /**
+     * 同 {@link #run(byte[], long[], long[])}，分别记录构造张量与推理的耗时
+     */
+    public Object[] run(byte[] hwcData, long[] shape, long[] validSizes, TableTimings timings) throws OrtException {
+        if (!this.uint8Input) {
+            throw new IllegalStateException("当前会话未启用 uint8 输入模式");
+        }
+        String imageName = null;
+        String validSizeName = null;
+        for (String name : this.getInputNames()) {
+            if (name.endsWith(NormalizeModelBuilder.IMAGE_INPUT_SUFFIX)) {
+                imageName = name;
+            } else if (name.endsWith(NormalizeModelBuilder.VALID_SIZE_INPUT_SUFFIX)) {
+                validSizeName = name;
+            }
+        }
+        long start = System.nanoTime();
+        try (OnnxTensor image = OnnxTensor.createTensor(env, ByteBuffer.wrap(hwcData), shape, OnnxJavaType.UINT8);
+             OnnxTensor validSize = OnnxTensor.createTensor(env, LongBuffer.wrap(validSizes), new long[]{shape[0], 2})) {
+            timings.record(TableStage.TENSOR_BUILD, start);
+            // 图像在前，性能事件记录第一个输入的形状
+            Map<String, OnnxTensor> inputs = new LinkedHashMap<>();
+            inputs.put(imageName, image);
+            inputs.put(validSizeName, validSize);
+            return run(inputs, timings);
+        }
+    }
+
+    private Object[] run(Map<String, OnnxTensor> inputs, TableTimings timings) throws OrtException {
+        if (this.profileDir != null && ThreadLocalRandom.current().nextDouble() < this.profileSampleRate) {
+            return runProfiled(inputs, timings);
+        }
+        return run(this.session, inputs, timings);
+    }
+
+    /**
+     * 有截止时间时，到期后通过 RunOptions 终止正在执行的推理并抛出 {@link TableTimeoutException}
+     */
+    private Object[] run(OrtSession session, Map<String, OnnxTensor> inputs, TableTimings timings) throws OrtException {
+        if (!timings.hasDeadline()) {
+            return run(session, inputs, null, timings);
+        }
+        timings.checkDeadline(TableStage.ORT_RUN);
+        RunOptions runOptions = new RunOptions();
+        RunTerminator terminator = new RunTerminator(runOptions);
+        ScheduledFuture<?> scheduled = TERMINATOR.schedule(terminator, timings.getRemainingNanos(), TimeUnit.NANOSECONDS);
+        try {
+            return run(session, inputs, runOptions, timings);
+        } catch (OrtException e) {
+            if (terminator.isTerminated()) {
+                throw new TableTimeoutException(TableStage.ORT_RUN, e);
+            }
+            throw e;
+        } finally {
+            scheduled.cancel(false);
+            // 先阻止终止任务再释放 RunOptions，避免终止任务访问已释放的句柄
+            terminator.finish();
+            runOptions.close();
+        }
+    }
+
+    private Object[] run(OrtSession session, Map<String, OnnxTensor> inputs, RunOptions runOptions,
+                         TableTimings timings) throws OrtException {
+        long start = System.nanoTime();
+        long[] inputShape = inputs.values().iterator().next().getInfo().getShape();
+        try (TableEventSpan span = TableEvents.ortRun().inputShape(inputShape);
+             Result result = runOptions == null ? session.run(inputs) : session.run(inputs, runOptions)) {
+            int outputSize = result.size();
+            Object[] outputs = new Object[outputSize];
+            // 遍历所有输出并存储到outputs数组中
+            for (int i = 0; i < outputSize; i++) {
+                // 提取实际的数据
+                outputs[i] = result.get(i).getValue();
+            }
+            return outputs;
+        } finally {
+            timings.record(TableStage.ORT_RUN, start);
+        }
+    }
+
+    /**
+     * 截止时间到期时终止推理，与推理结束互斥
+     */
+    private static final class RunTerminator implements Runnable {
+        private final RunOptions runOptions;
+        private boolean finished;
+        private boolean terminated;
+
+        RunTerminator(RunOptions runOptions) {
+            this.runOptions = runOptions;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (this.finished) {
+                return;
+            }
+            try {
+                this.runOptions.setTerminate(true);
+                this.terminated = true;
+            } catch (OrtException e) {
+                logger.warn("RunOptions.setTerminate failed", e);
+            }
+        }
+
+        synchronized void finish() {
+            this.finished = true;
+        }
+
+        synchronized boolean isTerminated() {
+            return this.terminated;
+        }
+    }
+
+    /**
+     * 在开启性能分析的独立会话上推理，达到每个文件的推理次数后结束该 trace 文件
+     */
+    private Object[] runProfiled(Map<String, OnnxTensor> inputs, TableTimings timings) throws OrtException {
+        synchronized (this.profileLock) {
+            if (this.profileSession == null) {
+                try (SessionOptions options = buildSessionOptions(this.inferConfig)) {
+                    options.enableProfiling(this.profileDir.resolve("ort-profile").toString());
+                    this.profileSession = createSession(options);
                 }
-                return outputs;
             }
+            Object[] outputs = run(this.profileSession, inputs, timings);
+            if (++this.profileRuns >= this.profileRunsPerFile) {
+                finishProfileFile();
+            }
+            return outputs;
+        }
+    }
+
+    private void finishProfileFile() throws OrtException {
+        if (this.profileSession == null) {
+            return;
+        }
+        String file = this.profileSession.endProfiling();
+        this.profileSession.close();
+        this.profileSession = null;
+        this.profileRuns = 0;
+        if (file != null) {
+            Path path = Paths.get(file);
+            this.profileFiles.addLast(path);
+            if (this.profileFiles.size() > MAX_PROFILE_FILES) {
+                this.profileFiles.removeFirst();
+            }
+            this.pendingProfileFiles.add(path);
+        }
+    }
+
+    /**
+     * 结束当前的 trace 文件，返回最近生成的至多 64 个 chrome-trace JSON 文件；之后采样到的推理写入新文件
+     */
+    public List<Path> endProfiling() throws OrtException {
+        synchronized (this.profileLock) {
+            finishProfileFile();
+            return new ArrayList<>(this.profileFiles);
+        }
+    }
+
+    /**
+     * 结束当前 trace 文件并汇总全部 trace 的算子耗时，未开启性能分析时为 null
+     * <p>
+     * 汇总逐次累计，每次只解析上次调用之后新生成的文件。
+     */
+    public OrtProfileSummary getProfileSummary() throws OrtException, IOException {
+        if (this.profileDir == null) {
+            return null;
+        }
+        List<Path> pending;
+        synchronized (this.profileLock) {
+            finishProfileFile();
+            pending = new ArrayList<>(this.pendingProfileFiles);
+            this.pendingProfileFiles.clear();
+        }
+        // 解析在推理锁之外进行，不阻塞采样推理
+        synchronized (this.profileTotals) {
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    this.profileTotals.add(pending.get(i));
+                } catch (IOException e) {
+                    // 未解析的文件留待下次
+                    synchronized (this.profileLock) {
+                        this.pendingProfileFiles.addAll(0, pending.subList(i, pending.size()));
+                    }
+                    throw e;
+                }
+            }
+            return this.profileTotals.summary();
+        }
+    }
+
+    /**
+     * 当前的进程内存快照
+     */
+    public NativeMemoryStats getMemoryStats() {
+        return NativeMemoryStats.capture();
+    }
+
+    /**
+     * 创建会话前的内存快照，与 {@link #getMemoryStats()} 比较可得模型加载与 arena 的增长
+     */
+    public NativeMemoryStats getBaselineMemoryStats() {
+        return baselineMemory;
+    }
+
+    public boolean isUint8Input() {
+        return uint8Input;
+    }
+
+    /**
+     * 释放推理会话（含性能分析会话），之后不能再推理
+     */
+    @Override
+    public void close() throws OrtException {
+        synchronized (this.profileLock) {
+            finishProfileFile();
         }
+        this.session.close();
     }
 
     /**
@@ -136,6 +490,17 @@ public class OrtInferSession {
         return names;
     }
 
+    /**
+     * 获取模型第一个输入的形状，动态维度为 -1
+     */
+    public long[] getInputShape() throws OrtException {
+        NodeInfo info = session.getInputInfo().values().iterator().next();
+        if (info.getInfo() instanceof TensorInfo) {
+            return ((TensorInfo) info.getInfo()).getShape();
+        }
+        return new long[0];
+    }
+
     /**
      * 获取模型的输出名字列表
      */
@@ -176,6 +541,77 @@ public class OrtInferSession {
         }
     }
 
+    /**
+     * 模型版本标识：producer、graph、版本号、自定义 metadata（含字符字典）的哈希及原模型字节的 SHA-256
+     */
+    public String getModelVersion() {
+        try {
+            OnnxModelMetadata metadata = session.getMetadata();
+            return metadata.getProducerName() + "/" + metadata.getGraphName() + "/" + metadata.getVersion()
+                    + "/" + Integer.toHexString(metadata.getCustomMetadata().hashCode()) + "/" + this.modelDigest;
+        } catch (OrtException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private byte[] readModel(Path path, String modelPath) {
+        if (!path.toFile().exists()) {
+            throw new RuntimeException("模型文件未找到: " + modelPath);
+        }
+        try {
+            return Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        MessageDigest digest = newSha256();
+        digest.update(bytes);
+        return toHex(digest.digest());
+    }
+
+    /**
+     * 流式计算模型文件的 SHA-256，绝对路径的模型不整体读入内存
+     */
+    private static String sha256(Path path) {
+        MessageDigest digest = newSha256();
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return toHex(digest.digest());
+    }
+
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static float[] toFloats(double[] values) {
+        float[] result = new float[3];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (float) values[i];
+        }
+        return result;
+    }
+
     private byte[] loadModel(InputStream modelInputStream) {
         try (
                 InputStream inputStream = modelInputStream;
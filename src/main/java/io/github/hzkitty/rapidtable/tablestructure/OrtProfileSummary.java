@@ -0,0 +1,175 @@
+package io.github.hzkitty.rapidtable.tablestructure;
+
+import io.github.hzkitty.rapidtable.utils.SimpleJson;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ORT 性能分析（chrome-trace JSON）的汇总：按算子类型统计 kernel 耗时，以及整次推理的耗时
+ */
+public class OrtProfileSummary {
+
+    private static final String KERNEL_SUFFIX = "_kernel_time";
+
+    private final List<OpStat> ops;
+    private final long runCount;
+    private final long runMicros;
+
+    private OrtProfileSummary(List<OpStat> ops, long runCount, long runMicros) {
+        this.ops = ops;
+        this.runCount = runCount;
+        this.runMicros = runMicros;
+    }
+
+    /**
+     * 解析并汇总多个 trace 文件
+     */
+    public static OrtProfileSummary parse(Collection<Path> traceFiles) throws IOException {
+        Accumulator accumulator = new Accumulator();
+        for (Path file : traceFiles) {
+            accumulator.add(file);
+        }
+        return accumulator.summary();
+    }
+
+    /**
+     * 按总耗时降序的算子统计
+     */
+    public List<OpStat> getOps() {
+        return ops;
+    }
+
+    /**
+     * trace 中记录的推理次数
+     */
+    public long getRunCount() {
+        return runCount;
+    }
+
+    public double getMeanRunMillis() {
+        return runCount == 0 ? 0 : runMicros / 1000.0 / runCount;
+    }
+
+    @Override
+    public String toString() {
+        long kernelMicros = 0;
+        for (OpStat op : ops) {
+            kernelMicros += op.totalMicros;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("runs=%d, mean=%.3fms%n", runCount, getMeanRunMillis()));
+        sb.append(String.format("%-24s %8s %12s %10s %10s %7s%n", "op", "count", "total(ms)", "mean(us)", "max(us)", "share"));
+        for (OpStat op : ops) {
+            sb.append(String.format("%-24s %8d %12.3f %10.1f %10d %6.1f%%%n", op.opType, op.count, op.totalMicros / 1000.0,
+                    op.getMeanMicros(), op.maxMicros, kernelMicros == 0 ? 0 : op.totalMicros * 100.0 / kernelMicros));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 逐个文件累计的汇总，非线程安全
+     */
+    static class Accumulator {
+        private final Map<String, OpStat> byOp = new HashMap<>();
+        private long runCount;
+        private long runMicros;
+
+        void add(Path file) throws IOException {
+            Object root;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                root = SimpleJson.parse(reader);
+            }
+            if (!(root instanceof List)) {
+                return;
+            }
+            for (Object item : (List<?>) root) {
+                if (!(item instanceof Map)) {
+                    continue;
+                }
+                Map<?, ?> event = (Map<?, ?>) item;
+                String cat = String.valueOf(event.get("cat"));
+                String name = String.valueOf(event.get("name"));
+                long dur = event.get("dur") instanceof Number ? ((Number) event.get("dur")).longValue() : 0;
+                if ("Session".equals(cat) && "model_run".equals(name)) {
+                    runCount++;
+                    runMicros += dur;
+                } else if ("Node".equals(cat) && name.endsWith(KERNEL_SUFFIX)) {
+                    Object args = event.get("args");
+                    Object opName = args instanceof Map ? ((Map<?, ?>) args).get("op_name") : null;
+                    String op = opName != null ? opName.toString() : name.substring(0, name.length() - KERNEL_SUFFIX.length());
+                    byOp.computeIfAbsent(op, OpStat::new).add(dur);
+                }
+            }
+        }
+
+        /**
+         * 当前累计值的快照，之后的累计不影响返回的汇总
+         */
+        OrtProfileSummary summary() {
+            List<OpStat> ops = new ArrayList<>(byOp.size());
+            for (OpStat op : byOp.values()) {
+                ops.add(op.copy());
+            }
+            ops.sort((a, b) -> Long.compare(b.totalMicros, a.totalMicros));
+            return new OrtProfileSummary(Collections.unmodifiableList(ops), runCount, runMicros);
+        }
+    }
+
+    /**
+     * 单个算子类型的统计
+     */
+    public static class OpStat {
+        private final String opType;
+        private long count;
+        private long totalMicros;
+        private long maxMicros;
+
+        OpStat(String opType) {
+            this.opType = opType;
+        }
+
+        private OpStat copy() {
+            OpStat copy = new OpStat(opType);
+            copy.count = count;
+            copy.totalMicros = totalMicros;
+            copy.maxMicros = maxMicros;
+            return copy;
+        }
+
+        private void add(long micros) {
+            count++;
+            totalMicros += micros;
+            maxMicros = Math.max(maxMicros, micros);
+        }
+
+        public String getOpType() {
+            return opType;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalMicros() {
+            return totalMicros;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+
+        public double getMeanMicros() {
+            return count == 0 ? 0 : (double) totalMicros / count;
+        }
+    }
+}
@@ -1,117 +1,307 @@
 package io.github.hzkitty.rapidtable.tablestructure;
 
+import ai.onnxruntime.OrtException;
 import io.github.hzkitty.entity.OrtInferConfig;
 import io.github.hzkitty.entity.Pair;
 import io.github.hzkitty.entity.Triple;
+import io.github.hzkitty.rapidtable.entity.TableConfig;
+import io.github.hzkitty.rapidtable.entity.TableStage;
+import io.github.hzkitty.rapidtable.entity.TableTimeoutException;
+import io.github.hzkitty.rapidtable.entity.TableTimings;
+import io.github.hzkitty.rapidtable.utils.TableEventSpan;
+import io.github.hzkitty.rapidtable.utils.TableEvents;
 import org.opencv.core.Mat;
 
 import java.util.*;
 
 public class TableStructurer {
 
+    // 自适应尺寸对齐的步长
+    private static final int SIZE_ALIGN = 8;
+    // 自适应尺寸估算时，每个文本框在边长方向上需要的像素
+    private static final int PIXELS_PER_TEXT_BOX = 48;
+
     private TablePreprocess preprocessOp;
     private OrtInferSession session;
     private TableLabelDecode postprocessOp;
     private List<String> character;
+    // 默认(最大)输入边长
+    private int inputSize;
+    // 自适应时的最小输入边长
+    private int minInputSize;
+    // 是否按图自适应选择输入边长
+    private boolean adaptiveInputSize;
+    // 模型输入的 H、W 是否为动态维度
+    private boolean dynamicInput;
+    // 模型输入的 batch 是否为动态维度
+    private boolean dynamicBatch;
 
     public TableStructurer(OrtInferConfig config) {
-        this.preprocessOp = new TablePreprocess();
-        this.session = new OrtInferSession(config);
+        this(config, new TableConfig());
+    }
+
+    public TableStructurer(OrtInferConfig config, TableConfig tableConfig) {
+        this.session = new OrtInferSession(config, tableConfig);
+        this.inputSize = tableConfig.inputSize;
+        this.minInputSize = Math.min(tableConfig.minInputSize, tableConfig.inputSize);
+        this.adaptiveInputSize = tableConfig.adaptiveInputSize;
+        this.dynamicInput = validateInputSize(tableConfig.inputSize);
+        this.preprocessOp = new TablePreprocess(this.inputSize, tableConfig.uint8Input);
         this.character = this.session.getCharacterList("character");
         this.postprocessOp = new TableLabelDecode(this.character, true);
     }
 
+    /**
+     * 校验配置的输入边长与模型输入形状是否一致
+     *
+     * @return 模型输入的 H、W 是否均为动态维度
+     */
+    private boolean validateInputSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("inputSize 必须大于 0: " + size);
+        }
+        long[] shape;
+        try {
+            shape = this.session.getInputShape();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        if (shape.length != 4) {
+            return false;
+        }
+        this.dynamicBatch = shape[0] <= 0;
+        // float 输入为 NCHW，uint8 输入为 NHWC
+        long h = this.session.isUint8Input() ? shape[1] : shape[2];
+        long w = this.session.isUint8Input() ? shape[2] : shape[3];
+        if ((h > 0 && h != size) || (w > 0 && w != size)) {
+            throw new IllegalArgumentException("inputSize " + size + " 与模型输入尺寸不一致: " + Arrays.toString(shape));
+        }
+        return h <= 0 && w <= 0;
+    }
+
+    /**
+     * 选择本次推理的输入边长
+     * 模型为动态输入且开启自适应时，小图或文本稀疏的表格使用更小的输入，否则使用配置的 inputSize
+     *
+     * @param h            图像高度
+     * @param w            图像宽度
+     * @param textBoxCount OCR 文本框数量，未知时传 -1
+     * @return 输入边长
+     */
+    public int selectInputSize(int h, int w, int textBoxCount) {
+        if (!this.adaptiveInputSize || !this.dynamicInput) {
+            return this.inputSize;
+        }
+        // 不放大原图
+        int size = alignUp(Math.max(h, w));
+        // 按文本框数量估算网格所需分辨率：n 个框近似排成 sqrt(n) x sqrt(n)
+        if (textBoxCount >= 0) {
+            size = Math.min(size, alignUp((int) Math.ceil(Math.sqrt(textBoxCount) * PIXELS_PER_TEXT_BOX)));
+        }
+        return Math.max(this.minInputSize, Math.min(this.inputSize, size));
+    }
+
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    /**
+     * 输入边长是否取决于 OCR 文本框数量（动态输入模型且开启自适应）
+     */
+    public boolean isInputSizeAdaptive() {
+        return adaptiveInputSize && dynamicInput;
+    }
+
+    public boolean isDynamicBatch() {
+        return dynamicBatch;
+    }
+
+    /**
+     * 模型版本标识，用于持久化缓存的键
+     */
+    public String getModelVersion() {
+        return this.session.getModelVersion();
+    }
+
+    /**
+     * 推理会话，用于获取 ORT 性能分析与内存统计
+     */
+    public OrtInferSession getSession() {
+        return session;
+    }
+
+    /**
+     * 释放推理会话
+     */
+    public void close() throws OrtException {
+        this.session.close();
+    }
+
     public Triple<List<String>, List<float[]>, Double> call(Mat img) {
-        long startTime = System.currentTimeMillis();
+        return call(img, this.inputSize);
+    }
 
-        // 1. 构造待处理数据，Python 中 data = {"image": img}
-        Map<String, Object> data = new HashMap<>();
-        data.put("image", img);
+    /**
+     * 以指定输入边长推理
+     *
+     * @param img       图像
+     * @param inputSize 输入边长，见 {@link #selectInputSize(int, int, int)}
+     */
+    public Triple<List<String>, List<float[]>, Double> call(Mat img, int inputSize) {
+        return callBatch(Collections.singletonList(img), inputSize).get(0);
+    }
 
-        // 2. 进行预处理： data = self.preprocess_op(data)
-        Map<String, Object> processedData = this.preprocessOp.call(data);
-        if (processedData == null) {
-            return Triple.of(null, null, 0.0);
-        }
+    /**
+     * 多张图像组成一个 batch 推理，所有图像使用相同的输入边长
+     * 模型 batch 维度固定时退化为逐张推理
+     *
+     * @param imgs      图像列表
+     * @param inputSize 输入边长
+     * @return 与 imgs 一一对应的 (structure_str_list, bbox_list, elapse)
+     */
+    public List<Triple<List<String>, List<float[]>, Double>> callBatch(List<Mat> imgs, int inputSize) {
+        return callBatch(imgs, inputSize, null);
+    }
 
-        // 3. 获取预处理结果：image数据和 shape
-        float[][][] processedImg = (float[][][]) processedData.get("image");  // 预处理后真正的图像数据
-        float[] shapeArr = (float[]) processedData.get("shape");  // 预处理后记录的 shape 信息
+    /**
+     * 同 {@link #callBatch(List, int)}，并输出每张图像结构 token 的平均置信度
+     *
+     * @param scores 非空时写入与 imgs 一一对应的平均置信度，长度不小于 imgs.size()
+     */
+    public List<Triple<List<String>, List<float[]>, Double>> callBatch(List<Mat> imgs, int inputSize, float[] scores) {
+        return callBatch(imgs, inputSize, scores, new TableTimings());
+    }
 
-        // 如果图像为空，直接返回
-        if (img == null) {
-            return Triple.of(null, null, 0.0);
+    /**
+     * 同 {@link #callBatch(List, int, float[])}，并记录预处理、构造张量、推理、解码各阶段耗时
+     */
+    public List<Triple<List<String>, List<float[]>, Double>> callBatch(List<Mat> imgs, int inputSize, float[] scores,
+                                                                      TableTimings timings) {
+        if (imgs.size() > 1 && !this.dynamicBatch) {
+            List<Triple<List<String>, List<float[]>, Double>> results = new ArrayList<>();
+            float[] score = scores == null ? null : new float[1];
+            for (int i = 0; i < imgs.size(); i++) {
+                results.add(callBatch(Collections.singletonList(imgs.get(i)), inputSize, score, timings).get(0));
+                if (scores != null) {
+                    scores[i] = score[0];
+                }
+            }
+            return results;
         }
+        // 已超时的请求不再预处理
+        timings.checkDeadline(TableStage.PREPROCESS);
+        long startTime = System.nanoTime();
+        int batchSize = imgs.size();
 
-        // 4. 将图像 expand_dim, 以匹配推理输入
-        float[][][][] inputData = expandDims(processedImg);
+        // 1、2. 逐张预处理： data = self.preprocess_op(data)
+        Object[] processedImgs = new Object[batchSize];
+        float[][] shapeList = new float[batchSize][];
+        for (int i = 0; i < batchSize; i++) {
+            Mat img = imgs.get(i);
+            // 如果图像为空，直接返回
+            if (img == null) {
+                return Collections.nCopies(batchSize, Triple.of(null, null, 0.0));
+            }
+            Map<String, Object> data = new HashMap<>();
+            data.put("image", img);
+            data.put("max_len", inputSize);
+            Map<String, Object> processedData;
+            try (TableEventSpan span = TableEvents.stage(TableStage.PREPROCESS).imageSize(img.cols(), img.rows())) {
+                processedData = this.preprocessOp.call(data);
+            }
+            if (processedData == null) {
+                return Collections.nCopies(batchSize, Triple.of(null, null, 0.0));
+            }
+            // 3. 获取预处理结果：image数据和 shape
+            processedImgs[i] = processedData.get("image");
+            shapeList[i] = (float[]) processedData.get("shape");
+        }
+        timings.record(TableStage.PREPROCESS, startTime);
 
-        // 5. 调用推理 session
+        // 4、5. 构造 batch 输入并调用推理 session
         Object[] outputs;
         try {
-            outputs = session.run(inputData);
+            long tensorStart = System.nanoTime();
+            if (this.session.isUint8Input()) {
+                // uint8 模式：直接传入补 0 后的 HWC 数据与缩放后的有效高宽，归一化、掩码与转置在模型中完成
+                int padH = (int) shapeList[0][4];
+                int padW = (int) shapeList[0][5];
+                int imageBytes = ((byte[]) processedImgs[0]).length;
+                byte[] hwcData = new byte[imageBytes * batchSize];
+                long[] validSizes = new long[batchSize * 2];
+                for (int i = 0; i < batchSize; i++) {
+                    System.arraycopy((byte[]) processedImgs[i], 0, hwcData, i * imageBytes, imageBytes);
+                    // 与 ResizeTableImage 的取整一致：shape 为 [h, w, ratio, ratio, padH, padW]
+                    validSizes[i * 2] = Math.round(shapeList[i][0] * shapeList[i][2]);
+                    validSizes[i * 2 + 1] = Math.round(shapeList[i][1] * shapeList[i][3]);
+                }
+                timings.record(TableStage.TENSOR_BUILD, tensorStart);
+                outputs = session.run(hwcData, new long[]{batchSize, padH, padW, imageBytes / (padH * padW)}, validSizes, timings);
+            } else {
+                // 预处理后真正的图像数据 [C, H, W]，组合为 [N, C, H, W]
+                float[][][][] inputData = new float[batchSize][][][];
+                for (int i = 0; i < batchSize; i++) {
+                    inputData[i] = (float[][][]) processedImgs[i];
+                }
+                outputs = session.run(inputData, timings);
+            }
+        } catch (TableTimeoutException e) {
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
-            return Triple.of(Collections.emptyList(), Collections.emptyList(), 0.0);
+            return Collections.nCopies(batchSize, Triple.of(Collections.emptyList(), Collections.emptyList(), 0.0));
         }
 
         // 6. 解析推理结果
+        long decodeStart = System.nanoTime();
         Map<String, float[][][]> preds = new HashMap<>();
         preds.put("loc_preds", (float[][][]) outputs[0]);
         preds.put("structure_probs", (float[][][]) outputs[1]);
 
-        // 7. shape_list = np.expand_dims(data[-1], axis=0)
-        float[][] shapeList = expandDimShape(shapeArr);
-
-        // 8. 调用后处理
+        // 7、8. 调用后处理, shapeList 为 [N, 6]
         List<float[][]> postprocessBatch = new ArrayList<>();
         postprocessBatch.add(shapeList);
 
-        Map<String, Object> postResult = this.postprocessOp.call(preds, postprocessBatch);
-
-        // 9. 从 postResult 中取出 bbox_list & structure_batch_list
-        List<float[]> bboxList = ((List<List<float[]>>) postResult.get("bbox_batch_list")).get(0);
-        List<String> structureBatchList = ((List<Pair<List<String>, Float>>) postResult.get("structure_batch_list")).get(0).getLeft();
-
-        // 10. 给结构前后插入 <html>, <body>, <table>, </table>, </body>, </html>
-        List<String> structureStrList = new ArrayList<>();
-        structureStrList.add("<html>");
-        structureStrList.add("<body>");
-        structureStrList.add("<table>");
-        structureStrList.addAll(structureBatchList);
-        structureStrList.add("</table>");
-        structureStrList.add("</body>");
-        structureStrList.add("</html>");
-        // 11. 计算耗时
-        double elapse = (System.currentTimeMillis() - startTime) / 1000.0;
+        Map<String, Object> postResult;
+        List<List<float[]>> bboxBatchList;
+        try (TableEventSpan span = TableEvents.stage(TableStage.LABEL_DECODE)) {
+            postResult = this.postprocessOp.call(preds, postprocessBatch);
+            bboxBatchList = (List<List<float[]>>) postResult.get("bbox_batch_list");
+            span.cellCount(bboxBatchList.stream().mapToInt(List::size).sum());
+        }
+        List<Pair<List<String>, Float>> structureBatchList = (List<Pair<List<String>, Float>>) postResult.get("structure_batch_list");
 
-        // 12. 返回 (structure_str_list, bbox_list, elapse)
-        return Triple.of(structureStrList, bboxList, elapse);
-    }
+        timings.record(TableStage.LABEL_DECODE, decodeStart);
 
-    /**
-     * 将 shapeObj (通常是 float[]) 扩展为 [1, ...]
-     */
-    private float[][] expandDimShape(float[] shapeArr) {
-        float[][] result = new float[1][shapeArr.length];
-        System.arraycopy(shapeArr, 0, result[0], 0, shapeArr.length);
-        return result;
-    }
+        // 11. 计算耗时
+        double elapse = (System.nanoTime() - startTime) / 1e9;
 
-    /**
-     * 扩展一个 batch 维度 => [1, C, H, W]
-     */
-    private float[][][][] expandDims(float[][][] permuted) {
-        int c = permuted.length;
-        int h = permuted[0].length;
-        int w = permuted[0][0].length;
-
-        float[][][][] out = new float[1][c][h][w];
-        for (int cc = 0; cc < c; cc++) {
-            for (int hh = 0; hh < h; hh++) {
-                System.arraycopy(permuted[cc][hh], 0, out[0][cc][hh], 0, w);
+        List<Triple<List<String>, List<float[]>, Double>> results = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            // 9. 从 postResult 中取出 bbox_list & structure_batch_list
+            List<float[]> bboxList = bboxBatchList.get(i);
+            List<String> structureList = structureBatchList.get(i).getLeft();
+            if (scores != null) {
+                scores[i] = structureBatchList.get(i).getRight();
             }
+
+            // 10. 给结构前后插入 <html>, <body>, <table>, </table>, </body>, </html>
+            List<String> structureStrList = new ArrayList<>();
+            structureStrList.add("<html>");
+            structureStrList.add("<body>");
+            structureStrList.add("<table>");
+            structureStrList.addAll(structureList);
+            structureStrList.add("</table>");
+            structureStrList.add("</body>");
+            structureStrList.add("</html>");
+
+            // 12. 返回 (structure_str_list, bbox_list, elapse)
+            results.add(Triple.of(structureStrList, bboxList, elapse));
         }
-        return out;
+        return results;
+    }
+
+    private static int alignUp(int value) {
+        return (value + SIZE_ALIGN - 1) / SIZE_ALIGN * SIZE_ALIGN;
     }
 }
@@ -0,0 +1,246 @@
+package io.github.hzkitty.rapidtable.tablestructure;
+
+import io.github.hzkitty.entity.Pair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 超长表格的分块推理：按 OCR 文本行之间的空隙把图像切成互相重叠的横向条带，
+ * 各条带分别推理后，按行拼接为一个完整表格
+ */
+public class TableTiler {
+
+    // 单元格起始 token，每个对应一个 bbox
+    private static final List<String> TD_TOKENS = Arrays.asList("<td>", "<td", "<td></td>");
+
+    // 高宽比超过该值时分块
+    private final float triggerRatio;
+    // 条带高度与图像宽度之比
+    private final float tileHeightRatio;
+    // 条带上下重叠的高度与条带高度之比
+    private final float overlapRatio;
+
+    public TableTiler(float triggerRatio, float tileHeightRatio, float overlapRatio) {
+        this.triggerRatio = triggerRatio;
+        this.tileHeightRatio = tileHeightRatio;
+        this.overlapRatio = overlapRatio;
+    }
+
+    /**
+     * 是否需要分块
+     */
+    public boolean shouldTile(int h, int w) {
+        return w > 0 && h > triggerRatio * w;
+    }
+
+    /**
+     * 规划条带
+     *
+     * @param h       图像高度
+     * @param w       图像宽度
+     * @param dtBoxes OCR 文本框 [x0, y0, x1, y1]，用于寻找行边界
+     * @return 每个条带 [cropStart, cropEnd, ownStart, ownEnd]：crop 为实际裁剪范围（含重叠），
+     * own 为该条带负责输出的范围，相邻条带的 own 首尾相接
+     */
+    public List<int[]> planStrips(int h, int w, List<float[]> dtBoxes) {
+        int[] boundaries = findRowBoundaries(dtBoxes, h);
+        int stripH = Math.max(1, Math.round(w * tileHeightRatio));
+        int overlap = Math.round(stripH * overlapRatio);
+
+        List<int[]> strips = new ArrayList<>();
+        int start = 0;
+        while (start < h) {
+            int end;
+            if (start + stripH >= h) {
+                end = h;
+            } else {
+                // 在 (start + stripH / 2, start + stripH] 内取最靠后的行边界，找不到时硬切
+                end = start + stripH;
+                for (int b : boundaries) {
+                    if (b > start + stripH / 2 && b <= start + stripH) {
+                        end = b;
+                    }
+                }
+            }
+            // 裁剪范围向外扩展 overlap，并对齐到行边界，避免切断文字
+            int cropStart = snapDown(boundaries, start - overlap);
+            int cropEnd = snapUp(boundaries, end + overlap, h);
+            strips.add(new int[]{cropStart, cropEnd, start, end});
+            start = end;
+        }
+        return strips;
+    }
+
+    /**
+     * 拼接各条带的结构与单元格框
+     *
+     * @param strips     {@link #planStrips} 的结果
+     * @param structures 各条带的结构 token 序列
+     * @param bboxes     各条带的单元格框，已映射到原图坐标
+     * @return 拼接后的 (structure_str_list, bbox_list)
+     */
+    public Pair<List<String>, List<float[]>> stitch(List<int[]> strips, List<List<String>> structures, List<List<float[]>> bboxes) {
+        List<String> stitched = new ArrayList<>();
+        List<float[]> stitchedBoxes = new ArrayList<>();
+        stitched.add("<html>");
+        stitched.add("<body>");
+        stitched.add("<table>");
+
+        for (int k = 0; k < strips.size(); k++) {
+            if (structures.get(k) == null) {
+                continue;
+            }
+            int ownStart = strips.get(k)[2];
+            int ownEnd = strips.get(k)[3];
+
+            // 1. 只保留行中心落在 own 范围内的行
+            List<Row> keptRows = new ArrayList<>();
+            for (Row row : parseRows(structures.get(k), bboxes.get(k))) {
+                float cy = row.centerY();
+                if (!Float.isNaN(cy) && cy >= ownStart && cy < ownEnd) {
+                    keptRows.add(row);
+                }
+            }
+
+            // 2. rowspan 不能跨出本条带保留的行
+            for (int r = 0; r < keptRows.size(); r++) {
+                keptRows.get(r).clampRowspan(keptRows.size() - r);
+            }
+            for (Row row : keptRows) {
+                stitched.addAll(row.tokens);
+                stitchedBoxes.addAll(row.boxes);
+            }
+        }
+
+        stitched.add("</table>");
+        stitched.add("</body>");
+        stitched.add("</html>");
+        return Pair.of(stitched, stitchedBoxes);
+    }
+
+    /**
+     * 将结构 token 序列拆成行，每行包含 &lt;tr&gt; ... &lt;/tr&gt; 及其单元格框
+     */
+    private List<Row> parseRows(List<String> structure, List<float[]> boxes) {
+        List<Row> rows = new ArrayList<>();
+        Row current = null;
+        int boxIdx = 0;
+        for (String token : structure) {
+            if ("<tr>".equals(token)) {
+                current = new Row();
+            }
+            if (TD_TOKENS.contains(token)) {
+                if (current != null && boxIdx < boxes.size()) {
+                    current.boxes.add(boxes.get(boxIdx));
+                }
+                boxIdx++;
+            }
+            if (current != null) {
+                current.tokens.add(token);
+            }
+            if ("</tr>".equals(token) && current != null) {
+                rows.add(current);
+                current = null;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 由 OCR 文本框的纵向覆盖区间求行之间的空隙，返回空隙中点
+     */
+    private int[] findRowBoundaries(List<float[]> dtBoxes, int h) {
+        List<float[]> sorted = new ArrayList<>(dtBoxes);
+        sorted.sort(Comparator.comparingDouble(b -> b[1]));
+
+        List<Integer> boundaries = new ArrayList<>();
+        float coveredEnd = -1;
+        for (float[] box : sorted) {
+            if (coveredEnd >= 0 && box[1] > coveredEnd) {
+                boundaries.add(Math.round((coveredEnd + box[1]) / 2));
+            }
+            coveredEnd = Math.max(coveredEnd, box[3]);
+        }
+        int[] result = new int[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Math.min(h, Math.max(0, boundaries.get(i)));
+        }
+        return result;
+    }
+
+    private static int snapDown(int[] boundaries, int y) {
+        if (y <= 0) {
+            return 0;
+        }
+        int snapped = 0;
+        for (int b : boundaries) {
+            if (b <= y) {
+                snapped = b;
+            }
+        }
+        return snapped;
+    }
+
+    private static int snapUp(int[] boundaries, int y, int h) {
+        if (y >= h) {
+            return h;
+        }
+        for (int b : boundaries) {
+            if (b >= y) {
+                return b;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * 一行的 token 及单元格框
+     */
+    private static class Row {
+        private final List<String> tokens = new ArrayList<>();
+        private final List<float[]> boxes = new ArrayList<>();
+
+        float centerY() {
+            if (boxes.isEmpty()) {
+                return Float.NaN;
+            }
+            float sum = 0;
+            for (float[] box : boxes) {
+                float y0 = Float.MAX_VALUE;
+                float y1 = -Float.MAX_VALUE;
+                for (int j = 1; j < box.length; j += 2) {
+                    y0 = Math.min(y0, box[j]);
+                    y1 = Math.max(y1, box[j]);
+                }
+                sum += (y0 + y1) / 2;
+            }
+            return sum / boxes.size();
+        }
+
+        void clampRowspan(int maxRowspan) {
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                if (!token.contains("rowspan=")) {
+                    continue;
+                }
+                int rowspan;
+                try {
+                    rowspan = Integer.parseInt(token.replaceAll("[^0-9]", ""));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (rowspan <= maxRowspan) {
+                    continue;
+                }
+                if (maxRowspan <= 1) {
+                    tokens.remove(i--);
+                } else {
+                    tokens.set(i, " rowspan=\"" + maxRowspan + "\"");
+                }
+            }
+        }
+    }
+}
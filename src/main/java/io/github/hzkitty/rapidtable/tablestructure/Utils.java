@@ -195,12 +195,33 @@ class TableLabelDecode {
 }
 
 class TablePreprocess {
+    // 归一化参数，uint8 输入模式下会被写入派生模型
+    static final double NORM_SCALE = 1.0 / 255.0;
+    static final Scalar NORM_MEAN = new Scalar(0.485, 0.456, 0.406);
+    static final Scalar NORM_STD = new Scalar(0.229, 0.224, 0.225);
+
     private int tableMaxLen = 488;
+    // 是否输出 uint8 HWC 数据（归一化交给模型完成）
+    private boolean uint8Input;
     // 预处理操作列表
     private List<Map<String, Object>> preProcessList;
     private List<Operator> ops;
 
     public TablePreprocess() {
+        this(488, false);
+    }
+
+    public TablePreprocess(boolean uint8Input) {
+        this(488, uint8Input);
+    }
+
+    /**
+     * @param tableMaxLen 默认输入边长，可在 data 中通过 "max_len" 按次覆盖
+     * @param uint8Input  是否输出 uint8 HWC 数据
+     */
+    public TablePreprocess(int tableMaxLen, boolean uint8Input) {
+        this.tableMaxLen = tableMaxLen;
+        this.uint8Input = uint8Input;
         buildPreProcessList();
         this.ops = createOperators();
     }
@@ -265,6 +286,8 @@ class TablePreprocess {
             return new NormalizeImageOperator(scale, mean, std, order);
         } else if ("ToCHWImage".equals(opName)) {
             return new ToCHWImageOperator();
+        } else if ("ToHWCBytes".equals(opName)) {
+            return new ToHWCBytesOperator();
         } else if ("KeepKeys".equals(opName)) {
             Map<String, Object> p = (Map<String, Object>) param;
             List<String> keepKeys = (List<String>) p.get("keep_keys");
@@ -286,9 +309,9 @@ class TablePreprocess {
 
         Map<String, Object> normalizeOp = new HashMap<>();
         Map<String, Object> normParam = new HashMap<>();
-        normParam.put("std", new Scalar(0.229, 0.224, 0.225));
-        normParam.put("mean", new Scalar(0.485, 0.456, 0.406));
-        normParam.put("scale", 1.0 / 255.0);
+        normParam.put("std", NORM_STD);
+        normParam.put("mean", NORM_MEAN);
+        normParam.put("scale", NORM_SCALE);
         normParam.put("order", "hwc");
         normalizeOp.put("NormalizeImage", normParam);
 
@@ -298,7 +321,7 @@ class TablePreprocess {
         padOp.put("PaddingTableImage", padParam);
 
         Map<String, Object> tochwOp = new HashMap<>();
-        tochwOp.put("ToCHWImage", null);
+        tochwOp.put(uint8Input ? "ToHWCBytes" : "ToCHWImage", null);
 
         Map<String, Object> keepKeysOp = new HashMap<>();
         Map<String, Object> keepKeysParam = new HashMap<>();
@@ -307,7 +330,10 @@ class TablePreprocess {
 
         // 注意顺序
         this.preProcessList.add(resizeOp);
-        this.preProcessList.add(normalizeOp);
+        // uint8 模式的归一化在模型中完成，模型按有效高宽将补 0 区域的归一化结果置 0
+        if (!uint8Input) {
+            this.preProcessList.add(normalizeOp);
+        }
         this.preProcessList.add(padOp);
         this.preProcessList.add(tochwOp);
         this.preProcessList.add(keepKeysOp);
@@ -337,6 +363,8 @@ class ResizeTableImageOperator implements Operator {
         Mat img = (Mat) data.get("image");
         int height = img.rows();
         int width = img.cols();
+        // data 中的 max_len 优先，用于按图选择输入尺寸
+        int maxLen = data.containsKey("max_len") ? (int) data.get("max_len") : this.maxLen;
         float ratio = (float) maxLen / Math.max(height, width);
         int resizeH = Math.round(height * ratio);
         int resizeW = Math.round(width * ratio);
@@ -377,6 +405,9 @@ class PaddingTableImageOperator implements Operator {
         Mat img = (Mat) data.get("image");
         int height = img.rows();
         int width = img.cols();
+        // 与 ResizeTableImage 保持一致，按次覆盖填充尺寸
+        int padH = data.containsKey("max_len") ? (int) data.get("max_len") : this.padH;
+        int padW = data.containsKey("max_len") ? (int) data.get("max_len") : this.padW;
 
         // 创建一个新图，用于填充
         Mat paddingImg = Mat.zeros(padH, padW, img.type());
@@ -478,6 +509,24 @@ class ToCHWImageOperator implements Operator {
     }
 }
 
+class ToHWCBytesOperator implements Operator {
+    @Override
+    public Map<String, Object> apply(Map<String, Object> data) {
+        Mat img = (Mat) data.get("image");
+        if (img.type() != CvType.CV_8UC3) {
+            img.convertTo(img, CvType.CV_8UC3);
+        }
+        if (!img.isContinuous()) {
+            img = img.clone();
+        }
+        // (H,W,C) 的连续 uint8 数据，直接作为模型输入
+        byte[] bytes = new byte[(int) (img.total() * img.channels())];
+        img.get(0, 0, bytes);
+        data.put("image", bytes);
+        return data;
+    }
+}
+
 class KeepKeysOperator implements Operator {
     private List<String> keepKeys;
 
@@ -0,0 +1,313 @@
+package io.github.hzkitty.rapidtable.tablestructure;
+
+import io.github.hzkitty.entity.Triple;
+import io.github.hzkitty.rapidtable.tabledetector.TableRegionDetector;
+import org.opencv.core.*;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 有线表格的快速结构识别：不经过神经网络，直接由横线、竖线还原网格、合并单元格
+ * <p>
+ * 输出与 {@link TableStructurer#call(Mat)} 相同的 (structure_str_list, bbox_list, elapse)。
+ * 图像不是完整的有线表格时返回 null，由调用方回退到模型推理，因此本类同时充当路由判断。
+ */
+public class WiredTableStructurer {
+
+    // 线条提取前的最大边长
+    private static final int MAX_SIDE = 1600;
+    // 判断某段分隔线存在时，线条像素需要覆盖的比例
+    private static final double SEPARATOR_COVERAGE = 0.6;
+    // 外边框需要存在的比例
+    private static final double BORDER_COVERAGE = 0.9;
+    // 允许跨越分隔线的文本框比例，超过说明网格不可信
+    private static final double MAX_STRADDLE_RATIO = 0.2;
+
+    /**
+     * 识别有线表格结构
+     *
+     * @param img     表格图像
+     * @param dtBoxes OCR 文本框 [x0, y0, x1, y1]，用于校验网格，可为空
+     * @return (structure_str_list, bbox_list, elapse)；不是有线表格时返回 null
+     */
+    public Triple<List<String>, List<float[]>, Double> call(Mat img, List<float[]> dtBoxes) {
+        long startTime = System.currentTimeMillis();
+        int h = img.rows();
+        int w = img.cols();
+        double scale = Math.min(1.0, (double) MAX_SIDE / Math.max(h, w));
+
+        // 1. 二值化并提取横线、竖线
+        Mat gray = new Mat();
+        if (img.channels() == 3) {
+            Imgproc.cvtColor(img, gray, Imgproc.COLOR_BGR2GRAY);
+        } else {
+            img.copyTo(gray);
+        }
+        if (scale < 1.0) {
+            Imgproc.resize(gray, gray, new Size(Math.round(w * scale), Math.round(h * scale)), 0, 0, Imgproc.INTER_AREA);
+        }
+        Mat binary = new Mat();
+        Imgproc.adaptiveThreshold(gray, binary, 255, Imgproc.ADAPTIVE_THRESH_MEAN_C, Imgproc.THRESH_BINARY_INV, 15, 10);
+        Mat[] lines = TableRegionDetector.extractLines(binary);
+        Mat horizontal = lines[0];
+        Mat vertical = lines[1];
+
+        // 2. 投影得到横线的 y 坐标、竖线的 x 坐标
+        int[] ys = linePositions(horizontal, 1);
+        int[] xs = linePositions(vertical, 0);
+        if (ys.length < 2 || xs.length < 2) {
+            return null;
+        }
+        int rows = ys.length - 1;
+        int cols = xs.length - 1;
+
+        // 3. 判断每段内部分隔线是否存在
+        // vSep[i][j]: 第 i 行中第 j 列与第 j+1 列之间的竖线；hSep[i][j]: 第 i 行与第 i+1 行在第 j 列的横线
+        boolean[][] vSep = new boolean[rows][cols + 1];
+        boolean[][] hSep = new boolean[rows + 1][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j <= cols; j++) {
+                vSep[i][j] = hasVerticalSegment(vertical, xs[j], ys[i], ys[i + 1]);
+            }
+        }
+        for (int i = 0; i <= rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                hSep[i][j] = hasHorizontalSegment(horizontal, ys[i], xs[j], xs[j + 1]);
+            }
+        }
+
+        // 4. 必须有完整外边框
+        int borderSegments = 2 * rows + 2 * cols;
+        int borderPresent = 0;
+        for (int i = 0; i < rows; i++) {
+            borderPresent += (vSep[i][0] ? 1 : 0) + (vSep[i][cols] ? 1 : 0);
+        }
+        for (int j = 0; j < cols; j++) {
+            borderPresent += (hSep[0][j] ? 1 : 0) + (hSep[rows][j] ? 1 : 0);
+        }
+        if (borderPresent < BORDER_COVERAGE * borderSegments) {
+            return null;
+        }
+
+        // 5. 缺失的分隔线即为合并单元格，合并后必须为矩形
+        int[][] owner = mergeCells(rows, cols, vSep, hSep);
+        if (owner == null) {
+            return null;
+        }
+
+        // 6. 文本框大量跨越分隔线，说明网格与内容不符
+        if (dtBoxes != null && countStraddles(dtBoxes, scale, xs, ys, vSep) > MAX_STRADDLE_RATIO * Math.max(1, dtBoxes.size())) {
+            return null;
+        }
+
+        // 7. 按行输出结构 token 及单元格框（映射回原图坐标）
+        List<String> structure = new ArrayList<>();
+        List<float[]> bboxes = new ArrayList<>();
+        structure.add("<html>");
+        structure.add("<body>");
+        structure.add("<table>");
+        for (int i = 0; i < rows; i++) {
+            structure.add("<tr>");
+            for (int j = 0; j < cols; j++) {
+                int id = owner[i][j];
+                // 只在合并单元格的左上角输出
+                if ((i > 0 && owner[i - 1][j] == id) || (j > 0 && owner[i][j - 1] == id)) {
+                    continue;
+                }
+                int r1 = i;
+                while (r1 + 1 < rows && owner[r1 + 1][j] == id) {
+                    r1++;
+                }
+                int c1 = j;
+                while (c1 + 1 < cols && owner[i][c1 + 1] == id) {
+                    c1++;
+                }
+                int rowspan = r1 - i + 1;
+                int colspan = c1 - j + 1;
+                if (rowspan == 1 && colspan == 1) {
+                    structure.add("<td></td>");
+                } else {
+                    structure.add("<td");
+                    if (colspan > 1) {
+                        structure.add(" colspan=\"" + colspan + "\"");
+                    }
+                    if (rowspan > 1) {
+                        structure.add(" rowspan=\"" + rowspan + "\"");
+                    }
+                    structure.add(">");
+                    structure.add("</td>");
+                }
+                bboxes.add(new float[]{
+                        (float) (xs[j] / scale), (float) (ys[i] / scale),
+                        (float) (xs[c1 + 1] / scale), (float) (ys[r1 + 1] / scale)});
+            }
+            structure.add("</tr>");
+        }
+        structure.add("</table>");
+        structure.add("</body>");
+        structure.add("</html>");
+
+        double elapse = (System.currentTimeMillis() - startTime) / 1000.0;
+        return Triple.of(structure, bboxes, elapse);
+    }
+
+    /**
+     * 对线条图投影，返回每条线的中心坐标
+     *
+     * @param lineMask 线条二值图
+     * @param dim      1: 按行求和得到横线 y；0: 按列求和得到竖线 x
+     */
+    private int[] linePositions(Mat lineMask, int dim) {
+        Mat projection = new Mat();
+        Core.reduce(lineMask, projection, dim, Core.REDUCE_SUM, CvType.CV_32S);
+        int[] counts = new int[(int) projection.total()];
+        projection.get(0, 0, counts);
+
+        int max = 0;
+        for (int c : counts) {
+            max = Math.max(max, c);
+        }
+        // 部分长度的分隔线（合并单元格附近）也需要保留
+        double threshold = Math.max(255.0 * 10, 0.15 * max);
+
+        List<Integer> positions = new ArrayList<>();
+        int runStart = -1;
+        for (int i = 0; i <= counts.length; i++) {
+            boolean on = i < counts.length && counts[i] >= threshold;
+            if (on && runStart < 0) {
+                runStart = i;
+            } else if (!on && runStart >= 0) {
+                positions.add((runStart + i - 1) / 2);
+                runStart = -1;
+            }
+        }
+        // 过近的线视为同一条
+        List<Integer> merged = new ArrayList<>();
+        for (int p : positions) {
+            if (!merged.isEmpty() && p - merged.get(merged.size() - 1) < 5) {
+                continue;
+            }
+            merged.add(p);
+        }
+        int[] result = new int[merged.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = merged.get(i);
+        }
+        return result;
+    }
+
+    private boolean hasVerticalSegment(Mat vertical, int x, int y0, int y1) {
+        int margin = Math.max(1, (y1 - y0) / 5);
+        int top = y0 + margin;
+        int bottom = y1 - margin;
+        int left = Math.max(0, x - 3);
+        int right = Math.min(vertical.cols(), x + 4);
+        if (bottom <= top || right <= left) {
+            return true;
+        }
+        Mat band = new Mat();
+        Core.reduce(vertical.submat(top, bottom, left, right), band, 1, Core.REDUCE_MAX);
+        return Core.countNonZero(band) >= SEPARATOR_COVERAGE * (bottom - top);
+    }
+
+    private boolean hasHorizontalSegment(Mat horizontal, int y, int x0, int x1) {
+        int margin = Math.max(1, (x1 - x0) / 5);
+        int left = x0 + margin;
+        int right = x1 - margin;
+        int top = Math.max(0, y - 3);
+        int bottom = Math.min(horizontal.rows(), y + 4);
+        if (right <= left || bottom <= top) {
+            return true;
+        }
+        Mat band = new Mat();
+        Core.reduce(horizontal.submat(top, bottom, left, right), band, 0, Core.REDUCE_MAX);
+        return Core.countNonZero(band) >= SEPARATOR_COVERAGE * (right - left);
+    }
+
+    /**
+     * 按缺失的分隔线合并网格，返回每个网格所属单元格的编号；合并结果不是矩形时返回 null
+     */
+    private int[][] mergeCells(int rows, int cols, boolean[][] vSep, boolean[][] hSep) {
+        int[] parent = new int[rows * cols];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (j + 1 < cols && !vSep[i][j + 1]) {
+                    union(parent, i * cols + j, i * cols + j + 1);
+                }
+                if (i + 1 < rows && !hSep[i + 1][j]) {
+                    union(parent, i * cols + j, (i + 1) * cols + j);
+                }
+            }
+        }
+
+        int[][] owner = new int[rows][cols];
+        int[] minR = new int[parent.length];
+        int[] maxR = new int[parent.length];
+        int[] minC = new int[parent.length];
+        int[] maxC = new int[parent.length];
+        int[] count = new int[parent.length];
+        Arrays.fill(minR, Integer.MAX_VALUE);
+        Arrays.fill(minC, Integer.MAX_VALUE);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int root = find(parent, i * cols + j);
+                owner[i][j] = root;
+                minR[root] = Math.min(minR[root], i);
+                maxR[root] = Math.max(maxR[root], i);
+                minC[root] = Math.min(minC[root], j);
+                maxC[root] = Math.max(maxC[root], j);
+                count[root]++;
+            }
+        }
+        for (int root = 0; root < parent.length; root++) {
+            if (count[root] > 0 && count[root] != (maxR[root] - minR[root] + 1) * (maxC[root] - minC[root] + 1)) {
+                return null;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * 统计跨越已存在竖向分隔线的文本框数量
+     */
+    private int countStraddles(List<float[]> dtBoxes, double scale, int[] xs, int[] ys, boolean[][] vSep) {
+        int straddles = 0;
+        for (float[] box : dtBoxes) {
+            double x0 = box[0] * scale;
+            double x1 = box[2] * scale;
+            double cy = (box[1] + box[3]) / 2.0 * scale;
+            if (cy < ys[0] || cy >= ys[ys.length - 1]) {
+                continue;
+            }
+            int row = 0;
+            while (row + 1 < ys.length - 1 && ys[row + 1] <= cy) {
+                row++;
+            }
+            for (int j = 1; j < xs.length - 1; j++) {
+                if (xs[j] > x0 + 3 && xs[j] < x1 - 3 && vSep[row][j]) {
+                    straddles++;
+                    break;
+                }
+            }
+        }
+        return straddles;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        parent[find(parent, a)] = find(parent, b);
+    }
+}
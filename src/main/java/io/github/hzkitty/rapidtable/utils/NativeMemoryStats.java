@@ -0,0 +1,129 @@
+package io.github.hzkitty.rapidtable.utils;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 进程内存快照：常驻内存（RSS）、JVM 堆外缓冲区与堆
+ * <p>
+ * ONNX Runtime 的 Java API 不提供 arena 统计，ORT 原生分配只能通过 RSS 与堆外缓冲区之差近似观察；
+ * 比较会话创建前、推理若干次后的快照，即可看出 arena 的增长。
+ */
+public final class NativeMemoryStats {
+
+    private static final Path PROC_STATUS = Paths.get("/proc/self/status");
+
+    // 常驻内存，无法获取（非 Linux）时为 -1
+    private final long rssBytes;
+    // DirectByteBuffer 占用
+    private final long directBytes;
+    private final long directCount;
+    // MappedByteBuffer 占用（如结构存储）
+    private final long mappedBytes;
+    private final long heapUsedBytes;
+    private final long timestamp;
+
+    private NativeMemoryStats(long rssBytes, long directBytes, long directCount, long mappedBytes, long heapUsedBytes) {
+        this.rssBytes = rssBytes;
+        this.directBytes = directBytes;
+        this.directCount = directCount;
+        this.mappedBytes = mappedBytes;
+        this.heapUsedBytes = heapUsedBytes;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public static NativeMemoryStats capture() {
+        long directBytes = 0;
+        long directCount = 0;
+        long mappedBytes = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                directBytes = pool.getMemoryUsed();
+                directCount = pool.getCount();
+            } else if ("mapped".equals(pool.getName())) {
+                mappedBytes = pool.getMemoryUsed();
+            }
+        }
+        long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        return new NativeMemoryStats(readRss(), directBytes, directCount, mappedBytes, heapUsed);
+    }
+
+    private static long readRss() {
+        if (!Files.isReadable(PROC_STATUS)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    // VmRSS:	  123456 kB
+                    String[] parts = line.substring(6).trim().split("\\s+");
+                    return Long.parseLong(parts[0]) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+
+    public long getRssBytes() {
+        return rssBytes;
+    }
+
+    public long getDirectBytes() {
+        return directBytes;
+    }
+
+    public long getDirectCount() {
+        return directCount;
+    }
+
+    public long getMappedBytes() {
+        return mappedBytes;
+    }
+
+    public long getHeapUsedBytes() {
+        return heapUsedBytes;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * 估算的原生内存（ORT arena、OpenCV 等）：RSS 减去堆与堆外缓冲区，无法获取 RSS 时为 -1
+     */
+    public long getEstimatedNativeBytes() {
+        return rssBytes < 0 ? -1 : Math.max(0, rssBytes - heapUsedBytes - directBytes - mappedBytes);
+    }
+
+    /**
+     * 相对于 base 的原生内存增长，无法获取 RSS 时为 0
+     */
+    public long nativeGrowthSince(NativeMemoryStats base) {
+        if (rssBytes < 0 || base.rssBytes < 0) {
+            return 0;
+        }
+        return getEstimatedNativeBytes() - base.getEstimatedNativeBytes();
+    }
+
+    @Override
+    public String toString() {
+        return "NativeMemoryStats{" +
+                "rss=" + mb(rssBytes) +
+                ", estimatedNative=" + mb(getEstimatedNativeBytes()) +
+                ", direct=" + mb(directBytes) + " (" + directCount + " buffers)" +
+                ", mapped=" + mb(mappedBytes) +
+                ", heapUsed=" + mb(heapUsedBytes) +
+                '}';
+    }
+
+    private static String mb(long bytes) {
+        return bytes < 0 ? "n/a" : String.format("%.1fMB", bytes / 1048576.0);
+    }
+}
@@ -0,0 +1,211 @@
+package io.github.hzkitty.rapidtable.utils;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 最小 JSON 解析器，用于读取 ORT profile、请求记录等内部文件，不引入 JSON 依赖
+ * <p>
+ * 对象解析为 LinkedHashMap，数组为 ArrayList，整数为 Long，其余数字为 Double，另有 String、Boolean、null。
+ */
+public final class SimpleJson {
+
+    private final PushbackReader in;
+
+    private SimpleJson(Reader reader) {
+        this.in = new PushbackReader(reader, 1);
+    }
+
+    public static Object parse(String json) {
+        try {
+            return parse(new StringReader(json));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 解析一个 JSON 值，不关闭 reader
+     */
+    public static Object parse(Reader reader) throws IOException {
+        SimpleJson parser = new SimpleJson(reader);
+        Object value = parser.readValue();
+        if (parser.peek() != -1) {
+            throw new IllegalArgumentException("JSON 末尾存在多余内容");
+        }
+        return value;
+    }
+
+    private Object readValue() throws IOException {
+        int c = peek();
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                expect("true");
+                return Boolean.TRUE;
+            case 'f':
+                expect("false");
+                return Boolean.FALSE;
+            case 'n':
+                expect("null");
+                return null;
+            case -1:
+                throw new IllegalArgumentException("JSON 意外结束");
+            default:
+                return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        in.read();
+        if (peek() == '}') {
+            in.read();
+            return map;
+        }
+        while (true) {
+            if (peek() != '"') {
+                throw new IllegalArgumentException("JSON 对象的键必须为字符串");
+            }
+            String key = readString();
+            if (peek() != ':') {
+                throw new IllegalArgumentException("JSON 缺少 ':'");
+            }
+            in.read();
+            map.put(key, readValue());
+            int c = peek();
+            in.read();
+            if (c == '}') {
+                return map;
+            }
+            if (c != ',') {
+                throw new IllegalArgumentException("JSON 对象缺少 ',' 或 '}'");
+            }
+        }
+    }
+
+    private List<Object> readArray() throws IOException {
+        List<Object> list = new ArrayList<>();
+        in.read();
+        if (peek() == ']') {
+            in.read();
+            return list;
+        }
+        while (true) {
+            list.add(readValue());
+            int c = peek();
+            in.read();
+            if (c == ']') {
+                return list;
+            }
+            if (c != ',') {
+                throw new IllegalArgumentException("JSON 数组缺少 ',' 或 ']'");
+            }
+        }
+    }
+
+    private String readString() throws IOException {
+        in.read();
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            int c = in.read();
+            if (c == -1) {
+                throw new IllegalArgumentException("JSON 字符串未结束");
+            }
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append((char) c);
+                continue;
+            }
+            c = in.read();
+            switch (c) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    char[] hex = new char[4];
+                    for (int i = 0; i < 4; i++) {
+                        hex[i] = (char) in.read();
+                    }
+                    sb.append((char) Integer.parseInt(new String(hex), 16));
+                    break;
+                default:
+                    sb.append((char) c);
+            }
+        }
+    }
+
+    private Number readNumber() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        boolean integral = true;
+        int c;
+        while ((c = in.read()) != -1 && (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9'))) {
+            if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+            }
+            sb.append((char) c);
+        }
+        if (c != -1) {
+            in.unread(c);
+        }
+        if (sb.length() == 0) {
+            throw new IllegalArgumentException("JSON 非法字符: " + (char) c);
+        }
+        String text = sb.toString();
+        if (integral) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                // 超出 long 范围时按 double 处理
+            }
+        }
+        return Double.parseDouble(text);
+    }
+
+    private void expect(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (in.read() != literal.charAt(i)) {
+                throw new IllegalArgumentException("JSON 期望 " + literal);
+            }
+        }
+    }
+
+    /**
+     * 跳过空白并返回下一个字符（不消费），结束时返回 -1
+     */
+    private int peek() throws IOException {
+        int c;
+        do {
+            c = in.read();
+        } while (c == ' ' || c == '\t' || c == '\n' || c == '\r');
+        if (c != -1) {
+            in.unread(c);
+        }
+        return c;
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.hzkitty.rapidtable.utils;
+
+/**
+ * 一段可观测的执行区间，由 {@link TableEvents} 创建，close 时结束
+ * <p>
+ * 本类的方法均为空实现；Java 11 及以上运行时由多版本 jar 中的实现记录为 JFR 事件，
+ * 未开启对应事件时返回共享的空实现，不产生额外开销。
+ */
+public class TableEventSpan implements AutoCloseable {
+
+    static final TableEventSpan NOOP = new TableEventSpan();
+
+    protected TableEventSpan() {
+    }
+
+    public TableEventSpan imageSize(int width, int height) {
+        return this;
+    }
+
+    public TableEventSpan ocrBoxCount(int count) {
+        return this;
+    }
+
+    public TableEventSpan cellCount(int count) {
+        return this;
+    }
+
+    public TableEventSpan inputShape(long[] shape) {
+        return this;
+    }
+
+    /**
+     * 是否正在记录事件；记录时调用方在区间内完成延迟计算的阶段，使其计入本事件
+     */
+    public boolean isRecording() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+    }
+}
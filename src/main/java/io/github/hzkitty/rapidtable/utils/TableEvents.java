@@ -0,0 +1,36 @@
+package io.github.hzkitty.rapidtable.utils;
+
+import io.github.hzkitty.rapidtable.entity.TableStage;
+
+/**
+ * 流水线的 Java Flight Recorder 事件
+ * <p>
+ * Java 8 下为空实现；多版本 jar 的 META-INF/versions/11 中同名类发出 jdk.jfr 自定义事件
+ * （io.github.hzkitty.rapidtable.Run / Stage / OrtRun），可在 JMC 中按图像尺寸、单元格数、OCR 框数与 GC、分配关联分析。
+ */
+public final class TableEvents {
+
+    private TableEvents() {
+    }
+
+    /**
+     * 一次 RapidTable.run
+     */
+    public static TableEventSpan run() {
+        return TableEventSpan.NOOP;
+    }
+
+    /**
+     * 流水线阶段（预处理、解码、匹配等）
+     */
+    public static TableEventSpan stage(TableStage stage) {
+        return TableEventSpan.NOOP;
+    }
+
+    /**
+     * 一次 OrtSession.run，线程由 JFR 自动记录
+     */
+    public static TableEventSpan ortRun() {
+        return TableEventSpan.NOOP;
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.hzkitty.rapidtable.utils;
+
+import io.github.hzkitty.rapidtable.entity.TableCell;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 将单元格列表直接写为 CSV、JSON，无需再解析 HTML
+ * <p>
+ * 按行流式写出，不在内存中拼接完整字符串
+ */
+public final class TableGridWriter {
+
+    private TableGridWriter() {
+    }
+
+    /**
+     * 写出 CSV：每个逻辑行一行，合并单元格的文本写在左上角，其余被覆盖的位置为空
+     */
+    public static void writeCsv(List<TableCell> cells, Writer out) throws IOException {
+        int rows = 0;
+        int cols = 0;
+        for (TableCell cell : cells) {
+            rows = Math.max(rows, cell.getRowEnd() + 1);
+            cols = Math.max(cols, cell.getColEnd() + 1);
+        }
+        // 按起始行分桶
+        List<List<TableCell>> byRow = new ArrayList<>(rows);
+        for (int r = 0; r < rows; r++) {
+            byRow.add(new ArrayList<>());
+        }
+        for (TableCell cell : cells) {
+            byRow.get(cell.getRowStart()).add(cell);
+        }
+
+        String[] line = new String[cols];
+        for (int r = 0; r < rows; r++) {
+            Arrays.fill(line, "");
+            for (TableCell cell : byRow.get(r)) {
+                line[cell.getColStart()] = cell.getText();
+            }
+            for (int c = 0; c < cols; c++) {
+                if (c > 0) {
+                    out.write(',');
+                }
+                writeCsvField(line[c], out);
+            }
+            out.write("\r\n");
+        }
+        out.flush();
+    }
+
+    /**
+     * 写出 JSON：{"rows": R, "cols": C, "cells": [{"row_start", "row_end", "col_start", "col_end", "box", "text", "confidence"}, ...]}
+     */
+    public static void writeJson(List<TableCell> cells, Writer out) throws IOException {
+        int rows = 0;
+        int cols = 0;
+        for (TableCell cell : cells) {
+            rows = Math.max(rows, cell.getRowEnd() + 1);
+            cols = Math.max(cols, cell.getColEnd() + 1);
+        }
+        out.write("{\"rows\":" + rows + ",\"cols\":" + cols + ",\"cells\":[");
+        for (int i = 0; i < cells.size(); i++) {
+            TableCell cell = cells.get(i);
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write("{\"row_start\":" + cell.getRowStart()
+                    + ",\"row_end\":" + cell.getRowEnd()
+                    + ",\"col_start\":" + cell.getColStart()
+                    + ",\"col_end\":" + cell.getColEnd()
+                    + ",\"box\":[");
+            float[] box = cell.getBox();
+            for (int j = 0; j < box.length; j++) {
+                if (j > 0) {
+                    out.write(',');
+                }
+                out.write(Float.toString(box[j]));
+            }
+            out.write("],\"text\":");
+            writeJsonString(cell.getText(), out);
+            out.write(",\"confidence\":" + cell.getConfidence() + "}");
+        }
+        out.write("]}");
+        out.flush();
+    }
+
+    private static void writeCsvField(String value, Writer out) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    public static void writeJsonString(String value, Writer out) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
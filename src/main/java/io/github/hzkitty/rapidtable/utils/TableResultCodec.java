@@ -0,0 +1,324 @@
+package io.github.hzkitty.rapidtable.utils;
+
+import io.github.hzkitty.entity.Pair;
+import io.github.hzkitty.rapidtable.entity.TableCell;
+import io.github.hzkitty.rapidtable.entity.TableResult;
+import io.github.hzkitty.rapidtable.entity.TableSkipReason;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TableResult 的紧凑二进制编码，带版本号，小端序
+ * <pre>
+ * 'R' 'T' 版本 (1) 标志位 (1) elapse (8)
+ * HTML          字节数 varint + token 序列（见 {@link TokenCodec}），文本片段按字面量存储
+ * 单元格框      数量 varint + 坐标个数 varint + [量化时：最小值 float32 + 步长 float32] + 坐标（float32 或 uint16）
+ * 逻辑坐标      [有逻辑坐标时] 字节数 varint + 数量 varint + 每组 4 个 varint
+ * 单元格列表    [有单元格时] 字节数 varint + 数量 varint + 每个单元格：行列 4 个 varint、框、文本、置信度 float32
+ * 跳过原因      [有跳过原因时] code 字符串
+ * </pre>
+ * 解码时单元格框整块读出；HTML、逻辑坐标、单元格列表只保留输入缓冲区的切片，首次访问时才解析，不复制字节。
+ * 新版本只能在末尾追加字段或标志位，解码器拒绝读取高于自身版本的数据。
+ */
+public final class TableResultCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final byte MAGIC_0 = 'R';
+    private static final byte MAGIC_1 = 'T';
+
+    private static final int FLAG_QUANTIZED = 1;
+    private static final int FLAG_LOGIC = 1 << 1;
+    private static final int FLAG_CELLS = 1 << 2;
+    private static final int FLAG_SKIP = 1 << 3;
+
+    // 量化的最大取值（uint16）
+    private static final int QUANT_LEVELS = 0xFFFF;
+
+    private TableResultCodec() {
+    }
+
+    /**
+     * 以 float32 存储坐标编码
+     */
+    public static ByteBuffer encode(TableResult result) {
+        return encode(result, false);
+    }
+
+    /**
+     * 编码结果，返回的缓冲区 position 为 0、limit 为数据长度
+     *
+     * @param quantizeBoxes 为 true 时坐标量化为 uint16，体积减半；步长为 (最大值 - 最小值) / 65535，
+     *                      对 4000 像素以内的图像误差小于 0.04 像素
+     */
+    public static ByteBuffer encode(TableResult result, boolean quantizeBoxes) {
+        List<String> htmlTokens = TokenCodec.splitHtml(result.getHtmlStr() == null ? "" : result.getHtmlStr());
+        float[] boxes = result.getPackedCellBoxes();
+        int stride = result.getBoxStride();
+        int[] logicPoints = result.getPackedLogicPoints();
+        List<TableCell> cells = result.getCells();
+        TableSkipReason skipReason = result.getSkipReason();
+
+        int flags = 0;
+        float min = 0f;
+        float step = 1f;
+        if (quantizeBoxes) {
+            flags |= FLAG_QUANTIZED;
+            float[] range = range(boxes, cells);
+            min = range[0];
+            step = range[1] > range[0] ? (range[1] - range[0]) / QUANT_LEVELS : 1f;
+        }
+        if (logicPoints != null) {
+            flags |= FLAG_LOGIC;
+        }
+        if (!cells.isEmpty()) {
+            flags |= FLAG_CELLS;
+        }
+        if (skipReason != null) {
+            flags |= FLAG_SKIP;
+        }
+
+        int capacity = 64 + TokenCodec.maxEncodedSize(htmlTokens) + boxes.length * 4
+                + (logicPoints == null ? 0 : logicPoints.length * 5);
+        for (TableCell cell : cells) {
+            capacity += 40 + cell.getBox().length * 4 + cell.getText().length() * 3;
+        }
+        ByteBuffer out = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+
+        out.put(MAGIC_0).put(MAGIC_1).put(VERSION).put((byte) flags);
+        out.putDouble(result.getElapse());
+
+        ByteBuffer html = ByteBuffer.allocate(TokenCodec.maxEncodedSize(htmlTokens));
+        TokenCodec.writeTokens(htmlTokens, html);
+        html.flip();
+        TokenCodec.writeVarint(out, html.remaining());
+        out.put(html);
+
+        int count = stride == 0 ? 0 : boxes.length / stride;
+        TokenCodec.writeVarint(out, count);
+        TokenCodec.writeVarint(out, stride);
+        if (quantizeBoxes) {
+            out.putFloat(min);
+            out.putFloat(step);
+        }
+        writeCoords(out, boxes, quantizeBoxes, min, step);
+
+        if (logicPoints != null) {
+            int start = beginSection(out);
+            TokenCodec.writeVarint(out, logicPoints.length / 4);
+            for (int v : logicPoints) {
+                TokenCodec.writeVarint(out, v);
+            }
+            endSection(out, start);
+        }
+
+        if (!cells.isEmpty()) {
+            int start = beginSection(out);
+            TokenCodec.writeVarint(out, cells.size());
+            for (TableCell cell : cells) {
+                TokenCodec.writeVarint(out, cell.getRowStart());
+                TokenCodec.writeVarint(out, cell.getRowEnd());
+                TokenCodec.writeVarint(out, cell.getColStart());
+                TokenCodec.writeVarint(out, cell.getColEnd());
+                float[] box = cell.getBox();
+                TokenCodec.writeVarint(out, box.length);
+                writeCoords(out, box, quantizeBoxes, min, step);
+                TokenCodec.writeString(out, cell.getText());
+                out.putFloat(cell.getConfidence());
+            }
+            endSection(out, start);
+        }
+
+        if (skipReason != null) {
+            TokenCodec.writeString(out, skipReason.getCode());
+        }
+        out.flip();
+        return out;
+    }
+
+    /**
+     * 从 in 的当前位置解码一条结果，解码后 position 移到该条数据之后
+     * <p>
+     * 返回的结果在首次访问 HTML、单元格、逻辑坐标前引用 in 的底层数据，期间请勿修改这段数据
+     */
+    public static TableResult decode(ByteBuffer in) {
+        ByteBuffer buf = in.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.get() != MAGIC_0 || buf.get() != MAGIC_1) {
+            throw new IllegalArgumentException("不是 TableResult 编码数据");
+        }
+        byte version = buf.get();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("不支持的 TableResult 编码版本: " + version);
+        }
+        int flags = buf.get() & 0xFF;
+        boolean quantized = (flags & FLAG_QUANTIZED) != 0;
+        double elapse = buf.getDouble();
+
+        final ByteBuffer html = section(buf);
+
+        int count = TokenCodec.readVarint(buf);
+        int stride = TokenCodec.readVarint(buf);
+        float min = 0f;
+        float step = 1f;
+        if (quantized) {
+            min = buf.getFloat();
+            step = buf.getFloat();
+        }
+        float[] boxes = readCoords(buf, count * stride, quantized, min, step);
+
+        final ByteBuffer logic = (flags & FLAG_LOGIC) != 0 ? section(buf) : null;
+        final ByteBuffer cells = (flags & FLAG_CELLS) != 0 ? section(buf) : null;
+        TableSkipReason skipReason = (flags & FLAG_SKIP) != 0 ? skipReason(TokenCodec.readString(buf)) : null;
+        in.position(buf.position());
+
+        final float cellMin = min;
+        final float cellStep = step;
+        TableResult result = new TableResult(
+                () -> Pair.of(decodeHtml(html.duplicate().order(ByteOrder.LITTLE_ENDIAN)),
+                        cells == null ? null : decodeCells(cells.duplicate().order(ByteOrder.LITTLE_ENDIAN),
+                                quantized, cellMin, cellStep)),
+                boxes, stride,
+                logic == null ? null : () -> decodeLogicPoints(logic.duplicate().order(ByteOrder.LITTLE_ENDIAN)),
+                elapse);
+        if (skipReason != null) {
+            result.setSkipReason(skipReason);
+        }
+        return result;
+    }
+
+    private static String decodeHtml(ByteBuffer in) {
+        StringBuilder html = new StringBuilder();
+        for (String token : TokenCodec.readTokens(in)) {
+            html.append(token);
+        }
+        return html.toString();
+    }
+
+    private static List<int[]> decodeLogicPoints(ByteBuffer in) {
+        int n = TokenCodec.readVarint(in);
+        List<int[]> points = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int[] point = new int[4];
+            for (int j = 0; j < 4; j++) {
+                point[j] = TokenCodec.readVarint(in);
+            }
+            points.add(point);
+        }
+        return points;
+    }
+
+    private static List<TableCell> decodeCells(ByteBuffer in, boolean quantized, float min, float step) {
+        int n = TokenCodec.readVarint(in);
+        List<TableCell> cells = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int rowStart = TokenCodec.readVarint(in);
+            int rowEnd = TokenCodec.readVarint(in);
+            int colStart = TokenCodec.readVarint(in);
+            int colEnd = TokenCodec.readVarint(in);
+            float[] box = readCoords(in, TokenCodec.readVarint(in), quantized, min, step);
+            String text = TokenCodec.readString(in);
+            float confidence = in.getFloat();
+            cells.add(new TableCell(rowStart, rowEnd, colStart, colEnd, box, text, confidence));
+        }
+        return cells;
+    }
+
+    private static void writeCoords(ByteBuffer out, float[] coords, boolean quantized, float min, float step) {
+        if (!quantized) {
+            out.asFloatBuffer().put(coords);
+            out.position(out.position() + coords.length * 4);
+            return;
+        }
+        for (float v : coords) {
+            int q = Math.round((v - min) / step);
+            out.putShort((short) Math.max(0, Math.min(QUANT_LEVELS, q)));
+        }
+    }
+
+    private static float[] readCoords(ByteBuffer in, int n, boolean quantized, float min, float step) {
+        float[] coords = new float[n];
+        if (!quantized) {
+            in.asFloatBuffer().get(coords);
+            in.position(in.position() + n * 4);
+            return coords;
+        }
+        ShortBuffer shorts = in.asShortBuffer();
+        for (int i = 0; i < n; i++) {
+            coords[i] = min + (shorts.get(i) & 0xFFFF) * step;
+        }
+        in.position(in.position() + n * 2);
+        return coords;
+    }
+
+    /**
+     * 所有坐标的 [最小值, 最大值]，没有坐标时为 [0, 0]
+     */
+    private static float[] range(float[] boxes, List<TableCell> cells) {
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (float v : boxes) {
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        for (TableCell cell : cells) {
+            for (float v : cell.getBox()) {
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+        }
+        return min > max ? new float[]{0f, 0f} : new float[]{min, max};
+    }
+
+    /**
+     * 预留 4 字节长度前缀，写完后由 {@link #endSection} 回填为定长 varint
+     */
+    private static int beginSection(ByteBuffer out) {
+        int start = out.position();
+        out.position(start + 4);
+        return start;
+    }
+
+    private static void endSection(ByteBuffer out, int start) {
+        int length = out.position() - start - 4;
+        // 4 字节的非最简 varint，读取方式与普通 varint 相同，最大可表示 2^28 - 1
+        out.put(start, (byte) ((length & 0x7F) | 0x80));
+        out.put(start + 1, (byte) (((length >>> 7) & 0x7F) | 0x80));
+        out.put(start + 2, (byte) (((length >>> 14) & 0x7F) | 0x80));
+        out.put(start + 3, (byte) ((length >>> 21) & 0x7F));
+    }
+
+    /**
+     * 读取长度前缀并返回该段数据的切片（不复制），in 的 position 移到该段之后
+     */
+    private static ByteBuffer section(ByteBuffer in) {
+        int length = TokenCodec.readVarint(in);
+        ByteBuffer slice = in.duplicate();
+        slice.limit(in.position() + length);
+        slice = slice.slice().order(ByteOrder.LITTLE_ENDIAN);
+        in.position(in.position() + length);
+        return slice;
+    }
+
+    private static TableSkipReason skipReason(String code) {
+        for (TableSkipReason reason : TableSkipReason.values()) {
+            if (reason.getCode().equals(code)) {
+                return reason;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 编码后的字节数组，便于写入文件或消息队列
+     */
+    public static byte[] toBytes(TableResult result, boolean quantizeBoxes) {
+        ByteBuffer buf = encode(result, quantizeBoxes);
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        return bytes;
+    }
+}
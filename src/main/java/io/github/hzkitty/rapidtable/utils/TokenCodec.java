@@ -0,0 +1,171 @@
+package io.github.hzkitty.rapidtable.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 结构 token 的紧凑二进制编码：常见 token 编码为 varint 编号，其余 token 以 UTF-8 字面量存储
+ * <p>
+ * 编号表只能在末尾追加，已有编号不可修改，否则会破坏已持久化的数据。
+ */
+public final class TokenCodec {
+
+    // 0 保留给字面量
+    private static final int LITERAL = 0;
+    // span 属性的最大取值，超出的按字面量存储
+    private static final int MAX_SPAN = 20;
+
+    private static final List<String> VOCAB = buildVocab();
+    private static final Map<String, Integer> IDS = new HashMap<>();
+
+    static {
+        for (int i = 0; i < VOCAB.size(); i++) {
+            IDS.put(VOCAB.get(i), i + 1);
+        }
+    }
+
+    private TokenCodec() {
+    }
+
+    private static List<String> buildVocab() {
+        List<String> vocab = new ArrayList<>(Arrays.asList(
+                "<html>", "</html>", "<body>", "</body>", "<table>", "</table>",
+                "<thead>", "</thead>", "<tbody>", "</tbody>", "<tr>", "</tr>",
+                "<td>", "</td>", "<td></td>", "<td", ">"));
+        for (int n = 2; n <= MAX_SPAN; n++) {
+            vocab.add(" colspan=\"" + n + "\"");
+        }
+        for (int n = 2; n <= MAX_SPAN; n++) {
+            vocab.add(" rowspan=\"" + n + "\"");
+        }
+        // 以下为 HTML 中合并后的标签
+        for (int n = 2; n <= MAX_SPAN; n++) {
+            vocab.add("<td colspan=\"" + n + "\">");
+        }
+        for (int n = 2; n <= MAX_SPAN; n++) {
+            vocab.add("<td rowspan=\"" + n + "\">");
+        }
+        return vocab;
+    }
+
+    /**
+     * 将 HTML 拆分为标签与文本片段，拼接后与原字符串相同
+     */
+    public static List<String> splitHtml(String html) {
+        List<String> parts = new ArrayList<>();
+        int i = 0;
+        while (i < html.length()) {
+            int end;
+            if (html.charAt(i) == '<') {
+                end = html.indexOf('>', i);
+                end = end < 0 ? html.length() : end + 1;
+            } else {
+                end = html.indexOf('<', i);
+                end = end < 0 ? html.length() : end;
+            }
+            parts.add(html.substring(i, end));
+            i = end;
+        }
+        return parts;
+    }
+
+    /**
+     * token 编号，不在编号表中时返回 0
+     */
+    public static int idOf(String token) {
+        Integer id = IDS.get(token);
+        return id == null ? LITERAL : id;
+    }
+
+    /**
+     * 写入 token 序列：数量 varint，随后每个 token 为编号 varint，编号为 0 时紧跟字面量
+     */
+    public static void writeTokens(List<String> tokens, ByteBuffer out) {
+        writeVarint(out, tokens.size());
+        for (String token : tokens) {
+            int id = idOf(token);
+            writeVarint(out, id);
+            if (id == LITERAL) {
+                writeString(out, token);
+            }
+        }
+    }
+
+    public static List<String> readTokens(ByteBuffer in) {
+        int size = readVarint(in);
+        List<String> tokens = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int id = readVarint(in);
+            tokens.add(id == LITERAL ? readString(in) : VOCAB.get(id - 1));
+        }
+        return tokens;
+    }
+
+    /**
+     * token 序列编码后的最大字节数，用于预分配缓冲区
+     */
+    public static int maxEncodedSize(List<String> tokens) {
+        int size = 5;
+        for (String token : tokens) {
+            size += idOf(token) == LITERAL ? 10 + token.length() * 3 : 5;
+        }
+        return size;
+    }
+
+    public static void writeVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint 过长");
+    }
+
+    /**
+     * 有符号整数按 zigzag 编码为 varint
+     */
+    public static void writeSignedVarint(ByteBuffer out, int value) {
+        writeVarint(out, (value << 1) ^ (value >> 31));
+    }
+
+    public static int readSignedVarint(ByteBuffer in) {
+        int raw = readVarint(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public static void writeString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.put(bytes);
+    }
+
+    public static String readString(ByteBuffer in) {
+        int length = readVarint(in);
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.hzkitty.rapidtable.utils;
+
+import io.github.hzkitty.rapidtable.entity.TableStage;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Arrays;
+
+/**
+ * 流水线的 Java Flight Recorder 事件（Java 11 及以上）
+ * <p>
+ * 事件未开启时只做一次 EventType.isEnabled() 判断并返回共享的空实现。
+ */
+public final class TableEvents {
+
+    private static final EventType RUN_TYPE = EventType.getEventType(RunEvent.class);
+    private static final EventType STAGE_TYPE = EventType.getEventType(StageEvent.class);
+    private static final EventType ORT_RUN_TYPE = EventType.getEventType(OrtRunEvent.class);
+
+    private TableEvents() {
+    }
+
+    /**
+     * 一次 RapidTable.run
+     */
+    public static TableEventSpan run() {
+        if (!RUN_TYPE.isEnabled()) {
+            return TableEventSpan.NOOP;
+        }
+        RunEvent event = new RunEvent();
+        event.begin();
+        return new Span(event) {
+            @Override
+            public TableEventSpan imageSize(int width, int height) {
+                event.imageWidth = width;
+                event.imageHeight = height;
+                return this;
+            }
+
+            @Override
+            public TableEventSpan ocrBoxCount(int count) {
+                event.ocrBoxCount = count;
+                return this;
+            }
+
+            @Override
+            public TableEventSpan cellCount(int count) {
+                event.cellCount = count;
+                return this;
+            }
+        };
+    }
+
+    /**
+     * 流水线阶段（预处理、解码、匹配等）
+     */
+    public static TableEventSpan stage(TableStage stage) {
+        if (!STAGE_TYPE.isEnabled()) {
+            return TableEventSpan.NOOP;
+        }
+        StageEvent event = new StageEvent();
+        event.stage = stage.getCode();
+        event.begin();
+        return new Span(event) {
+            @Override
+            public TableEventSpan imageSize(int width, int height) {
+                event.imageWidth = width;
+                event.imageHeight = height;
+                return this;
+            }
+
+            @Override
+            public TableEventSpan ocrBoxCount(int count) {
+                event.ocrBoxCount = count;
+                return this;
+            }
+
+            @Override
+            public TableEventSpan cellCount(int count) {
+                event.cellCount = count;
+                return this;
+            }
+        };
+    }
+
+    /**
+     * 一次 OrtSession.run，线程由 JFR 自动记录
+     */
+    public static TableEventSpan ortRun() {
+        if (!ORT_RUN_TYPE.isEnabled()) {
+            return TableEventSpan.NOOP;
+        }
+        OrtRunEvent event = new OrtRunEvent();
+        event.begin();
+        return new Span(event) {
+            @Override
+            public TableEventSpan inputShape(long[] shape) {
+                event.inputShape = Arrays.toString(shape);
+                event.batchSize = shape.length > 0 ? shape[0] : 0;
+                return this;
+            }
+        };
+    }
+
+    private static class Span extends TableEventSpan {
+
+        private final Event event;
+
+        Span(Event event) {
+            this.event = event;
+        }
+
+        @Override
+        public boolean isRecording() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            event.commit();
+        }
+    }
+
+    @Name("io.github.hzkitty.rapidtable.Run")
+    @Label("RapidTable Run")
+    @Category({"RapidTable"})
+    @Description("一次表格识别")
+    static class RunEvent extends Event {
+        @Label("Image Width")
+        int imageWidth;
+        @Label("Image Height")
+        int imageHeight;
+        @Label("OCR Box Count")
+        int ocrBoxCount;
+        @Label("Cell Count")
+        int cellCount;
+    }
+
+    @Name("io.github.hzkitty.rapidtable.Stage")
+    @Label("RapidTable Stage")
+    @Category({"RapidTable"})
+    @Description("流水线阶段")
+    static class StageEvent extends Event {
+        @Label("Stage")
+        String stage;
+        @Label("Image Width")
+        int imageWidth;
+        @Label("Image Height")
+        int imageHeight;
+        @Label("OCR Box Count")
+        int ocrBoxCount;
+        @Label("Cell Count")
+        int cellCount;
+    }
+
+    @Name("io.github.hzkitty.rapidtable.OrtRun")
+    @Label("ORT Session Run")
+    @Category({"RapidTable", "ONNX Runtime"})
+    @Description("一次 OrtSession.run")
+    static class OrtRunEvent extends Event {
+        @Label("Input Shape")
+        String inputShape;
+        @Label("Batch Size")
+        long batchSize;
+    }
+}
@@ -0,0 +1,68 @@
+import io.github.hzkitty.rapidtable.tablestructure.OrtProfileSummary;
+import io.github.hzkitty.rapidtable.utils.SimpleJson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class SimpleJsonTest {
+
+    @Test
+    public void testValues() {
+        Map<?, ?> json = (Map<?, ?>) SimpleJson.parse(
+                " {\"a\": 1, \"b\": -2.5e1, \"c\": [true, false, null], \"d\": {}, \"e\": [], \"f\": 12345678901234567890}\n");
+        Assertions.assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f"), Arrays.asList(json.keySet().toArray()));
+        Assertions.assertEquals(1L, json.get("a"));
+        Assertions.assertEquals(-25.0, json.get("b"));
+        Assertions.assertEquals(Arrays.asList(true, false, null), json.get("c"));
+        Assertions.assertTrue(((Map<?, ?>) json.get("d")).isEmpty());
+        Assertions.assertTrue(((List<?>) json.get("e")).isEmpty());
+        // 超出 long 范围的整数按 double 解析
+        Assertions.assertEquals(1.2345678901234567E19, json.get("f"));
+    }
+
+    @Test
+    public void testStringEscapes() {
+        Assertions.assertEquals("a\"b\\c/d\n\t中", SimpleJson.parse("\"a\\\"b\\\\c\\/d\\n\\t\\u4e2d\""));
+        Assertions.assertEquals("表格", SimpleJson.parse("\"表格\""));
+    }
+
+    @Test
+    public void testMalformed() {
+        for (String json : new String[]{"", "{", "[1,", "{\"a\" 1}", "{1: 2}", "[1 2]", "tru", "\"abc", "1 2", "@"}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> SimpleJson.parse(json));
+        }
+    }
+
+    @Test
+    public void testProfileSummary() throws Exception {
+        Path trace = Files.createTempFile("ort-profile", ".json");
+        try {
+            String json = "[\n"
+                    + "{\"cat\": \"Session\", \"name\": \"model_run\", \"dur\": 3000},\n"
+                    + "{\"cat\": \"Node\", \"name\": \"conv1_kernel_time\", \"dur\": 1200, \"args\": {\"op_name\": \"Conv\"}},\n"
+                    + "{\"cat\": \"Node\", \"name\": \"conv2_kernel_time\", \"dur\": 800, \"args\": {\"op_name\": \"Conv\"}},\n"
+                    + "{\"cat\": \"Node\", \"name\": \"MatMul_kernel_time\", \"dur\": 500},\n"
+                    + "{\"cat\": \"Node\", \"name\": \"conv1_fence_before\", \"dur\": 0}\n"
+                    + "]";
+            Files.write(trace, json.getBytes(StandardCharsets.UTF_8));
+            OrtProfileSummary summary = OrtProfileSummary.parse(Arrays.asList(trace, trace));
+            Assertions.assertEquals(2L, summary.getRunCount());
+            Assertions.assertEquals(3.0, summary.getMeanRunMillis());
+            List<OrtProfileSummary.OpStat> ops = summary.getOps();
+            Assertions.assertEquals(2, ops.size());
+            Assertions.assertEquals("Conv", ops.get(0).getOpType());
+            Assertions.assertEquals(4L, ops.get(0).getCount());
+            Assertions.assertEquals(4000L, ops.get(0).getTotalMicros());
+            Assertions.assertEquals(1200L, ops.get(0).getMaxMicros());
+            Assertions.assertEquals("MatMul", ops.get(1).getOpType());
+        } finally {
+            Files.deleteIfExists(trace);
+        }
+    }
+}
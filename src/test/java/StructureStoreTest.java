@@ -0,0 +1,77 @@
+import io.github.hzkitty.rapidtable.cache.StructureStore;
+import io.github.hzkitty.rapidtable.entity.TableStructure;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class StructureStoreTest {
+
+    private static TableStructure sample(int i) {
+        return new TableStructure(Arrays.asList("<tr>", "<td></td>", "</tr>"),
+                Collections.singletonList(new float[]{i, 2, 30, 40}), 0.5f, null, 100, 50);
+    }
+
+    /**
+     * 重新打开时以索引中记录的段大小为准，配置的段大小变化不影响已有数据
+     */
+    @Test
+    public void testReopenWithDifferentSegmentSize() throws Exception {
+        Path dir = Files.createTempDirectory("rapidtable-store");
+        try {
+            try (StructureStore store = new StructureStore(dir, 1 << 20)) {
+                for (int i = 0; i < 1000; i++) {
+                    store.put("key-" + i, sample(i));
+                }
+            }
+            try (StructureStore store = new StructureStore(dir, 4096)) {
+                Assertions.assertEquals(1000, store.size());
+                for (int i = 0; i < 1000; i++) {
+                    Assertions.assertEquals((float) i, store.get("key-" + i).getCellBoxes().get(0)[0]);
+                }
+                store.put("key-1000", sample(1000));
+                Assertions.assertNotNull(store.get("key-1000"));
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    /**
+     * 同一目录不能同时被两个实例打开，关闭后可再次打开
+     */
+    @Test
+    public void testDirectoryLock() throws Exception {
+        Path dir = Files.createTempDirectory("rapidtable-store");
+        try {
+            StructureStore first = new StructureStore(dir, 4096);
+            Assertions.assertThrows(IOException.class, () -> new StructureStore(dir, 4096));
+            // 扩容替换索引文件后仍持有锁
+            for (int i = 0; i < 50000; i++) {
+                first.put("key-" + i, sample(i));
+            }
+            Assertions.assertThrows(IOException.class, () -> new StructureStore(dir, 4096));
+            first.close();
+            try (StructureStore second = new StructureStore(dir, 4096)) {
+                Assertions.assertEquals(50000, second.size());
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static void delete(Path dir) {
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.toFile().delete();
+    }
+}
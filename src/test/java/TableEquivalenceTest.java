@@ -0,0 +1,351 @@
+import io.github.hzkitty.RapidOCR;
+import io.github.hzkitty.entity.OcrResult;
+import io.github.hzkitty.entity.OrtInferConfig;
+import io.github.hzkitty.entity.Pair;
+import io.github.hzkitty.entity.RecResult;
+import io.github.hzkitty.entity.Triple;
+import io.github.hzkitty.rapidtable.RapidTable;
+import io.github.hzkitty.rapidtable.TableOcrPipeline;
+import io.github.hzkitty.rapidtable.entity.TableCell;
+import io.github.hzkitty.rapidtable.entity.TableConfig;
+import io.github.hzkitty.rapidtable.entity.TableResult;
+import io.github.hzkitty.rapidtable.entity.TableStructure;
+import io.github.hzkitty.rapidtable.tablematcher.TableMatch;
+import io.github.hzkitty.rapidtable.tablestructure.PreprocessProbe;
+import io.github.hzkitty.rapidtable.tablestructure.TableStructurer;
+import io.github.hzkitty.rapidtable.utils.SyntheticTableGenerator;
+import io.github.hzkitty.rapidtable.utils.TableDiff;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.imgcodecs.Imgcodecs;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 输出等价性测试：各优化路径（归一化融合进模型的 uint8 输入、批量推理、结构缓存、版式模板、持久化存储、
+ * OCR 流水线、并行匹配、并发）在固定语料上与参考流水线（默认配置）逐项比较，HTML 逐字节一致，坐标在误差容限内
+ * <p>
+ * 分块推理、有线表格快速路径、自适应输入边长按设计会改变输出，不在此比较。
+ */
+public class TableEquivalenceTest {
+
+    private static final int INPUT_SIZE = 488;
+    // uint8 输入的量化误差（归一化后约 1/255/std）
+    private static final float TENSOR_EPS = 1e-2f;
+    private static final float BOX_EPS = 1.0f;
+    private static final float UINT8_BOX_EPS = 2.0f;
+
+    private static final Map<String, byte[]> CORPUS = new LinkedHashMap<>();
+    private static final Map<String, List<RecResult>> OCR = new LinkedHashMap<>();
+    private static final Map<String, TableResult> REFERENCE = new LinkedHashMap<>();
+    private static RapidOCR rapidOCR;
+    private static RapidTable reference;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        CORPUS.put("table_01", Files.readAllBytes(new File("src/test/resources/table_01.jpg").toPath()));
+        addSynthetic("bordered", new SyntheticTableGenerator.Spec().rows(8).cols(4).spanRatio(0).seed(1));
+        addSynthetic("borderless", new SyntheticTableGenerator.Spec().rows(8).cols(4).spanRatio(0).borders(false).seed(2));
+        addSynthetic("spans", new SyntheticTableGenerator.Spec().rows(12).cols(5).spanRatio(0.2).maxSpan(2).seed(3));
+        addSynthetic("sparse", new SyntheticTableGenerator.Spec().rows(6).cols(6).textDensity(0.3).seed(4));
+
+        rapidOCR = RapidOCR.create();
+        reference = RapidTable.create();
+        for (Map.Entry<String, byte[]> entry : CORPUS.entrySet()) {
+            OcrResult ocrResult = rapidOCR.run(entry.getValue());
+            OCR.put(entry.getKey(), ocrResult.getRecRes());
+            TableResult result = reference.run(entry.getValue(), ocrResult.getRecRes(), true);
+            result.getHtmlStr();
+            REFERENCE.put(entry.getKey(), result);
+        }
+    }
+
+    private static void addSynthetic(String name, SyntheticTableGenerator.Spec spec) {
+        Mat img = SyntheticTableGenerator.generate(spec).getImage();
+        MatOfByte buf = new MatOfByte();
+        Imgcodecs.imencode(".png", img, buf);
+        CORPUS.put(name, buf.toArray());
+        buf.release();
+        img.release();
+    }
+
+    private static Mat decode(byte[] data) {
+        MatOfByte buf = new MatOfByte(data);
+        Mat img = Imgcodecs.imdecode(buf, Imgcodecs.IMREAD_COLOR);
+        buf.release();
+        return img;
+    }
+
+    private static OrtInferConfig inferConfig(TableConfig config) {
+        OrtInferConfig inferConfig = new OrtInferConfig();
+        inferConfig.setModelPath(config.modelPath);
+        return inferConfig;
+    }
+
+    private static void assertNoDivergence(String path, List<String> diffs) {
+        if (!diffs.isEmpty()) {
+            System.out.println("[" + path + "] " + diffs.size() + " 处差异:");
+            for (String diff : diffs) {
+                System.out.println("  " + diff);
+            }
+        }
+        Assertions.assertTrue(diffs.isEmpty(), path + " 与参考流水线输出不一致: " + diffs);
+    }
+
+    @Test
+    public void testUint8Input() throws Exception {
+        TableConfig floatConfig = new TableConfig();
+        TableConfig uint8Config = new TableConfig();
+        uint8Config.uint8Input = true;
+        TableStructurer floatStructurer = new TableStructurer(inferConfig(floatConfig), floatConfig);
+        TableStructurer uint8Structurer = new TableStructurer(inferConfig(uint8Config), uint8Config);
+
+        List<String> diffs = new ArrayList<>();
+        try {
+            for (Map.Entry<String, byte[]> entry : CORPUS.entrySet()) {
+                Mat img = decode(entry.getValue());
+                diffs.addAll(TableDiff.compareTensor(entry.getKey(),
+                        PreprocessProbe.preprocessTensor(floatStructurer, img, INPUT_SIZE),
+                        PreprocessProbe.preprocessTensor(uint8Structurer, img, INPUT_SIZE), TENSOR_EPS));
+                Triple<List<String>, List<float[]>, Double> expected = floatStructurer.call(img);
+                Triple<List<String>, List<float[]>, Double> actual = uint8Structurer.call(img);
+                TableDiff.compareTokens(entry.getKey(), expected.getLeft(), actual.getLeft(), diffs);
+                TableDiff.compareBoxes(entry.getKey(), expected.getMiddle(), actual.getMiddle(), UINT8_BOX_EPS, diffs);
+                img.release();
+            }
+        } finally {
+            floatStructurer.close();
+            uint8Structurer.close();
+        }
+        assertNoDivergence("uint8Input", diffs);
+    }
+
+    /**
+     * 归一化融合进模型的 uint8 输入，端到端结果与参考流水线一致（坐标按量化误差放宽）
+     */
+    @Test
+    public void testFusedNormalization() throws Exception {
+        TableConfig config = new TableConfig();
+        config.uint8Input = true;
+        List<String> diffs = new ArrayList<>();
+        try (RapidTable engine = RapidTable.create(config)) {
+            for (Map.Entry<String, byte[]> entry : CORPUS.entrySet()) {
+                diffs.addAll(TableDiff.compareResult(entry.getKey(), REFERENCE.get(entry.getKey()),
+                        engine.run(entry.getValue(), OCR.get(entry.getKey()), true), UINT8_BOX_EPS));
+            }
+        }
+        assertNoDivergence("fusedNormalization", diffs);
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        TableConfig config = new TableConfig();
+        TableStructurer structurer = new TableStructurer(inferConfig(config), config);
+        List<String> names = new ArrayList<>(CORPUS.keySet());
+        List<Mat> imgs = new ArrayList<>();
+        for (String name : names) {
+            imgs.add(decode(CORPUS.get(name)));
+        }
+
+        List<String> diffs = new ArrayList<>();
+        try {
+            List<Triple<List<String>, List<float[]>, Double>> batch = structurer.callBatch(imgs, INPUT_SIZE);
+            for (int i = 0; i < names.size(); i++) {
+                Triple<List<String>, List<float[]>, Double> single = structurer.call(imgs.get(i), INPUT_SIZE);
+                TableDiff.compareTokens(names.get(i), single.getLeft(), batch.get(i).getLeft(), diffs);
+                TableDiff.compareBoxes(names.get(i), single.getMiddle(), batch.get(i).getMiddle(), BOX_EPS, diffs);
+                imgs.get(i).release();
+            }
+        } finally {
+            structurer.close();
+        }
+        assertNoDivergence("callBatch", diffs);
+    }
+
+    @Test
+    public void testStructureCache() throws Exception {
+        TableConfig config = new TableConfig();
+        config.structureCache = true;
+        List<String> diffs = new ArrayList<>();
+        try (RapidTable engine = RapidTable.create(config)) {
+            for (Map.Entry<String, byte[]> entry : CORPUS.entrySet()) {
+                List<RecResult> ocr = OCR.get(entry.getKey());
+                diffs.addAll(TableDiff.compareResult(entry.getKey() + "(miss)", REFERENCE.get(entry.getKey()),
+                        engine.run(entry.getValue(), ocr, true), BOX_EPS));
+                diffs.addAll(TableDiff.compareResult(entry.getKey() + "(hit)", REFERENCE.get(entry.getKey()),
+                        engine.run(entry.getValue(), ocr, true), BOX_EPS));
+            }
+            Assertions.assertEquals(CORPUS.size(), engine.getStructureCache().getHitCount());
+        }
+        assertNoDivergence("structureCache", diffs);
+    }
+
+    @Test
+    public void testTemplateCache() throws Exception {
+        TableConfig config = new TableConfig();
+        config.templateCache = true;
+        List<String> diffs = new ArrayList<>();
+        try (RapidTable engine = RapidTable.create(config)) {
+            for (Map.Entry<String, byte[]> entry : CORPUS.entrySet()) {
+                List<RecResult> ocr = OCR.get(entry.getKey());
+                for (int i = 0; i < 2; i++) {
+                    diffs.addAll(TableDiff.compareResult(entry.getKey() + "#" + i, REFERENCE.get(entry.getKey()),
+                            engine.run(entry.getValue(), ocr, true), BOX_EPS));
+                }
+            }
+        }
+        assertNoDivergence("templateCache", diffs);
+    }
+
+    @Test
+    public void testStructureStore() throws Exception {
+        Path dir = Files.createTempDirectory("rapidtable-store");
+        List<String> diffs = new ArrayList<>();
+        // 第一个引擎写入，第二个引擎从磁盘读取
+        for (int round = 0; round < 2; round++) {
+            TableConfig config = new TableConfig();
+            config.structureStorePath = dir.toString();
+            try (RapidTable engine = RapidTable.create(config)) {
+                for (Map.Entry<String, byte[]> entry : CORPUS.entrySet()) {
+                    diffs.addAll(TableDiff.compareResult(entry.getKey() + "#" + round, REFERENCE.get(entry.getKey()),
+                            engine.run(entry.getValue(), OCR.get(entry.getKey()), true), BOX_EPS));
+                }
+            }
+        }
+        assertNoDivergence("structureStore", diffs);
+    }
+
+    @Test
+    public void testAssemble() throws Exception {
+        List<String> diffs = new ArrayList<>();
+        for (Map.Entry<String, byte[]> entry : CORPUS.entrySet()) {
+            TableStructure structure = reference.predictStructure(entry.getValue());
+            diffs.addAll(TableDiff.compareResult(entry.getKey(), REFERENCE.get(entry.getKey()),
+                    reference.assemble(structure, OCR.get(entry.getKey()), true), BOX_EPS));
+        }
+        assertNoDivergence("assemble", diffs);
+    }
+
+    @Test
+    public void testOcrPipeline() throws Exception {
+        List<String> diffs = new ArrayList<>();
+        try (TableOcrPipeline pipeline = new TableOcrPipeline(rapidOCR, reference)) {
+            for (Map.Entry<String, byte[]> entry : CORPUS.entrySet()) {
+                diffs.addAll(TableDiff.compareResult(entry.getKey(), REFERENCE.get(entry.getKey()),
+                        pipeline.run(entry.getValue(), true), BOX_EPS));
+            }
+        }
+        assertNoDivergence("TableOcrPipeline", diffs);
+    }
+
+    @Test
+    public void testMatchPaths() throws Exception {
+        TableMatch tableMatch = new TableMatch();
+        List<String> diffs = new ArrayList<>();
+        for (Map.Entry<String, byte[]> entry : CORPUS.entrySet()) {
+            Mat img = decode(entry.getValue());
+            TableStructure structure = reference.predictStructure(img);
+            Pair<List<float[]>, List<Pair<String, Float>>> boxesRecs =
+                    reference.getBoxesRecs(OCR.get(entry.getKey()), img.rows(), img.cols());
+            img.release();
+            List<String> tokens = structure.getTokens();
+            List<float[]> cellBoxes = structure.getCellBoxes();
+            String html = tableMatch.call(tokens, cellBoxes, boxesRecs.getLeft(), boxesRecs.getRight());
+            Pair<String, ?> withCells = tableMatch.callWithCells(tokens, cellBoxes, boxesRecs.getLeft(), boxesRecs.getRight());
+            TableDiff.compareHtml(entry.getKey() + "(call)", REFERENCE.get(entry.getKey()).getHtmlStr(), html, diffs);
+            TableDiff.compareHtml(entry.getKey() + "(callWithCells)", html, withCells.getLeft(), diffs);
+        }
+        assertNoDivergence("TableMatch", diffs);
+    }
+
+    /**
+     * 多个线程共用一个 TableMatch 并行匹配，HTML 与单元格列表与串行匹配一致
+     */
+    @Test
+    public void testParallelMatching() throws Exception {
+        TableMatch tableMatch = new TableMatch();
+        List<String> names = new ArrayList<>(CORPUS.keySet());
+        Map<String, TableStructure> structures = new LinkedHashMap<>();
+        Map<String, Pair<List<float[]>, List<Pair<String, Float>>>> inputs = new LinkedHashMap<>();
+        Map<String, Pair<String, List<TableCell>>> serial = new LinkedHashMap<>();
+        for (String name : names) {
+            Mat img = decode(CORPUS.get(name));
+            structures.put(name, reference.predictStructure(img));
+            inputs.put(name, reference.getBoxesRecs(OCR.get(name), img.rows(), img.cols()));
+            img.release();
+            serial.put(name, tableMatch.callWithCells(structures.get(name).getTokens(),
+                    structures.get(name).getCellBoxes(), inputs.get(name).getLeft(), inputs.get(name).getRight()));
+        }
+
+        int threads = 4;
+        int repeat = 5;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<String> diffs = Collections.synchronizedList(new ArrayList<>());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < names.size() * repeat; i++) {
+                String name = names.get(i % names.size());
+                futures.add(executor.submit(() -> {
+                    TableStructure structure = structures.get(name);
+                    Pair<String, List<TableCell>> parallel = tableMatch.callWithCells(structure.getTokens(),
+                            structure.getCellBoxes(), inputs.get(name).getLeft(), inputs.get(name).getRight());
+                    List<String> found = new ArrayList<>();
+                    TableDiff.compareHtml(name, serial.get(name).getLeft(), parallel.getLeft(), found);
+                    if (!serial.get(name).getRight().toString().equals(parallel.getRight().toString())) {
+                        found.add(name + ": 单元格列表不一致");
+                    }
+                    diffs.addAll(found);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertNoDivergence("parallelMatching", diffs);
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        List<String> names = new ArrayList<>(CORPUS.keySet());
+        int threads = 4;
+        int repeat = 3;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<String> diffs = Collections.synchronizedList(new ArrayList<>());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < names.size() * repeat; i++) {
+                        String name = names.get((i + offset) % names.size());
+                        TableResult result = reference.run(CORPUS.get(name), OCR.get(name), true);
+                        diffs.addAll(TableDiff.compareResult(name, REFERENCE.get(name), result, BOX_EPS));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertNoDivergence("concurrent", diffs);
+    }
+}
@@ -0,0 +1,126 @@
+import io.github.hzkitty.rapidtable.entity.TableStage;
+import io.github.hzkitty.rapidtable.utils.TableEvents;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class TableEventsTest {
+
+    private static final String EVENT_PREFIX = "io.github.hzkitty.rapidtable.";
+
+    /**
+     * Java 8 实现不记录事件
+     */
+    @Test
+    public void testNoopSpan() {
+        Assertions.assertFalse(TableEvents.run().isRecording());
+        Assertions.assertFalse(TableEvents.stage(TableStage.MATCH).isRecording());
+    }
+
+    /**
+     * 多版本 jar 中 Java 11 实现发出的 Run / Stage / OrtRun 事件及其字段
+     */
+    @Test
+    public void testJfrEvents() throws Exception {
+        Assumptions.assumeTrue(!System.getProperty("java.specification.version").startsWith("1."), "需要 Java 11 及以上");
+        ClassLoader loader = java11Loader();
+        Assumptions.assumeTrue(loader != null, "未编译 Java 11 版本的 TableEvents（java11-jfr 配置）");
+        Class<?> events = Class.forName(TableEvents.class.getName(), true, loader);
+        Class<?> stage = Class.forName(TableStage.class.getName(), true, loader);
+        Assertions.assertFalse(isRecording(events.getMethod("run").invoke(null)));
+
+        Path file = Files.createTempFile("rapidtable-events", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable(EVENT_PREFIX + "Run");
+                recording.enable(EVENT_PREFIX + "Stage");
+                recording.enable(EVENT_PREFIX + "OrtRun");
+                recording.start();
+
+                Object run = events.getMethod("run").invoke(null);
+                Assertions.assertTrue(isRecording(run));
+                call(run, "imageSize", new Class<?>[]{int.class, int.class}, 640, 480);
+                call(run, "ocrBoxCount", new Class<?>[]{int.class}, 12);
+                Object match = events.getMethod("stage", stage).invoke(null, stage.getField("MATCH").get(null));
+                call(match, "cellCount", new Class<?>[]{int.class}, 9);
+                call(match, "close", new Class<?>[0]);
+                Object ortRun = events.getMethod("ortRun").invoke(null);
+                call(ortRun, "inputShape", new Class<?>[]{long[].class}, (Object) new long[]{2, 3, 488, 488});
+                call(ortRun, "close", new Class<?>[0]);
+                call(run, "cellCount", new Class<?>[]{int.class}, 9);
+                call(run, "close", new Class<?>[0]);
+
+                recording.stop();
+                recording.dump(file);
+            }
+
+            List<RecordedEvent> recorded = RecordingFile.readAllEvents(file);
+            RecordedEvent runEvent = find(recorded, "Run");
+            Assertions.assertEquals(640, runEvent.getInt("imageWidth"));
+            Assertions.assertEquals(480, runEvent.getInt("imageHeight"));
+            Assertions.assertEquals(12, runEvent.getInt("ocrBoxCount"));
+            Assertions.assertEquals(9, runEvent.getInt("cellCount"));
+            RecordedEvent stageEvent = find(recorded, "Stage");
+            Assertions.assertEquals("match", stageEvent.getString("stage"));
+            Assertions.assertEquals(9, stageEvent.getInt("cellCount"));
+            RecordedEvent ortEvent = find(recorded, "OrtRun");
+            Assertions.assertEquals(2, ortEvent.getLong("batchSize"));
+            Assertions.assertEquals("[2, 3, 488, 488]", ortEvent.getString("inputShape"));
+            // 阶段事件嵌套在 Run 事件的区间内
+            Assertions.assertFalse(stageEvent.getStartTime().isBefore(runEvent.getStartTime()));
+            Assertions.assertFalse(stageEvent.getEndTime().isAfter(runEvent.getEndTime()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * 以 META-INF/versions/11 优先的类加载器加载 Java 11 实现；类路径为目录时 JVM 不解析多版本目录，
+     * 为 jar 时直接使用当前类加载器
+     */
+    private static ClassLoader java11Loader() throws Exception {
+        URL location = TableEvents.class.getProtectionDomain().getCodeSource().getLocation();
+        Path classes = Paths.get(location.toURI());
+        if (Files.isRegularFile(classes)) {
+            return TableEvents.class.getClassLoader();
+        }
+        Path versioned = classes.resolve("META-INF/versions/11");
+        if (!Files.isRegularFile(versioned.resolve(TableEvents.class.getName().replace('.', '/') + ".class"))) {
+            return null;
+        }
+        ClassLoader platform = (ClassLoader) ClassLoader.class.getMethod("getPlatformClassLoader").invoke(null);
+        return new URLClassLoader(new URL[]{versioned.toUri().toURL(), classes.toUri().toURL()}, platform);
+    }
+
+    private static boolean isRecording(Object span) throws Exception {
+        Method method = span.getClass().getMethod("isRecording");
+        method.setAccessible(true);
+        return (Boolean) method.invoke(span);
+    }
+
+    private static void call(Object span, String name, Class<?>[] types, Object... args) throws Exception {
+        Method method = span.getClass().getMethod(name, types);
+        method.setAccessible(true);
+        method.invoke(span, args);
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(EVENT_PREFIX + name)) {
+                return event;
+            }
+        }
+        throw new AssertionError("未记录事件 " + name);
+    }
+}
@@ -0,0 +1,138 @@
+import io.github.hzkitty.entity.Pair;
+import io.github.hzkitty.rapidtable.entity.TableCell;
+import io.github.hzkitty.rapidtable.entity.TableResult;
+import io.github.hzkitty.rapidtable.entity.TableSkipReason;
+import io.github.hzkitty.rapidtable.utils.TableResultCodec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+public class TableResultCodecTest {
+
+    // 版本 1 的编码，修改编码格式后此数据仍须能正确解码
+    private static final String GOLDEN_V1 = "52540102000000000000e03f130e0103050b0d0001610e4b0001620e0c06040202040000"
+            + "000000000000000020410000a04000002041000000000000a0410000204189808000020000000000010101";
+
+    private static TableResult sample() {
+        String html = "<html><body><table><tr><td>姓名</td><td colspan=\"2\">a,b</td></tr></table></body></html>";
+        List<TableCell> cells = Arrays.asList(
+                new TableCell(0, 0, 0, 0, new float[]{1.5f, 2, 30, 40}, "姓名", 0.9f),
+                new TableCell(0, 0, 1, 2, new float[]{31, 2, 60.25f, 40}, "a,b", 0.8f));
+        TableResult result = new TableResult(() -> Pair.of(html, cells),
+                Arrays.asList(new float[]{1.5f, 2, 30, 40}, new float[]{31, 2, 60.25f, 40}),
+                () -> Arrays.asList(new int[]{0, 0, 0, 0}, new int[]{0, 0, 1, 2}), 0.125);
+        result.setSkipReason(TableSkipReason.NO_TEXT);
+        return result;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        TableResult result = sample();
+        // 使用堆外缓冲区，并在其后追加第二条数据
+        ByteBuffer encoded = TableResultCodec.encode(result);
+        ByteBuffer buf = ByteBuffer.allocateDirect(encoded.remaining() * 2);
+        buf.put(encoded.duplicate()).put(encoded.duplicate()).flip();
+
+        for (int i = 0; i < 2; i++) {
+            TableResult back = TableResultCodec.decode(buf);
+            Assertions.assertEquals(result.getHtmlStr(), back.getHtmlStr());
+            Assertions.assertArrayEquals(result.getPackedCellBoxes(), back.getPackedCellBoxes());
+            Assertions.assertArrayEquals(result.getPackedLogicPoints(), back.getPackedLogicPoints());
+            Assertions.assertEquals(result.getElapse(), back.getElapse());
+            Assertions.assertEquals(TableSkipReason.NO_TEXT, back.getSkipReason());
+            Assertions.assertEquals(result.getCells().toString(), back.getCells().toString());
+        }
+        Assertions.assertFalse(buf.hasRemaining());
+    }
+
+    @Test
+    public void testQuantizedRoundTrip() {
+        TableResult result = sample();
+        ByteBuffer plain = TableResultCodec.encode(result, false);
+        ByteBuffer quantized = TableResultCodec.encode(result, true);
+        Assertions.assertTrue(quantized.remaining() < plain.remaining());
+
+        TableResult back = TableResultCodec.decode(quantized);
+        float[] expected = result.getPackedCellBoxes();
+        float[] actual = back.getPackedCellBoxes();
+        Assertions.assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            Assertions.assertEquals(expected[i], actual[i], 0.01f);
+        }
+        Assertions.assertEquals(result.getHtmlStr(), back.getHtmlStr());
+        Assertions.assertEquals("a,b", back.getCells().get(1).getText());
+    }
+
+    @Test
+    public void testCompatibility() {
+        TableResult back = TableResultCodec.decode(ByteBuffer.wrap(fromHex(GOLDEN_V1)));
+        Assertions.assertEquals("<html><body><table><tr><td>a</td><td rowspan=\"2\">b</td></tr></table></body></html>",
+                back.getHtmlStr());
+        Assertions.assertArrayEquals(new float[]{0, 0, 10, 5, 10, 0, 20, 10}, back.getPackedCellBoxes());
+        Assertions.assertArrayEquals(new int[]{0, 0, 0, 0, 0, 1, 1, 1}, back.getPackedLogicPoints());
+        Assertions.assertEquals(0.5, back.getElapse());
+        Assertions.assertTrue(back.getCells().isEmpty());
+        Assertions.assertNull(back.getSkipReason());
+
+        // 同一版本下编码结果保持不变
+        Assertions.assertArrayEquals(fromHex(GOLDEN_V1), TableResultCodec.toBytes(back, false));
+
+        byte[] future = fromHex(GOLDEN_V1);
+        future[2] = TableResultCodec.VERSION + 1;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TableResultCodec.decode(ByteBuffer.wrap(future)));
+    }
+
+    @Test
+    public void testStableLists() {
+        TableResult result = sample();
+        List<float[]> boxes = result.getCellBoxes();
+        Assertions.assertSame(boxes, result.getCellBoxes());
+        boxes.get(0)[0] = 7;
+        Assertions.assertEquals(7, result.getCellBoxes().get(0)[0]);
+        Assertions.assertEquals(7, result.getPackedCellBoxes()[0]);
+        Assertions.assertEquals(7, TableResultCodec.decode(TableResultCodec.encode(result)).getPackedCellBoxes()[0]);
+
+        List<int[]> logic = result.getLogicPoints();
+        Assertions.assertSame(logic, result.getLogicPoints());
+        logic.get(1)[3] = 3;
+        Assertions.assertEquals(3, result.getPackedLogicPoints()[7]);
+    }
+
+    @Test
+    public void testMatchFailure() {
+        int[] calls = new int[1];
+        TableResult result = new TableResult(() -> {
+            calls[0]++;
+            throw new IllegalStateException("match");
+        }, Arrays.asList(new float[]{0, 0, 1, 1}), null, 0);
+        Assertions.assertThrows(IllegalStateException.class, result::getHtmlStr);
+        Assertions.assertThrows(IllegalStateException.class, result::getCells);
+        Assertions.assertEquals(1, calls[0]);
+    }
+
+    @Test
+    public void testSetHtmlKeepsLazyMatch() {
+        int[] calls = new int[1];
+        TableResult result = new TableResult(() -> {
+            calls[0]++;
+            return Pair.of("<table></table>", Arrays.asList(new TableCell(0, 0, 0, 0, new float[]{0, 0, 1, 1}, "a", 1f)));
+        }, Arrays.asList(new float[]{0, 0, 1, 1}), null, 0);
+        result.setHtmlStr("<table>x</table>");
+        Assertions.assertEquals("<table>x</table>", result.getHtmlStr());
+        Assertions.assertEquals(0, calls[0]);
+        Assertions.assertEquals("a", result.getCells().get(0).getText());
+        Assertions.assertEquals("<table>x</table>", result.getHtmlStr());
+        Assertions.assertEquals(1, calls[0]);
+    }
+
+    private static byte[] fromHex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+}
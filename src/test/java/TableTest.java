@@ -1,8 +1,15 @@
 import io.github.hzkitty.RapidOCR;
 import io.github.hzkitty.entity.OcrResult;
 import io.github.hzkitty.entity.ParamConfig;
+import io.github.hzkitty.entity.RecResult;
 import io.github.hzkitty.rapidtable.RapidTable;
+import io.github.hzkitty.rapidtable.TableOcrPipeline;
+import io.github.hzkitty.rapidtable.entity.TableConfig;
 import io.github.hzkitty.rapidtable.entity.TableResult;
+import io.github.hzkitty.rapidtable.entity.TableStage;
+import io.github.hzkitty.rapidtable.entity.TableStructure;
+import io.github.hzkitty.rapidtable.entity.TableTimeoutException;
+import io.github.hzkitty.rapidtable.utils.TableGridWriter;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.opencv.core.Mat;
@@ -11,7 +18,14 @@ import org.opencv.imgcodecs.Imgcodecs;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.StringWriter;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TableTest {
 
@@ -67,4 +81,105 @@ public class TableTest {
         System.out.println(tableResult);
     }
 
+    @Test
+    public void testPipeline() throws Exception {
+        File file = new File("src/test/resources/table_01.jpg");
+        try (TableOcrPipeline pipeline = new TableOcrPipeline(RapidOCR.create(), RapidTable.create())) {
+            TableResult tableResult = pipeline.run(file.getAbsolutePath());
+            Assertions.assertFalse(tableResult.getCellBoxes().isEmpty());
+            System.out.println(tableResult);
+        }
+    }
+
+    @Test
+    public void testStructureReuse() throws Exception {
+        RapidTable tableEngine = RapidTable.create();
+        RapidOCR rapidOCR = RapidOCR.create();
+        String imgContent = new File("src/test/resources/table_01.jpg").getAbsolutePath();
+        TableStructure structure = tableEngine.predictStructure(imgContent);
+        Assertions.assertFalse(structure.getCellBoxes().isEmpty());
+        Assertions.assertEquals(structure.getCellCount(), structure.getLogicPoints().size());
+
+        OcrResult ocrResult = rapidOCR.run(imgContent);
+        TableResult tableResult = tableEngine.assemble(structure, ocrResult.getRecRes(), true);
+        Assertions.assertEquals(tableEngine.run(imgContent, ocrResult.getRecRes()).getHtmlStr(), tableResult.getHtmlStr());
+        System.out.println(tableResult);
+    }
+
+    @Test
+    public void testCells() throws Exception {
+        RapidTable tableEngine = RapidTable.create();
+        RapidOCR rapidOCR = RapidOCR.create();
+        String imgContent = new File("src/test/resources/table_01.jpg").getAbsolutePath();
+        TableResult tableResult = tableEngine.run(imgContent, rapidOCR.run(imgContent).getRecRes());
+        Assertions.assertEquals(tableResult.getCellCount(), tableResult.getCells().size());
+
+        StringWriter csv = new StringWriter();
+        TableGridWriter.writeCsv(tableResult.getCells(), csv);
+        Assertions.assertFalse(csv.toString().isEmpty());
+        System.out.println(csv);
+    }
+
+    @Test
+    public void testTimings() throws Exception {
+        RapidTable tableEngine = RapidTable.create();
+        RapidOCR rapidOCR = RapidOCR.create();
+        String imgContent = new File("src/test/resources/table_01.jpg").getAbsolutePath();
+        AtomicLong ortNanos = new AtomicLong();
+        tableEngine.setMetricsListener((stage, nanos) -> {
+            if (stage == TableStage.ORT_RUN) {
+                ortNanos.addAndGet(nanos);
+            }
+        });
+        TableResult tableResult = tableEngine.run(imgContent, rapidOCR.run(imgContent).getRecRes());
+        tableResult.getHtmlStr();
+        Assertions.assertTrue(tableResult.getTimings().getNanos(TableStage.LOAD) > 0);
+        Assertions.assertTrue(tableResult.getTimings().getNanos(TableStage.MATCH) > 0);
+        Assertions.assertEquals(ortNanos.get(), tableResult.getTimings().getNanos(TableStage.ORT_RUN));
+        System.out.println(tableResult.getTimings());
+    }
+
+    @Test
+    public void testRunAsync() throws Exception {
+        RapidOCR rapidOCR = RapidOCR.create();
+        String imgContent = new File("src/test/resources/table_01.jpg").getAbsolutePath();
+        List<RecResult> recRes = rapidOCR.run(imgContent).getRecRes();
+        TableConfig config = new TableConfig();
+        config.asyncInferThreads = 1;
+        config.asyncQueueSize = 1;
+        try (RapidTable tableEngine = RapidTable.create(config)) {
+            TableResult expected = tableEngine.run(imgContent, recRes);
+            List<CompletableFuture<TableResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(tableEngine.runAsync(imgContent, recRes));
+            }
+            int completed = 0;
+            for (CompletableFuture<TableResult> future : futures) {
+                try {
+                    Assertions.assertEquals(expected.getHtmlStr(), future.get().getHtmlStr());
+                    completed++;
+                } catch (ExecutionException e) {
+                    // 队列满时快速失败，而不是无限排队
+                    Assertions.assertTrue(e.getCause() instanceof RejectedExecutionException);
+                }
+            }
+            Assertions.assertTrue(completed > 0);
+        }
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        RapidOCR rapidOCR = RapidOCR.create();
+        String imgContent = new File("src/test/resources/table_01.jpg").getAbsolutePath();
+        List<RecResult> recRes = rapidOCR.run(imgContent).getRecRes();
+        try (RapidTable tableEngine = RapidTable.create()) {
+            Assertions.assertThrows(TableTimeoutException.class, () -> tableEngine.run(imgContent, recRes, false, 1));
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                    () -> tableEngine.runAsync(imgContent, recRes, false, 1).get());
+            Assertions.assertTrue(e.getCause() instanceof TableTimeoutException);
+            // 超时不影响之后的识别
+            Assertions.assertFalse(tableEngine.run(imgContent, recRes, false, 60_000).getCellBoxes().isEmpty());
+        }
+    }
+
 }
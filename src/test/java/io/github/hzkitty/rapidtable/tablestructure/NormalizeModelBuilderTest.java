@@ -0,0 +1,165 @@
+package io.github.hzkitty.rapidtable.tablestructure;
+
+import ai.onnxruntime.OnnxJavaType;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class NormalizeModelBuilderTest {
+
+    private static final float SCALE = 1f / 255f;
+    private static final float[] MEAN = {0.485f, 0.456f, 0.406f};
+    private static final float[] STD = {0.229f, 0.224f, 0.225f};
+
+    /**
+     * 派生模型接收 [N, H, W, 3] uint8 与有效高宽，输出与先归一化再补 0 的参考预处理一致
+     */
+    @Test
+    public void testDerivedGraph() throws Exception {
+        byte[] derived = NormalizeModelBuilder.build(identityModel(), SCALE, MEAN, STD);
+        // 2x2 图像，有效区域为 2 行 1 列，右侧一列为填充区域（填入非 0 值，验证由掩码置 0）
+        byte[] hwc = {
+                (byte) 0, (byte) 128, (byte) 255, (byte) 7, (byte) 8, (byte) 9,
+                (byte) 10, (byte) 20, (byte) 30, (byte) 200, (byte) 100, (byte) 50,
+        };
+        long[] validSize = {2, 1};
+
+        OrtEnvironment env = OrtEnvironment.getEnvironment();
+        Map<String, OnnxTensor> inputs = new HashMap<>();
+        try (OrtSession.SessionOptions options = new OrtSession.SessionOptions();
+             OrtSession session = env.createSession(derived, options);
+             OnnxTensor image = OnnxTensor.createTensor(env, ByteBuffer.wrap(hwc), new long[]{1, 2, 2, 3}, OnnxJavaType.UINT8);
+             OnnxTensor valid = OnnxTensor.createTensor(env, LongBuffer.wrap(validSize), new long[]{1, 2})) {
+            inputs.put("x" + NormalizeModelBuilder.IMAGE_INPUT_SUFFIX, image);
+            inputs.put("x" + NormalizeModelBuilder.VALID_SIZE_INPUT_SUFFIX, valid);
+            try (OrtSession.Result result = session.run(inputs)) {
+                float[][][][] output = (float[][][][]) result.get(0).getValue();
+                for (int y = 0; y < 2; y++) {
+                    for (int x = 0; x < 2; x++) {
+                        int offset = (y * 2 + x) * 3;
+                        boolean inside = y < validSize[0] && x < validSize[1];
+                        for (int c = 0; c < 3; c++) {
+                            float expected = inside ? ((hwc[offset + c] & 0xFF) * SCALE - MEAN[c]) / STD[c] : 0f;
+                            Assertions.assertEquals(expected, output[0][c][y][x], 1e-5f, "c=" + c + " y=" + y + " x=" + x);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidModel() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> NormalizeModelBuilder.build(new byte[0], SCALE, MEAN, STD));
+        // 图像输入为 uint8 时无法改写
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> NormalizeModelBuilder.build(model(2, 13), SCALE, MEAN, STD));
+        // 掩码需要 Range 算子（opset 11）
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> NormalizeModelBuilder.build(model(1, 10), SCALE, MEAN, STD));
+    }
+
+    /**
+     * 缓存文件损坏或缺少摘要时重新生成
+     */
+    @Test
+    public void testCacheVerified() throws Exception {
+        Path dir = Files.createTempDirectory("rapidtable-derived");
+        try {
+            byte[] expected = NormalizeModelBuilder.build(identityModel(), SCALE, MEAN, STD);
+            Assertions.assertArrayEquals(expected, NormalizeModelBuilder.loadOrBuild(dir, "identity.onnx", identityModel(), SCALE, MEAN, STD));
+            Path cacheFile = find(dir, ".onnx");
+            Path digestFile = find(dir, ".onnx.sha256");
+            Assertions.assertArrayEquals(expected, Files.readAllBytes(cacheFile));
+
+            Files.write(cacheFile, new byte[]{1, 2, 3});
+            Assertions.assertArrayEquals(expected, NormalizeModelBuilder.loadOrBuild(dir, "identity.onnx", identityModel(), SCALE, MEAN, STD));
+            Assertions.assertArrayEquals(expected, Files.readAllBytes(cacheFile));
+
+            Files.delete(digestFile);
+            Assertions.assertArrayEquals(expected, NormalizeModelBuilder.loadOrBuild(dir, "identity.onnx", identityModel(), SCALE, MEAN, STD));
+            Assertions.assertTrue(Files.isRegularFile(digestFile));
+
+            // 归一化参数不同时使用另一个缓存文件
+            NormalizeModelBuilder.loadOrBuild(dir, "identity.onnx", identityModel(), SCALE, MEAN, new float[]{1f, 1f, 1f});
+            try (Stream<Path> files = Files.list(dir)) {
+                Assertions.assertEquals(4L, files.count());
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                files.forEach(file -> file.toFile().delete());
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static Path find(Path dir, String suffix) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).findFirst()
+                    .orElseThrow(() -> new AssertionError("缺少 " + suffix + " 文件"));
+        }
+    }
+
+    private static byte[] identityModel() {
+        return model(1, 13);
+    }
+
+    /**
+     * 最小的 ONNX 模型：y = Identity(x)，x、y 为 [1, 3, 2, 2]
+     *
+     * @param elemType x 的元素类型（TensorProto.DataType）
+     * @param opset    默认域的 opset 版本
+     */
+    private static byte[] model(int elemType, int opset) {
+        ByteArrayOutputStream node = new ByteArrayOutputStream();
+        NormalizeModelBuilder.ProtoWriter.writeString(node, 1, "x");
+        NormalizeModelBuilder.ProtoWriter.writeString(node, 2, "y");
+        NormalizeModelBuilder.ProtoWriter.writeString(node, 4, "Identity");
+
+        ByteArrayOutputStream graph = new ByteArrayOutputStream();
+        NormalizeModelBuilder.ProtoWriter.writeBytes(graph, 1, node.toByteArray());
+        NormalizeModelBuilder.ProtoWriter.writeString(graph, 2, "identity");
+        NormalizeModelBuilder.ProtoWriter.writeBytes(graph, 11, valueInfo("x", elemType));
+        NormalizeModelBuilder.ProtoWriter.writeBytes(graph, 12, valueInfo("y", elemType));
+
+        ByteArrayOutputStream opsetId = new ByteArrayOutputStream();
+        NormalizeModelBuilder.ProtoWriter.writeString(opsetId, 1, "");
+        NormalizeModelBuilder.ProtoWriter.writeVarint(opsetId, 2, opset);
+
+        ByteArrayOutputStream model = new ByteArrayOutputStream();
+        NormalizeModelBuilder.ProtoWriter.writeVarint(model, 1, 8);
+        NormalizeModelBuilder.ProtoWriter.writeBytes(model, 7, graph.toByteArray());
+        NormalizeModelBuilder.ProtoWriter.writeBytes(model, 8, opsetId.toByteArray());
+        return model.toByteArray();
+    }
+
+    private static byte[] valueInfo(String name, int elemType) {
+        ByteArrayOutputStream shape = new ByteArrayOutputStream();
+        for (long dim : new long[]{1, 3, 2, 2}) {
+            ByteArrayOutputStream dimension = new ByteArrayOutputStream();
+            NormalizeModelBuilder.ProtoWriter.writeVarint(dimension, 1, dim);
+            NormalizeModelBuilder.ProtoWriter.writeBytes(shape, 1, dimension.toByteArray());
+        }
+        ByteArrayOutputStream tensorType = new ByteArrayOutputStream();
+        NormalizeModelBuilder.ProtoWriter.writeVarint(tensorType, 1, elemType);
+        NormalizeModelBuilder.ProtoWriter.writeBytes(tensorType, 2, shape.toByteArray());
+        ByteArrayOutputStream type = new ByteArrayOutputStream();
+        NormalizeModelBuilder.ProtoWriter.writeBytes(type, 1, tensorType.toByteArray());
+        ByteArrayOutputStream info = new ByteArrayOutputStream();
+        NormalizeModelBuilder.ProtoWriter.writeString(info, 1, name);
+        NormalizeModelBuilder.ProtoWriter.writeBytes(info, 2, type.toByteArray());
+        return info.toByteArray();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.hzkitty.rapidtable.tablestructure;
+
+import org.opencv.core.Mat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 测试用：按结构识别器的输入模式预处理图像，得到模型输入 [C, H, W]，用于校验不同预处理路径的一致性
+ */
+public final class PreprocessProbe {
+
+    private PreprocessProbe() {
+    }
+
+    /**
+     * uint8 模式按模型内置的归一化与有效区域掩码换算为浮点，填充区域为 0
+     *
+     * @return 图像为空或预处理失败时返回 null
+     */
+    public static float[][][] preprocessTensor(TableStructurer structurer, Mat img, int inputSize) {
+        if (img == null) {
+            return null;
+        }
+        boolean uint8Input = structurer.getSession().isUint8Input();
+        Map<String, Object> data = new HashMap<>();
+        data.put("image", img);
+        data.put("max_len", inputSize);
+        Map<String, Object> processedData = new TablePreprocess(inputSize, uint8Input).call(data);
+        if (processedData == null) {
+            return null;
+        }
+        Object image = processedData.get("image");
+        if (!uint8Input) {
+            return (float[][][]) image;
+        }
+        float[] shape = (float[]) processedData.get("shape");
+        int padH = (int) shape[4];
+        int padW = (int) shape[5];
+        // 与 TableStructurer 传给模型的有效高宽一致
+        int validH = Math.round(shape[0] * shape[2]);
+        int validW = Math.round(shape[1] * shape[3]);
+        byte[] hwc = (byte[]) image;
+        int channels = hwc.length / (padH * padW);
+        float[][][] chw = new float[channels][padH][padW];
+        for (int y = 0; y < validH; y++) {
+            for (int x = 0; x < validW; x++) {
+                int offset = (y * padW + x) * channels;
+                for (int c = 0; c < channels; c++) {
+                    chw[c][y][x] = (float) (((hwc[offset + c] & 0xFF) * TablePreprocess.NORM_SCALE
+                            - TablePreprocess.NORM_MEAN.val[c]) / TablePreprocess.NORM_STD.val[c]);
+                }
+            }
+        }
+        return chw;
+    }
+}
@@ -0,0 +1,335 @@
+package io.github.hzkitty.rapidtable.utils;
+
+import io.github.hzkitty.entity.Pair;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 合成表格生成器：离线用 OpenCV 绘制表格图像，并给出对应的结构 token、单元格框、逻辑坐标与 OCR 输入
+ * <p>
+ * 相同的 {@link Spec}（含随机种子）总是生成相同的表格，用于可复现的基准测试与规模测试（数千个单元格），
+ * 不依赖网络或外部数据集。表格铺满页宽，行数较多时图像高度超过页面高度。
+ */
+public final class SyntheticTableGenerator {
+
+    private static final int FONT = Imgproc.FONT_HERSHEY_SIMPLEX;
+    // 字号为 1 时 FONT_HERSHEY_SIMPLEX 的大写字母高度（像素）
+    private static final double FONT_PIXELS = 22.0;
+    private static final String ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnpqrstuvwxyz0123456789";
+
+    private SyntheticTableGenerator() {
+    }
+
+    /**
+     * 生成参数
+     */
+    public static class Spec {
+        public int rows = 10; // 行数
+        public int cols = 5; // 列数
+        public double spanRatio = 0.1; // 单元格成为合并单元格的概率 [0, 1]
+        public int maxSpan = 3; // 合并单元格的最大行数、列数
+        public boolean borders = true; // 是否绘制单元格边框（有线表格），否则为无线表格
+        public double textDensity = 0.8; // 含文字的单元格比例 [0, 1]
+        public double pageWidthInch = 8.27; // 页面宽度（英寸），默认 A4
+        public double pageHeightInch = 11.69; // 页面高度（英寸），行数较多时图像会更高
+        public int dpi = 150; // 分辨率
+        public double rowHeightInch = 0.3; // 行高（英寸）
+        public double marginInch = 0.5; // 页边距（英寸）
+        public long seed = 42; // 随机种子
+
+        public Spec rows(int rows) {
+            this.rows = rows;
+            return this;
+        }
+
+        public Spec cols(int cols) {
+            this.cols = cols;
+            return this;
+        }
+
+        public Spec spanRatio(double spanRatio) {
+            this.spanRatio = spanRatio;
+            return this;
+        }
+
+        public Spec maxSpan(int maxSpan) {
+            this.maxSpan = maxSpan;
+            return this;
+        }
+
+        public Spec borders(boolean borders) {
+            this.borders = borders;
+            return this;
+        }
+
+        public Spec textDensity(double textDensity) {
+            this.textDensity = textDensity;
+            return this;
+        }
+
+        public Spec page(double widthInch, double heightInch) {
+            this.pageWidthInch = widthInch;
+            this.pageHeightInch = heightInch;
+            return this;
+        }
+
+        public Spec dpi(int dpi) {
+            this.dpi = dpi;
+            return this;
+        }
+
+        public Spec seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+    }
+
+    /**
+     * 按参数生成表格
+     */
+    public static SyntheticTable generate(Spec spec) {
+        if (spec.rows <= 0 || spec.cols <= 0) {
+            throw new IllegalArgumentException("行数、列数必须大于 0");
+        }
+        Random random = new Random(spec.seed);
+        List<int[]> cells = layout(spec, random);
+
+        int margin = (int) Math.round(spec.marginInch * spec.dpi);
+        int pageW = (int) Math.round(spec.pageWidthInch * spec.dpi);
+        int pageH = (int) Math.round(spec.pageHeightInch * spec.dpi);
+        double colW = (double) (pageW - 2 * margin) / spec.cols;
+        double rowH = spec.rowHeightInch * spec.dpi;
+        if (colW < 4 || rowH < 4) {
+            throw new IllegalArgumentException("页面过小或列数过多，单元格不足 4 像素");
+        }
+        int height = Math.max(pageH, (int) Math.ceil(spec.rows * rowH) + 2 * margin);
+        int thickness = Math.max(1, spec.dpi / 100);
+        // 字高约为行高的 45%
+        double fontScale = rowH * 0.45 / FONT_PIXELS;
+        int padding = Math.max(2, (int) Math.round(rowH * 0.2));
+
+        Mat img = new Mat(height, pageW, CvType.CV_8UC3, new Scalar(255, 255, 255));
+        Scalar black = new Scalar(0, 0, 0);
+        SyntheticTable table = new SyntheticTable(img, spec);
+        table.structure.add("<html>");
+        table.structure.add("<body>");
+        table.structure.add("<table>");
+        table.structure.add("<tbody>");
+        int cellIndex = 0;
+        for (int r = 0; r < spec.rows; r++) {
+            table.structure.add("<tr>");
+            while (cellIndex < cells.size() && cells.get(cellIndex)[0] == r) {
+                int[] cell = cells.get(cellIndex++);
+                int rowSpan = cell[1] - cell[0] + 1;
+                int colSpan = cell[3] - cell[2] + 1;
+                if (rowSpan == 1 && colSpan == 1) {
+                    table.structure.add("<td></td>");
+                } else {
+                    table.structure.add("<td");
+                    if (colSpan > 1) {
+                        table.structure.add(" colspan=\"" + colSpan + "\"");
+                    }
+                    if (rowSpan > 1) {
+                        table.structure.add(" rowspan=\"" + rowSpan + "\"");
+                    }
+                    table.structure.add(">");
+                    table.structure.add("</td>");
+                }
+
+                float x1 = (float) (margin + cell[2] * colW);
+                float y1 = (float) (margin + cell[0] * rowH);
+                float x2 = (float) (margin + (cell[3] + 1) * colW);
+                float y2 = (float) (margin + (cell[1] + 1) * rowH);
+                table.cellBoxes.add(new float[]{x1, y1, x2, y2});
+                table.logicPoints.add(cell);
+                if (spec.borders) {
+                    Imgproc.rectangle(img, new Point(x1, y1), new Point(x2, y2), black, thickness);
+                }
+
+                if (random.nextDouble() < spec.textDensity) {
+                    String text = fitText(randomText(random), x2 - x1 - 2 * padding, fontScale, thickness);
+                    if (!text.isEmpty()) {
+                        Size size = Imgproc.getTextSize(text, FONT, fontScale, thickness, new int[1]);
+                        double tx = x1 + padding;
+                        // 文字在单元格内垂直居中（基线位置）
+                        double baseline = (y1 + y2 + size.height) / 2;
+                        Imgproc.putText(img, text, new Point(tx, baseline), FONT, fontScale, black, thickness);
+                        float bx1 = (float) tx;
+                        float by1 = (float) (baseline - size.height);
+                        float bx2 = (float) (tx + size.width);
+                        float by2 = (float) baseline + thickness;
+                        table.ocrBoxes.add(new Point[]{new Point(bx1, by1), new Point(bx2, by1),
+                                new Point(bx2, by2), new Point(bx1, by2)});
+                        table.dtBoxes.add(new float[]{bx1, by1, bx2, by2});
+                        // 置信度在 [0.85, 1) 之间
+                        table.recRes.add(Pair.of(text, 0.85f + random.nextFloat() * 0.15f));
+                    }
+                }
+            }
+            table.structure.add("</tr>");
+        }
+        table.structure.add("</tbody>");
+        table.structure.add("</table>");
+        table.structure.add("</body>");
+        table.structure.add("</html>");
+        return table;
+    }
+
+    /**
+     * 按行优先放置单元格，返回 [row_start, row_end, col_start, col_end] 列表（按起始行、列排序）
+     */
+    private static List<int[]> layout(Spec spec, Random random) {
+        boolean[][] occupied = new boolean[spec.rows][spec.cols];
+        List<int[]> cells = new ArrayList<>();
+        for (int r = 0; r < spec.rows; r++) {
+            for (int c = 0; c < spec.cols; c++) {
+                if (occupied[r][c]) {
+                    continue;
+                }
+                int rowSpan = 1;
+                int colSpan = 1;
+                if (spec.maxSpan > 1 && random.nextDouble() < spec.spanRatio) {
+                    rowSpan = 1 + random.nextInt(spec.maxSpan);
+                    colSpan = 1 + random.nextInt(spec.maxSpan);
+                    rowSpan = Math.min(rowSpan, spec.rows - r);
+                    // 列方向遇到已占用的位置（上方的跨行单元格）时截断
+                    int freeCols = 0;
+                    while (freeCols < colSpan && c + freeCols < spec.cols && !occupied[r][c + freeCols]) {
+                        freeCols++;
+                    }
+                    colSpan = freeCols;
+                }
+                for (int rr = r; rr < r + rowSpan; rr++) {
+                    for (int cc = c; cc < c + colSpan; cc++) {
+                        occupied[rr][cc] = true;
+                    }
+                }
+                cells.add(new int[]{r, r + rowSpan - 1, c, c + colSpan - 1});
+            }
+        }
+        return cells;
+    }
+
+    private static String randomText(Random random) {
+        int length = 2 + random.nextInt(9);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 截断文字使其不超出单元格宽度
+     */
+    private static String fitText(String text, double maxWidth, double fontScale, int thickness) {
+        while (!text.isEmpty()
+                && Imgproc.getTextSize(text, FONT, fontScale, thickness, new int[1]).width > maxWidth) {
+            text = text.substring(0, text.length() - 1);
+        }
+        return text;
+    }
+
+    /**
+     * 生成结果
+     */
+    public static class SyntheticTable {
+        private final Mat image;
+        private final Spec spec;
+        private final List<String> structure = new ArrayList<>();
+        private final List<float[]> cellBoxes = new ArrayList<>();
+        private final List<int[]> logicPoints = new ArrayList<>();
+        private final List<Point[]> ocrBoxes = new ArrayList<>();
+        private final List<float[]> dtBoxes = new ArrayList<>();
+        private final List<Pair<String, Float>> recRes = new ArrayList<>();
+
+        SyntheticTable(Mat image, Spec spec) {
+            this.image = image;
+            this.spec = spec;
+        }
+
+        /**
+         * 绘制的 BGR 图像，由调用方负责释放
+         */
+        public Mat getImage() {
+            return image;
+        }
+
+        public Spec getSpec() {
+            return spec;
+        }
+
+        /**
+         * 结构 token，与模型输出格式一致（含 html、body、table 包裹）
+         */
+        public List<String> getStructure() {
+            return Collections.unmodifiableList(structure);
+        }
+
+        /**
+         * 单元格框 [x1, y1, x2, y2]，与结构中的 td 一一对应
+         */
+        public List<float[]> getCellBoxes() {
+            return Collections.unmodifiableList(cellBoxes);
+        }
+
+        /**
+         * 逻辑坐标 [row_start, row_end, col_start, col_end]，与单元格框一一对应
+         */
+        public List<int[]> getLogicPoints() {
+            return Collections.unmodifiableList(logicPoints);
+        }
+
+        public int getCellCount() {
+            return cellBoxes.size();
+        }
+
+        /**
+         * OCR 四点框（左上、右上、右下、左下），与 RecResult.getDtBoxes 格式一致
+         */
+        public List<Point[]> getOcrBoxes() {
+            return Collections.unmodifiableList(ocrBoxes);
+        }
+
+        /**
+         * OCR 框 [xMin, yMin, xMax, yMax]，可直接用于 TableMatch
+         */
+        public List<float[]> getDtBoxes() {
+            return Collections.unmodifiableList(dtBoxes);
+        }
+
+        /**
+         * OCR 文本与置信度，与 OCR 框一一对应
+         */
+        public List<Pair<String, Float>> getRecRes() {
+            return Collections.unmodifiableList(recRes);
+        }
+
+        /**
+         * 转换为 OCR 结果列表（如 RecResult），由调用方按所用 OCR 版本构造每一条
+         */
+        public <T> List<T> toOcrResult(OcrEntryFactory<T> factory) {
+            List<T> result = new ArrayList<>(ocrBoxes.size());
+            for (int i = 0; i < ocrBoxes.size(); i++) {
+                result.add(factory.create(ocrBoxes.get(i).clone(), recRes.get(i).getLeft(), recRes.get(i).getRight()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 由四点框、文本、置信度构造一条 OCR 结果
+     */
+    public interface OcrEntryFactory<T> {
+        T create(Point[] box, String text, float confidence);
+    }
+}
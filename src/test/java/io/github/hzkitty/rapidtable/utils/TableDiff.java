@@ -0,0 +1,176 @@
+package io.github.hzkitty.rapidtable.utils;
+
+import io.github.hzkitty.rapidtable.entity.TableResult;
+import io.github.hzkitty.rapidtable.entity.TableStructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 比较参考流水线与优化路径的输出，返回可读的差异描述（每类差异只报告第一处），没有差异时返回空列表
+ * <p>
+ * 模型输入与坐标按误差容限比较；token 序列、HTML（逐字节）与逻辑坐标要求完全一致。
+ */
+public final class TableDiff {
+
+    private TableDiff() {
+    }
+
+    /**
+     * 比较预处理后的模型输入 [C, H, W]
+     */
+    public static List<String> compareTensor(String label, float[][][] expected, float[][][] actual, float eps) {
+        List<String> diffs = new ArrayList<>();
+        if (expected == null || actual == null) {
+            if (expected != actual) {
+                diffs.add(label + ": 输入张量 " + (expected == null ? "参考为 null" : "结果为 null"));
+            }
+            return diffs;
+        }
+        if (expected.length != actual.length) {
+            diffs.add(label + ": 输入张量通道数 " + expected.length + " != " + actual.length);
+            return diffs;
+        }
+        float maxDiff = 0;
+        String where = null;
+        for (int c = 0; c < expected.length; c++) {
+            if (expected[c].length != actual[c].length) {
+                diffs.add(label + ": 输入张量高度 " + expected[c].length + " != " + actual[c].length);
+                return diffs;
+            }
+            for (int y = 0; y < expected[c].length; y++) {
+                if (expected[c][y].length != actual[c][y].length) {
+                    diffs.add(label + ": 输入张量宽度 " + expected[c][y].length + " != " + actual[c][y].length);
+                    return diffs;
+                }
+                for (int x = 0; x < expected[c][y].length; x++) {
+                    float diff = Math.abs(expected[c][y][x] - actual[c][y][x]);
+                    if (diff > maxDiff) {
+                        maxDiff = diff;
+                        where = "[" + c + "][" + y + "][" + x + "]";
+                    }
+                }
+            }
+        }
+        if (maxDiff > eps) {
+            diffs.add(String.format("%s: 输入张量最大误差 %.6f 超过 %.6f，位置 %s", label, maxDiff, eps, where));
+        }
+        return diffs;
+    }
+
+    /**
+     * 比较结构推理结果：token 序列、单元格框、逻辑坐标
+     */
+    public static List<String> compareStructure(String label, TableStructure expected, TableStructure actual,
+                                                float boxEps) {
+        List<String> diffs = new ArrayList<>();
+        compareTokens(label, expected.getTokens(), actual.getTokens(), diffs);
+        compareBoxes(label, expected.getCellBoxes(), actual.getCellBoxes(), boxEps, diffs);
+        compareLogicPoints(label, expected.getLogicPoints(), actual.getLogicPoints(), diffs);
+        return diffs;
+    }
+
+    /**
+     * 比较识别结果：HTML、单元格框、逻辑坐标
+     */
+    public static List<String> compareResult(String label, TableResult expected, TableResult actual, float boxEps) {
+        List<String> diffs = new ArrayList<>();
+        compareHtml(label, expected.getHtmlStr(), actual.getHtmlStr(), diffs);
+        compareBoxes(label, expected.getCellBoxes(), actual.getCellBoxes(), boxEps, diffs);
+        compareLogicPoints(label, expected.getLogicPoints(), actual.getLogicPoints(), diffs);
+        if (expected.getSkipReason() != actual.getSkipReason()) {
+            diffs.add(label + ": 跳过原因 " + expected.getSkipReason() + " != " + actual.getSkipReason());
+        }
+        return diffs;
+    }
+
+    public static void compareTokens(String label, List<String> expected, List<String> actual, List<String> diffs) {
+        if (expected == null || actual == null) {
+            if (expected != actual) {
+                diffs.add(label + ": token 序列 " + (expected == null ? "参考为 null" : "结果为 null"));
+            }
+            return;
+        }
+        int n = Math.min(expected.size(), actual.size());
+        for (int i = 0; i < n; i++) {
+            if (!expected.get(i).equals(actual.get(i))) {
+                diffs.add(label + ": token[" + i + "] " + expected.get(i) + " != " + actual.get(i));
+                return;
+            }
+        }
+        if (expected.size() != actual.size()) {
+            diffs.add(label + ": token 数 " + expected.size() + " != " + actual.size());
+        }
+    }
+
+    public static void compareHtml(String label, String expected, String actual, List<String> diffs) {
+        if (expected == null ? actual == null : expected.equals(actual)) {
+            return;
+        }
+        if (expected == null || actual == null) {
+            diffs.add(label + ": HTML " + (expected == null ? "参考为 null" : "结果为 null"));
+            return;
+        }
+        int i = 0;
+        int n = Math.min(expected.length(), actual.length());
+        while (i < n && expected.charAt(i) == actual.charAt(i)) {
+            i++;
+        }
+        diffs.add(label + ": HTML 在第 " + i + " 个字符处不同: " + excerpt(expected, i) + " != " + excerpt(actual, i));
+    }
+
+    public static void compareBoxes(String label, List<float[]> expected, List<float[]> actual, float eps,
+                                    List<String> diffs) {
+        if (expected == null || actual == null) {
+            if (expected != actual) {
+                diffs.add(label + ": 单元格框 " + (expected == null ? "参考为 null" : "结果为 null"));
+            }
+            return;
+        }
+        if (expected.size() != actual.size()) {
+            diffs.add(label + ": 单元格数 " + expected.size() + " != " + actual.size());
+            return;
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            float[] a = expected.get(i);
+            float[] b = actual.get(i);
+            if (a.length != b.length) {
+                diffs.add(label + ": 单元格框[" + i + "] 维度 " + a.length + " != " + b.length);
+                return;
+            }
+            for (int k = 0; k < a.length; k++) {
+                if (Math.abs(a[k] - b[k]) > eps) {
+                    diffs.add(label + ": 单元格框[" + i + "] " + Arrays.toString(a) + " != " + Arrays.toString(b));
+                    return;
+                }
+            }
+        }
+    }
+
+    public static void compareLogicPoints(String label, List<int[]> expected, List<int[]> actual, List<String> diffs) {
+        if (expected == null || actual == null) {
+            if (expected != actual) {
+                diffs.add(label + ": 逻辑坐标 " + (expected == null ? "参考为 null" : "结果为 null"));
+            }
+            return;
+        }
+        if (expected.size() != actual.size()) {
+            diffs.add(label + ": 逻辑坐标数 " + expected.size() + " != " + actual.size());
+            return;
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (!Arrays.equals(expected.get(i), actual.get(i))) {
+                diffs.add(label + ": 逻辑坐标[" + i + "] " + Arrays.toString(expected.get(i)) + " != "
+                        + Arrays.toString(actual.get(i)));
+                return;
+            }
+        }
+    }
+
+    private static String excerpt(String value, int index) {
+        int from = Math.max(0, index - 20);
+        int to = Math.min(value.length(), index + 20);
+        return "\"" + value.substring(from, to) + "\"";
+    }
+}